@@ -0,0 +1,57 @@
+package com.asadmshah.dynanimhelper;
+
+import android.support.animation.DynamicAnimation;
+import android.support.animation.SpringForce;
+import android.view.View;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the cost of building a group and of applying a builder to an existing one.
+ */
+@State(Scope.Thread)
+public class BuilderBenchmark {
+
+    private SpringAnimationGroup.Builder supportBuilder;
+
+    private SpringAnimationGroup.Builder analyticBuilder;
+
+    private SpringAnimationGroup group;
+
+    @Setup
+    public void setUp() {
+        View view = new View();
+        supportBuilder = configure(SpringAnimationGroup.from(view));
+        analyticBuilder = configure(SpringAnimationGroup.from(view)).setEngine(SpringAnimationGroup.ENGINE_ANALYTIC);
+        group = analyticBuilder.build();
+    }
+
+    @Benchmark
+    public SpringAnimationGroup buildSupport() {
+        return supportBuilder.build();
+    }
+
+    @Benchmark
+    public SpringAnimationGroup buildAnalytic() {
+        return analyticBuilder.build();
+    }
+
+    @Benchmark
+    public SpringAnimationGroup applyTo() {
+        return analyticBuilder.applyTo(group, false);
+    }
+
+    static SpringAnimationGroup.Builder configure(SpringAnimationGroup.Builder builder) {
+        return builder
+                .setDampingRatio(SpringForce.DAMPING_RATIO_MEDIUM_BOUNCY)
+                .setStiffness(SpringForce.STIFFNESS_LOW)
+                .setFinalPosition(DynamicAnimation.TRANSLATION_X, 100f)
+                .setFinalPosition(DynamicAnimation.TRANSLATION_Y, 200f)
+                .setFinalPosition(DynamicAnimation.SCALE_X, 1.5f)
+                .setFinalPosition(DynamicAnimation.SCALE_Y, 1.5f);
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.asadmshah.dynanimhelper;
+
+import android.support.animation.DynamicAnimation;
+import android.view.Choreographer;
+import android.view.View;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures one frame of an analytic group: stepping every spring, writing every view and
+ * dispatching the per-frame listeners. Each invocation is one 16 ms frame; groups that come to rest
+ * are sent back to the other end so that every frame does work.
+ */
+@State(Scope.Thread)
+public class FrameBenchmark {
+
+    private static final long FRAME_NANOS = 16000000L;
+
+    @Param({"1", "60", "240"})
+    public int views;
+
+    @Param({"false", "true"})
+    public boolean metrics;
+
+    private SpringAnimationGroup group;
+
+    private long frameTimeNanos;
+
+    private boolean forward;
+
+    private Blackhole blackhole;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        this.blackhole = blackhole;
+
+        View[] targets = new View[views];
+        for (int i = 0; i < views; i++) {
+            targets[i] = new View();
+        }
+
+        SpringAnimationGroup.Builder builder = BuilderBenchmark.configure(SpringAnimationGroup.from(targets))
+                .setEngine(SpringAnimationGroup.ENGINE_ANALYTIC);
+        if (metrics) {
+            builder.setMetricsSink(new GroupMetrics.MetricsSink() {
+                @Override
+                public void onGroupFrame(SpringAnimationGroup group, GroupMetrics metrics) {
+                    FrameBenchmark.this.blackhole.consume(metrics.getLastFrameIntervalNanos());
+                }
+
+                @Override
+                public void onGroupSettled(SpringAnimationGroup group, GroupMetrics metrics) {
+                    FrameBenchmark.this.blackhole.consume(metrics.getDurationNanos());
+                }
+            });
+        }
+
+        group = builder.build();
+        group.addUpdateListener(new SpringAnimationGroup.OnGroupAnimationUpdateListener() {
+            @Override
+            public void onGroupAnimationUpdate(SpringAnimationGroup group, float[] values, float[] velocities) {
+                FrameBenchmark.this.blackhole.consume(values);
+            }
+        });
+        group.start();
+    }
+
+    @Benchmark
+    public void frame() {
+        if (!group.isRunning()) {
+            forward = !forward;
+            group.animateToFinalPosition(DynamicAnimation.TRANSLATION_X, forward ? 0f : 100f);
+            group.animateToFinalPosition(DynamicAnimation.TRANSLATION_Y, forward ? 0f : 200f);
+            group.animateToFinalPosition(DynamicAnimation.SCALE_X, forward ? 1f : 1.5f);
+            group.animateToFinalPosition(DynamicAnimation.SCALE_Y, forward ? 1f : 1.5f);
+        }
+
+        frameTimeNanos += FRAME_NANOS;
+        Choreographer.getInstance().doFrame(frameTimeNanos);
+    }
+
+}
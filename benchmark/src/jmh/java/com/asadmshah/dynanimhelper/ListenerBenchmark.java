@@ -0,0 +1,78 @@
+package com.asadmshah.dynanimhelper;
+
+import android.support.animation.DynamicAnimation;
+import android.view.View;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures adding and removing listeners on an idle group.
+ */
+@State(Scope.Thread)
+public class ListenerBenchmark {
+
+    @Param({"0", "1"})
+    public int engine;
+
+    private SpringAnimationGroup group;
+
+    private final SpringAnimationGroup.OnGroupAnimationEndListener groupEndListener = new SpringAnimationGroup.OnGroupAnimationEndListener() {
+        @Override
+        public void onGroupAnimationEnd(SpringAnimationGroup group, boolean canceled, float value, float velocity) {
+        }
+    };
+
+    private final SpringAnimationGroup.OnGroupAnimationUpdateListener groupUpdateListener = new SpringAnimationGroup.OnGroupAnimationUpdateListener() {
+        @Override
+        public void onGroupAnimationUpdate(SpringAnimationGroup group, float[] values, float[] velocities) {
+        }
+    };
+
+    private final SpringAnimationGroup.OnPropertyAnimationEndListener propertyEndListener = new SpringAnimationGroup.OnPropertyAnimationEndListener() {
+        @Override
+        public void onPropertyAnimationEnd(SpringAnimationGroup group, DynamicAnimation.ViewProperty property, boolean canceled, float value, float velocity) {
+        }
+    };
+
+    private final SpringAnimationGroup.OnPropertyAnimationUpdateListener propertyUpdateListener = new SpringAnimationGroup.OnPropertyAnimationUpdateListener() {
+        @Override
+        public void onPropertyAnimationUpdate(SpringAnimationGroup group, DynamicAnimation.ViewProperty property, float value, float velocity) {
+        }
+    };
+
+    @Setup
+    public void setUp() {
+        group = BuilderBenchmark.configure(SpringAnimationGroup.from(new View()))
+                .setEngine(engine)
+                .build();
+    }
+
+    @Benchmark
+    public void groupEndListener() {
+        group.addEndListener(groupEndListener);
+        group.removeEndListener(groupEndListener);
+    }
+
+    @Benchmark
+    public void groupUpdateListener() {
+        group.addUpdateListener(groupUpdateListener);
+        group.removeUpdateListener(groupUpdateListener);
+    }
+
+    @Benchmark
+    public void propertyEndListener() {
+        group.addEndListener(DynamicAnimation.TRANSLATION_X, propertyEndListener);
+        group.removeEndListener(DynamicAnimation.TRANSLATION_X, propertyEndListener);
+    }
+
+    @Benchmark
+    public void propertyUpdateListener() {
+        group.addUpdateListener(DynamicAnimation.TRANSLATION_X, propertyUpdateListener);
+        group.removeUpdateListener(DynamicAnimation.TRANSLATION_X, propertyUpdateListener);
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.asadmshah.dynanimhelper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures evaluating a spring in closed form for each damping regime, against playing back the
+ * same spring from a baked trajectory.
+ */
+@State(Scope.Thread)
+public class SpringSolverBenchmark {
+
+    private static final int SPRINGS = 1000;
+
+    @Param({"0.2", "1.0", "2.0"})
+    public float dampingRatio;
+
+    private SpringSolver solver;
+
+    private TrajectoryCache.Trajectory trajectory;
+
+    private final float[] displacements = new float[SPRINGS];
+
+    private final float[] velocities = new float[SPRINGS];
+
+    private float time;
+
+    @Setup
+    public void setUp() {
+        solver = new SpringSolver(200f, dampingRatio);
+        trajectory = new TrajectoryCache(1).obtain(200f, dampingRatio, 0f);
+        for (int i = 0; i < SPRINGS; i++) {
+            displacements[i] = i - SPRINGS / 2f;
+            velocities[i] = (i % 7) * 100f;
+        }
+    }
+
+    @Benchmark
+    public float evaluate() {
+        time = time > 2f ? 0f : time + 0.016f;
+        solver.evaluate(time);
+        return solver.getDisplacement(100f, 0f) + solver.getVelocity(100f, 0f);
+    }
+
+    @Benchmark
+    public float baked() {
+        time = time > 2f ? 0f : time + 0.016f;
+        if (trajectory.sample(time)) {
+            return 100f * trajectory.getDisplacement() + 100f * trajectory.getVelocity();
+        }
+        return 0f;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SPRINGS)
+    public float evaluateShared() {
+        time = time > 2f ? 0f : time + 0.016f;
+        solver.evaluate(time);
+
+        float sum = 0f;
+        for (int i = 0; i < SPRINGS; i++) {
+            sum += solver.getDisplacement(displacements[i], velocities[i]);
+        }
+        return sum;
+    }
+
+}
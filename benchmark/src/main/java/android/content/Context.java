@@ -0,0 +1,18 @@
+package android.content;
+
+import android.os.PowerManager;
+
+/**
+ * Stand-in for the framework class. Only provides the power manager.
+ */
+public class Context {
+
+    public static final String POWER_SERVICE = "power";
+
+    private final PowerManager powerManager = new PowerManager();
+
+    public Object getSystemService(String name) {
+        return POWER_SERVICE.equals(name) ? powerManager : null;
+    }
+
+}
@@ -0,0 +1,16 @@
+package android.content.res;
+
+import android.util.DisplayMetrics;
+
+/**
+ * Stand-in for the framework class.
+ */
+public class Resources {
+
+    private final DisplayMetrics displayMetrics = new DisplayMetrics();
+
+    public DisplayMetrics getDisplayMetrics() {
+        return displayMetrics;
+    }
+
+}
@@ -0,0 +1,7 @@
+package android.graphics;
+
+/**
+ * Stand-in for the framework class.
+ */
+public class Paint {
+}
@@ -0,0 +1,13 @@
+package android.graphics;
+
+/**
+ * Stand-in for the framework class.
+ */
+public final class Rect {
+
+    public int left;
+    public int top;
+    public int right;
+    public int bottom;
+
+}
@@ -0,0 +1,16 @@
+package android.os;
+
+/**
+ * Stand-in for the framework class, describing an API 25 device.
+ */
+public class Build {
+
+    public static class VERSION {
+        public static final int SDK_INT = 25;
+    }
+
+    public static class VERSION_CODES {
+        public static final int LOLLIPOP = 21;
+    }
+
+}
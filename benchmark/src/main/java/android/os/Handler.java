@@ -0,0 +1,16 @@
+package android.os;
+
+/**
+ * Stand-in for the framework class. Runs posted work right away on the calling thread.
+ */
+public class Handler {
+
+    public Handler(Looper looper) {
+    }
+
+    public final boolean post(Runnable runnable) {
+        runnable.run();
+        return true;
+    }
+
+}
@@ -0,0 +1,20 @@
+package android.os;
+
+/**
+ * Stand-in for the framework class. The thread is never started; its handlers run work inline.
+ */
+public class HandlerThread extends Thread {
+
+    public HandlerThread(String name, int priority) {
+        super(name);
+    }
+
+    @Override
+    public synchronized void start() {
+    }
+
+    public Looper getLooper() {
+        return Looper.getMainLooper();
+    }
+
+}
@@ -0,0 +1,7 @@
+package android.os;
+
+/**
+ * Stand-in for the framework class.
+ */
+public interface IBinder {
+}
@@ -0,0 +1,21 @@
+package android.os;
+
+/**
+ * Stand-in for the framework class. Every thread is treated as the main thread.
+ */
+public final class Looper {
+
+    private static final Looper MAIN = new Looper();
+
+    private Looper() {
+    }
+
+    public static Looper myLooper() {
+        return MAIN;
+    }
+
+    public static Looper getMainLooper() {
+        return MAIN;
+    }
+
+}
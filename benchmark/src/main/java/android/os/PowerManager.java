@@ -0,0 +1,18 @@
+package android.os;
+
+/**
+ * Stand-in for the framework class. Power save mode can be switched for benchmarks.
+ */
+public final class PowerManager {
+
+    private boolean powerSaveMode;
+
+    public boolean isPowerSaveMode() {
+        return powerSaveMode;
+    }
+
+    public void setPowerSaveMode(boolean powerSaveMode) {
+        this.powerSaveMode = powerSaveMode;
+    }
+
+}
@@ -0,0 +1,10 @@
+package android.os;
+
+/**
+ * Stand-in for the framework class.
+ */
+public class Process {
+
+    public static final int THREAD_PRIORITY_DISPLAY = -4;
+
+}
@@ -0,0 +1,129 @@
+package android.support.animation;
+
+import java.util.ArrayList;
+
+/**
+ * Stand-in for the support class. Keeps listeners and the running state but doesn't animate.
+ */
+public abstract class DynamicAnimation<T extends DynamicAnimation<T>> {
+
+    public static final ViewProperty TRANSLATION_X = new ViewProperty("translationX");
+    public static final ViewProperty TRANSLATION_Y = new ViewProperty("translationY");
+    public static final ViewProperty TRANSLATION_Z = new ViewProperty("translationZ");
+    public static final ViewProperty SCALE_X = new ViewProperty("scaleX");
+    public static final ViewProperty SCALE_Y = new ViewProperty("scaleY");
+    public static final ViewProperty ROTATION = new ViewProperty("rotation");
+    public static final ViewProperty ROTATION_X = new ViewProperty("rotationX");
+    public static final ViewProperty ROTATION_Y = new ViewProperty("rotationY");
+    public static final ViewProperty X = new ViewProperty("x");
+    public static final ViewProperty Y = new ViewProperty("y");
+    public static final ViewProperty Z = new ViewProperty("z");
+    public static final ViewProperty ALPHA = new ViewProperty("alpha");
+    public static final ViewProperty SCROLL_X = new ViewProperty("scrollX");
+    public static final ViewProperty SCROLL_Y = new ViewProperty("scrollY");
+
+    final ArrayList<OnAnimationEndListener> endListeners = new ArrayList<>();
+
+    final ArrayList<OnAnimationUpdateListener> updateListeners = new ArrayList<>();
+
+    boolean running;
+
+    @SuppressWarnings("unchecked")
+    public T setStartValue(float startValue) {
+        return (T) this;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T setStartVelocity(float startVelocity) {
+        return (T) this;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T setMaxValue(float max) {
+        return (T) this;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T setMinValue(float min) {
+        return (T) this;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T setMinimumVisibleChange(float minimumVisibleChange) {
+        if (minimumVisibleChange <= 0) {
+            throw new IllegalArgumentException("Minimum visible change must be positive.");
+        }
+        return (T) this;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T addEndListener(OnAnimationEndListener listener) {
+        if (!endListeners.contains(listener)) {
+            endListeners.add(listener);
+        }
+        return (T) this;
+    }
+
+    public void removeEndListener(OnAnimationEndListener listener) {
+        endListeners.remove(listener);
+    }
+
+    @SuppressWarnings("unchecked")
+    public T addUpdateListener(OnAnimationUpdateListener listener) {
+        if (running) {
+            throw new UnsupportedOperationException("Error: Update listeners must be added before the animation.");
+        }
+        if (!updateListeners.contains(listener)) {
+            updateListeners.add(listener);
+        }
+        return (T) this;
+    }
+
+    public void removeUpdateListener(OnAnimationUpdateListener listener) {
+        updateListeners.remove(listener);
+    }
+
+    public void start() {
+        running = true;
+    }
+
+    public void cancel() {
+        if (running) {
+            end(true);
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    void end(boolean canceled) {
+        running = false;
+        for (int i = endListeners.size() - 1; i >= 0; i--) {
+            endListeners.get(i).onAnimationEnd(this, canceled, 0f, 0f);
+        }
+    }
+
+    public static class ViewProperty {
+
+        final String name;
+
+        private ViewProperty(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    public interface OnAnimationEndListener {
+        void onAnimationEnd(DynamicAnimation animation, boolean canceled, float value, float velocity);
+    }
+
+    public interface OnAnimationUpdateListener {
+        void onAnimationUpdate(DynamicAnimation animation, float value, float velocity);
+    }
+
+}
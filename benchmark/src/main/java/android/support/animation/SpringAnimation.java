@@ -0,0 +1,47 @@
+package android.support.animation;
+
+import android.view.View;
+
+/**
+ * Stand-in for the support class.
+ */
+public final class SpringAnimation extends DynamicAnimation<SpringAnimation> {
+
+    private SpringForce spring;
+
+    public SpringAnimation(View view, ViewProperty property) {
+    }
+
+    public SpringAnimation(View view, ViewProperty property, float finalPosition) {
+        spring = new SpringForce(finalPosition);
+    }
+
+    public SpringForce getSpring() {
+        return spring;
+    }
+
+    public SpringAnimation setSpring(SpringForce spring) {
+        this.spring = spring;
+        return this;
+    }
+
+    public void animateToFinalPosition(float finalPosition) {
+        if (spring == null) {
+            spring = new SpringForce(finalPosition);
+        } else {
+            spring.setFinalPosition(finalPosition);
+        }
+        start();
+    }
+
+    public void skipToEnd() {
+        if (running) {
+            end(false);
+        }
+    }
+
+    public boolean canSkipToEnd() {
+        return spring.getDampingRatio() > 0;
+    }
+
+}
@@ -0,0 +1,62 @@
+package android.support.animation;
+
+/**
+ * Stand-in for the support class. Holds the spring constants only.
+ */
+public final class SpringForce {
+
+    public static final float STIFFNESS_HIGH = 10000f;
+    public static final float STIFFNESS_MEDIUM = 1500f;
+    public static final float STIFFNESS_LOW = 200f;
+    public static final float STIFFNESS_VERY_LOW = 50f;
+
+    public static final float DAMPING_RATIO_HIGH_BOUNCY = 0.2f;
+    public static final float DAMPING_RATIO_MEDIUM_BOUNCY = 0.5f;
+    public static final float DAMPING_RATIO_LOW_BOUNCY = 0.75f;
+    public static final float DAMPING_RATIO_NO_BOUNCY = 1f;
+
+    private float stiffness = STIFFNESS_MEDIUM;
+    private float dampingRatio = DAMPING_RATIO_MEDIUM_BOUNCY;
+    private float finalPosition = Float.MAX_VALUE;
+
+    public SpringForce() {
+    }
+
+    public SpringForce(float finalPosition) {
+        this.finalPosition = finalPosition;
+    }
+
+    public SpringForce setStiffness(float stiffness) {
+        if (stiffness <= 0) {
+            throw new IllegalArgumentException("Spring stiffness constant must be positive.");
+        }
+        this.stiffness = stiffness;
+        return this;
+    }
+
+    public float getStiffness() {
+        return stiffness;
+    }
+
+    public SpringForce setDampingRatio(float dampingRatio) {
+        if (dampingRatio < 0) {
+            throw new IllegalArgumentException("Damping ratio must be non-negative");
+        }
+        this.dampingRatio = dampingRatio;
+        return this;
+    }
+
+    public float getDampingRatio() {
+        return dampingRatio;
+    }
+
+    public SpringForce setFinalPosition(float finalPosition) {
+        this.finalPosition = finalPosition;
+        return this;
+    }
+
+    public float getFinalPosition() {
+        return finalPosition;
+    }
+
+}
@@ -0,0 +1,18 @@
+package android.support.annotation;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * Stand-in for the support annotation.
+ */
+@Retention(RetentionPolicy.CLASS)
+public @interface FloatRange {
+    double from() default Double.NEGATIVE_INFINITY;
+
+    double to() default Double.POSITIVE_INFINITY;
+
+    boolean fromInclusive() default true;
+
+    boolean toInclusive() default true;
+}
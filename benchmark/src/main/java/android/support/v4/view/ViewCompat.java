@@ -0,0 +1,26 @@
+package android.support.v4.view;
+
+import android.view.View;
+
+/**
+ * Stand-in for the support class.
+ */
+public class ViewCompat {
+
+    public static float getTranslationZ(View view) {
+        return view.getTranslationZ();
+    }
+
+    public static void setTranslationZ(View view, float value) {
+        view.setTranslationZ(value);
+    }
+
+    public static float getZ(View view) {
+        return view.getZ();
+    }
+
+    public static void setZ(View view, float value) {
+        view.setZ(value);
+    }
+
+}
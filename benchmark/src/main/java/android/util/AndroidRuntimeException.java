@@ -0,0 +1,12 @@
+package android.util;
+
+/**
+ * Stand-in for the framework class.
+ */
+public class AndroidRuntimeException extends RuntimeException {
+
+    public AndroidRuntimeException(String message) {
+        super(message);
+    }
+
+}
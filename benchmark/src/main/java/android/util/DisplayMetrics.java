@@ -0,0 +1,10 @@
+package android.util;
+
+/**
+ * Stand-in for the framework class, describing an xxhdpi display.
+ */
+public class DisplayMetrics {
+
+    public float density = 3f;
+
+}
@@ -0,0 +1,54 @@
+package android.view;
+
+import java.util.ArrayList;
+
+/**
+ * Stand-in for the framework class. Frames are produced by calling {@link #doFrame(long)} instead
+ * of by the display.
+ */
+public final class Choreographer {
+
+    private static final Choreographer INSTANCE = new Choreographer();
+
+    private ArrayList<FrameCallback> callbacks = new ArrayList<>();
+
+    private ArrayList<FrameCallback> dispatching = new ArrayList<>();
+
+    private Choreographer() {
+    }
+
+    public static Choreographer getInstance() {
+        return INSTANCE;
+    }
+
+    public void postFrameCallback(FrameCallback callback) {
+        callbacks.add(callback);
+    }
+
+    public void removeFrameCallback(FrameCallback callback) {
+        while (callbacks.remove(callback)) {
+            // Remove every occurrence, like the framework does.
+        }
+    }
+
+    /**
+     * Runs every callback posted before this call, as a vsync would.
+     *
+     * @param frameTimeNanos the frame time passed to the callbacks
+     */
+    public void doFrame(long frameTimeNanos) {
+        ArrayList<FrameCallback> frame = callbacks;
+        callbacks = dispatching;
+        dispatching = frame;
+
+        for (int i = 0; i < frame.size(); i++) {
+            frame.get(i).doFrame(frameTimeNanos);
+        }
+        frame.clear();
+    }
+
+    public interface FrameCallback {
+        void doFrame(long frameTimeNanos);
+    }
+
+}
@@ -0,0 +1,26 @@
+package android.view;
+
+/**
+ * Stand-in for the framework class. Reports the velocity it was given instead of tracking motion
+ * events.
+ */
+public final class VelocityTracker {
+
+    private float xVelocity;
+    private float yVelocity;
+
+    private VelocityTracker() {
+    }
+
+    public static VelocityTracker obtain() { return new VelocityTracker(); }
+
+    public void recycle() { }
+
+    public void setVelocity(float xVelocity, float yVelocity) { this.xVelocity = xVelocity; this.yVelocity = yVelocity; }
+
+    public void computeCurrentVelocity(int units) { }
+
+    public float getXVelocity() { return xVelocity; }
+    public float getYVelocity() { return yVelocity; }
+
+}
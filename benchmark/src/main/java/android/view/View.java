@@ -0,0 +1,108 @@
+package android.view;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.os.IBinder;
+
+import java.util.ArrayList;
+
+/**
+ * Stand-in for the framework class. Holds the animated properties in plain fields. Every view is
+ * attached to the same visible window.
+ */
+public class View {
+
+    public static final int LAYER_TYPE_NONE = 0;
+    public static final int LAYER_TYPE_SOFTWARE = 1;
+    public static final int LAYER_TYPE_HARDWARE = 2;
+
+    public static final int VISIBLE = 0;
+
+    private static final Context CONTEXT = new Context();
+
+    private static final IBinder WINDOW_TOKEN = new IBinder() { };
+
+    private static final ViewTreeObserver VIEW_TREE_OBSERVER = new ViewTreeObserver();
+
+    private final ArrayList<OnAttachStateChangeListener> attachStateChangeListeners = new ArrayList<>();
+
+    private final Resources resources = new Resources();
+
+    private int layerType = LAYER_TYPE_NONE;
+
+    private int width;
+    private int height;
+
+    private float translationX;
+    private float translationY;
+    private float translationZ;
+    private float scaleX = 1f;
+    private float scaleY = 1f;
+    private float rotation;
+    private float rotationX;
+    private float rotationY;
+    private float x;
+    private float y;
+    private float z;
+    private float alpha = 1f;
+    private int scrollX;
+    private int scrollY;
+
+    public View() { }
+    public View(Context context) { }
+
+    public Context getContext() { return CONTEXT; }
+
+    public Resources getResources() { return resources; }
+
+    public float getTranslationX() { return translationX; }
+    public void setTranslationX(float value) { translationX = value; }
+    public float getTranslationY() { return translationY; }
+    public void setTranslationY(float value) { translationY = value; }
+    public float getTranslationZ() { return translationZ; }
+    public void setTranslationZ(float value) { translationZ = value; }
+    public float getScaleX() { return scaleX; }
+    public void setScaleX(float value) { scaleX = value; }
+    public float getScaleY() { return scaleY; }
+    public void setScaleY(float value) { scaleY = value; }
+    public float getRotation() { return rotation; }
+    public void setRotation(float value) { rotation = value; }
+    public float getRotationX() { return rotationX; }
+    public void setRotationX(float value) { rotationX = value; }
+    public float getRotationY() { return rotationY; }
+    public void setRotationY(float value) { rotationY = value; }
+    public float getX() { return x; }
+    public void setX(float value) { x = value; }
+    public float getY() { return y; }
+    public void setY(float value) { y = value; }
+    public float getZ() { return z; }
+    public void setZ(float value) { z = value; }
+    public float getAlpha() { return alpha; }
+    public void setAlpha(float value) { alpha = value; }
+    public int getScrollX() { return scrollX; }
+    public void setScrollX(int value) { scrollX = value; }
+    public int getScrollY() { return scrollY; }
+    public void setScrollY(int value) { scrollY = value; }
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public void layout(int left, int top, int right, int bottom) { width = right - left; height = bottom - top; }
+    public int getLayerType() { return layerType; }
+    public void setLayerType(int layerType, Paint paint) { this.layerType = layerType; }
+
+    public IBinder getWindowToken() { return WINDOW_TOKEN; }
+    public ViewTreeObserver getViewTreeObserver() { return VIEW_TREE_OBSERVER; }
+    public int getWindowVisibility() { return VISIBLE; }
+    public boolean isShown() { return true; }
+    public boolean getGlobalVisibleRect(Rect rect) { return true; }
+
+    public void addOnAttachStateChangeListener(OnAttachStateChangeListener listener) { attachStateChangeListeners.add(listener); }
+    public void removeOnAttachStateChangeListener(OnAttachStateChangeListener listener) { attachStateChangeListeners.remove(listener); }
+
+    public interface OnAttachStateChangeListener {
+        void onViewAttachedToWindow(View view);
+        void onViewDetachedFromWindow(View view);
+    }
+
+}
@@ -0,0 +1,34 @@
+package android.view;
+
+import java.util.ArrayList;
+
+/**
+ * Stand-in for the framework class. Every view is in the same window, whose pre-draw listeners are
+ * called by {@link #dispatchOnPreDraw()} instead of by a traversal.
+ */
+public final class ViewTreeObserver {
+
+    private final ArrayList<OnPreDrawListener> preDrawListeners = new ArrayList<>();
+
+    public void addOnPreDrawListener(OnPreDrawListener listener) {
+        preDrawListeners.add(listener);
+    }
+
+    public void removeOnPreDrawListener(OnPreDrawListener listener) {
+        preDrawListeners.remove(listener);
+    }
+
+
+    public boolean dispatchOnPreDraw() {
+        boolean cancelDraw = false;
+        for (OnPreDrawListener listener : new ArrayList<>(preDrawListeners)) {
+            cancelDraw |= !listener.onPreDraw();
+        }
+        return cancelDraw;
+    }
+
+    public interface OnPreDrawListener {
+        boolean onPreDraw();
+    }
+
+}
@@ -0,0 +1,700 @@
+package com.asadmshah.dynanimhelper;
+
+import android.os.Looper;
+import android.support.animation.SpringForce;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.AndroidRuntimeException;
+import android.view.View;
+
+/**
+ * {@link PropertyAnimator} that evaluates its spring in closed form with a {@link SpringSolver}.
+ * The trajectory is recomputed from the initial state and the elapsed time on every frame, so the
+ * result does not accumulate integration error and does not depend on the frame rate.
+ *
+ * <p>Any {@link FloatProperty} can be animated; values go straight from the solver to the property
+ * as primitive floats.</p>
+ *
+ * <p>Animators don't receive frames themselves. Their owner steps them from a {@link FrameScheduler}
+ * client in three passes: {@link #stepFrame(long)} for every animator, then {@link #applyFrame()},
+ * then {@link #dispatchFrame()}.</p>
+ *
+ * @see SpringAnimationGroup#ENGINE_ANALYTIC
+ */
+final class AnalyticPropertyAnimator extends PropertyAnimator {
+
+    /**
+     * Same multipliers as the support library uses to derive its thresholds from the minimum visible
+     * change of a property.
+     */
+    static final float THRESHOLD_MULTIPLIER = 0.75f;
+    static final float VELOCITY_THRESHOLD_MULTIPLIER = 1000f / 16f;
+
+    private static final float NANOS_PER_SECOND = 1000000000f;
+
+    /**
+     * Same multiplier as the support library's FlingAnimation uses to turn a friction into the rate
+     * at which the velocity decays.
+     */
+    static final float FRICTION_MULTIPLIER = 4.2f;
+
+    private final SpringSolver solver = new SpringSolver();
+
+    private float valueThreshold;
+
+    private float velocityThreshold;
+
+    private SpringForce spring;
+
+    /**
+     * Whether {@link #spring} was created by this animator, rather than handed to it.
+     */
+    private boolean ownsSpring;
+
+    private float minValue = -Float.MAX_VALUE;
+
+    private float maxValue = Float.MAX_VALUE;
+
+    private float startValue;
+
+    private boolean startValueIsSet;
+
+    private float value;
+
+    private float velocity;
+
+    /**
+     * Initial state of the current trajectory, relative to the final position of the spring.
+     */
+    private float initialDisplacement;
+
+    private float initialVelocity;
+
+    /**
+     * Frame time the current trajectory starts at, or {@code 0} if it starts on the next frame.
+     */
+    private long initialFrameTimeNanos;
+
+    private long lastFrameTimeNanos;
+
+    private boolean running;
+
+    /**
+     * Whether the last {@link #stepFrame(long)} produced a new value to dispatch.
+     */
+    private boolean stepped;
+
+    /**
+     * Whether the last {@link #stepFrame(long)} brought the spring to rest.
+     */
+    private boolean finished;
+
+    /**
+     * Incremented whenever the trajectory changes, so that frames computed from an older trajectory
+     * by the {@link BackgroundStepper} are thrown away.
+     */
+    private int generation;
+
+    /**
+     * Whether the final position changed since the trajectory was last computed. Retargets are
+     * coalesced, so that a trajectory is only computed once per frame however often the final
+     * position changes, from the last final position.
+     */
+    private boolean retargetPending;
+
+    /**
+     * Scheduler the {@link #frameClient} is registered with whenever the animator starts.
+     */
+    private FrameScheduler frameScheduler;
+
+    /**
+     * Client that steps this animator.
+     */
+    private FrameScheduler.Client frameClient;
+
+    /**
+     * Cache the trajectories are played back from, or {@code null} to evaluate the spring directly.
+     */
+    @Nullable
+    private TrajectoryCache trajectoryCache;
+
+    /**
+     * Baked trajectory of the current run, or {@code null} if it is evaluated directly.
+     */
+    @Nullable
+    private TrajectoryCache.Trajectory trajectory;
+
+    /**
+     * The other axis of a two-dimensional spring, or {@code null} if the spring is one-dimensional.
+     */
+    @Nullable
+    private AnalyticPropertyAnimator partner;
+
+    /**
+     * Whether this animator is stepped before its partner, which then settles both axes.
+     */
+    private boolean leadsPartner;
+
+    /**
+     * Time the solver was last evaluated at, so that the partner can reuse the evaluation.
+     */
+    private float evaluatedSeconds = Float.NaN;
+
+    /**
+     * Property that is written with the same value as {@link #property}, or {@code null}.
+     */
+    @Nullable
+    private FloatProperty<? super View> lockedProperty;
+
+    /**
+     * Rate at which the velocity decays while the animator is {@link #decaying}, or {@code 0} if it
+     * goes straight to its spring.
+     */
+    private float decayRate;
+
+    /**
+     * Sorted positions the spring may come to rest at after a decay, or {@code null} to rest where
+     * the decay would have stopped.
+     */
+    @Nullable
+    private float[] snapPoints;
+
+    /**
+     * Whether the current trajectory decelerates under friction instead of following the spring.
+     */
+    private boolean decaying;
+
+    AnalyticPropertyAnimator(@NonNull View view, @NonNull FloatProperty<? super View> property, @NonNull SpringForce springForce) {
+        super(view, property);
+
+        this.spring = springForce;
+
+        valueThreshold = property.getMinimumVisibleChange() * THRESHOLD_MULTIPLIER;
+        velocityThreshold = valueThreshold * VELOCITY_THRESHOLD_MULTIPLIER;
+    }
+
+    void setFrameClient(@NonNull FrameScheduler frameScheduler, @NonNull FrameScheduler.Client frameClient) {
+        this.frameScheduler = frameScheduler;
+        this.frameClient = frameClient;
+    }
+
+    void setTrajectoryCache(@Nullable TrajectoryCache trajectoryCache) {
+        this.trajectoryCache = trajectoryCache;
+    }
+
+    /**
+     * Makes the two animators the axes of one two-dimensional spring. Both axes use the stiffness
+     * and damping ratio of the first one, start and retarget together, share one solver evaluation
+     * per frame and come to rest in the same frame, once the length of the displacement and of the
+     * velocity are below the thresholds of the second axis. The first animator must be stepped before
+     * the second.
+     */
+    static void couple(@NonNull AnalyticPropertyAnimator first, @NonNull AnalyticPropertyAnimator second) {
+        first.partner = second;
+        first.leadsPartner = true;
+        second.partner = first;
+        second.leadsPartner = false;
+        second.alignSpring(first.spring);
+    }
+
+    /**
+     * @return whether this animator is the second axis of a two-dimensional spring, which takes the
+     *         stiffness and damping ratio of the first axis
+     */
+    boolean isSecondAxis() {
+        return partner != null && !leadsPartner;
+    }
+
+    /**
+     * Copies the stiffness and damping ratio of the first axis of a two-dimensional spring to the
+     * second axis, after they were changed in place.
+     */
+    void alignPartner() {
+        if (partner != null && leadsPartner) {
+            partner.alignSpring(spring);
+        }
+    }
+
+    /**
+     * Gives this animator the stiffness and damping ratio of the given spring. The first time, the
+     * animator gets a spring of its own, since its current one may be shared with a builder or the
+     * caller and must not change.
+     */
+    private void alignSpring(@NonNull SpringForce springForce) {
+        if (!ownsSpring) {
+            spring = new SpringForce(spring.getFinalPosition());
+            ownsSpring = true;
+        }
+        spring.setStiffness(springForce.getStiffness());
+        spring.setDampingRatio(springForce.getDampingRatio());
+    }
+
+    /**
+     * Writes every value of this animator to another property of the view as well.
+     */
+    void setLockedProperty(@Nullable FloatProperty<? super View> lockedProperty) {
+        this.lockedProperty = lockedProperty;
+    }
+
+    /**
+     * Makes every run that starts with a velocity decelerate under the given friction first, and hand
+     * off to the spring once the spring would brake at least as hard as the friction or the decay
+     * passes the final position. The final position is picked when the run starts, as the snap point
+     * closest to where the decay would stop; if the decay wouldn't reach it, the spring takes over
+     * right away.
+     *
+     * @param friction friction as in the support library's FlingAnimation, or {@code 0} to disable
+     * @param snapPoints sorted snap points, or {@code null} to stop where the decay would stop
+     */
+    void setDecay(float friction, @Nullable float[] snapPoints) {
+        this.decayRate = friction * FRICTION_MULTIPLIER;
+        this.snapPoints = snapPoints;
+    }
+
+    @Override
+    SpringForce getSpring() {
+        return spring;
+    }
+
+    /**
+     * Must not be called on the second axis of a two-dimensional spring, which takes the spring of
+     * the first axis.
+     */
+    @Override
+    void setSpring(@NonNull SpringForce springForce) {
+        spring = springForce;
+        ownsSpring = false;
+        if (running) {
+            resetTrajectory();
+        }
+        if (partner != null) {
+            partner.alignSpring(springForce);
+            if (partner.running) {
+                partner.resetTrajectory();
+            }
+        }
+    }
+
+    @Override
+    void setStartValue(float startValue) {
+        this.startValue = startValue;
+        this.startValueIsSet = true;
+    }
+
+    @Override
+    void setStartVelocity(float startVelocity) {
+        this.velocity = startVelocity;
+        if (running) {
+            // Continues from the current value with the new velocity on the next frame.
+            decaying = decayRate > 0f && startVelocity != 0f;
+            requestRetarget();
+            if (partner != null && partner.running) {
+                partner.requestRetarget();
+            }
+        }
+    }
+
+    @Override
+    void setMinValue(float min) {
+        this.minValue = min;
+        generation++;
+    }
+
+    @Override
+    void setMaxValue(float max) {
+        this.maxValue = max;
+        generation++;
+    }
+
+    @Override
+    void setMinimumVisibleChange(float minimumVisibleChange) {
+        valueThreshold = minimumVisibleChange * THRESHOLD_MULTIPLIER;
+        velocityThreshold = valueThreshold * VELOCITY_THRESHOLD_MULTIPLIER;
+        generation++;
+    }
+
+    @Override
+    void start() {
+        checkMainThread();
+        if (running) {
+            return;
+        }
+
+        value = startValueIsSet ? startValue : property.getValue(view);
+        if (value > maxValue || value < minValue) {
+            throw new IllegalArgumentException("Starting value need to be in between min value and max value");
+        }
+
+        running = true;
+        stepped = false;
+        finished = false;
+        decaying = decayRate > 0f && velocity != 0f;
+        lastFrameTimeNanos = 0;
+        resetTrajectory();
+
+        frameScheduler.register(frameClient);
+        dispatchStart(value);
+
+        if (partner != null) {
+            // The other axis joins from where it is, so both follow one trajectory from the next frame.
+            if (partner.running) {
+                partner.requestRetarget();
+            } else {
+                partner.start();
+            }
+        }
+    }
+
+    @Override
+    void cancel() {
+        checkMainThread();
+        if (running) {
+            endAnimation(true);
+            if (partner != null) {
+                partner.cancel();
+            }
+        }
+    }
+
+    @Override
+    void skipToEnd() {
+        if (!canSkipToEnd()) {
+            throw new UnsupportedOperationException("Spring animations can only come to an end when there is damping");
+        }
+        checkMainThread();
+        if (running) {
+            value = spring.getFinalPosition();
+            velocity = 0f;
+            setPropertyValue(value);
+            endAnimation(false);
+            if (partner != null) {
+                partner.skipToEnd();
+            }
+        }
+    }
+
+    @Override
+    boolean canSkipToEnd() {
+        return spring.getDampingRatio() > 0f;
+    }
+
+    @Override
+    void animateToFinalPosition(float finalPosition) {
+        spring.setFinalPosition(finalPosition);
+        if (running) {
+            decaying = false;
+            requestRetarget();
+            if (partner != null && partner.running) {
+                partner.requestRetarget();
+            }
+        } else {
+            start();
+        }
+    }
+
+    @Override
+    boolean isRunning() {
+        return running;
+    }
+
+    float getValue() {
+        return value;
+    }
+
+    float getVelocity() {
+        return velocity;
+    }
+
+    /**
+     * @return whether the last {@link #stepFrame(long)} produced a new value that hasn't been
+     *         dispatched yet
+     */
+    boolean hasSteppedFrame() {
+        return stepped;
+    }
+
+    /**
+     * Computes the value and velocity of the spring at the given frame time without touching the view.
+     *
+     * @param frameTimeNanos the time at which the frame started rendering
+     */
+    void stepFrame(long frameTimeNanos) {
+        stepped = false;
+        if (!running) {
+            return;
+        }
+
+        if (retargetPending) {
+            resetTrajectory();
+        }
+
+        if (initialFrameTimeNanos == 0) {
+            initialFrameTimeNanos = frameTimeNanos;
+            lastFrameTimeNanos = frameTimeNanos;
+            generation++;
+            return;
+        }
+
+        lastFrameTimeNanos = frameTimeNanos;
+
+        float seconds = (frameTimeNanos - initialFrameTimeNanos) / NANOS_PER_SECOND;
+        float displacement;
+        if (decaying) {
+            float decay = (float) Math.exp(-decayRate * seconds);
+            displacement = initialDisplacement + initialVelocity / decayRate * (1f - decay);
+            velocity = initialVelocity * decay;
+            if (displacement * initialDisplacement <= 0f || shouldHandOff(displacement)) {
+                // The spring continues from this frame with the value and velocity of the decay.
+                value = spring.getFinalPosition() + displacement;
+                decaying = false;
+                resetTrajectory();
+            }
+        } else if (trajectory != null && trajectory.sample(seconds)) {
+            displacement = initialDisplacement * trajectory.getDisplacement();
+            velocity = initialDisplacement * trajectory.getVelocity();
+        } else {
+            SpringSolver evaluated = solver;
+            if (partner != null && partner.evaluatedSeconds == seconds && partner.solver.getStiffness() == solver.getStiffness()
+                    && partner.solver.getDampingRatio() == solver.getDampingRatio()) {
+                // The other axis already evaluated the same spring at the same time in this frame.
+                evaluated = partner.solver;
+            } else {
+                solver.evaluate(seconds);
+                evaluatedSeconds = seconds;
+            }
+            displacement = evaluated.getDisplacement(initialDisplacement, initialVelocity);
+            velocity = evaluated.getVelocity(initialDisplacement, initialVelocity);
+        }
+        value = spring.getFinalPosition() + displacement;
+
+        if (value >= maxValue) {
+            value = maxValue;
+            finished = true;
+        } else if (value <= minValue) {
+            value = minValue;
+            finished = true;
+        } else if (decaying) {
+            // Decays hand off to the spring before they can come to rest.
+        } else if (partner != null && partner.running && (leadsPartner || partner.stepped && !partner.finished)) {
+            // The axes settle together, which the second one decides once both are stepped.
+            if (!leadsPartner) {
+                settleWithPartner(displacement);
+            }
+        } else if (Math.abs(displacement) < valueThreshold && Math.abs(velocity) < velocityThreshold) {
+            value = spring.getFinalPosition();
+            velocity = 0f;
+            finished = true;
+        }
+
+        stepped = true;
+    }
+
+    /**
+     * Returns whether the spring would brake at least as hard as the friction from the given
+     * displacement, or the decay is too slow to be seen.
+     */
+    private boolean shouldHandOff(float displacement) {
+        float speed = Math.abs(velocity);
+        float damping = 2f * spring.getDampingRatio() * (float) Math.sqrt(spring.getStiffness());
+        return speed < velocityThreshold || (damping - decayRate) * speed >= spring.getStiffness() * Math.abs(displacement);
+    }
+
+    /**
+     * Returns the snap point closest to the given position, within the min and max value.
+     */
+    private float snapTargetOf(float position) {
+        float target = position;
+        if (snapPoints != null && snapPoints.length > 0) {
+            target = snapPoints[0];
+            for (int i = 1; i < snapPoints.length; i++) {
+                if (Math.abs(snapPoints[i] - position) < Math.abs(target - position)) {
+                    target = snapPoints[i];
+                }
+            }
+        }
+        return Math.max(minValue, Math.min(maxValue, target));
+    }
+
+    /**
+     * Brings both axes of a two-dimensional spring to rest if the length of its displacement and of
+     * its velocity are below the thresholds.
+     */
+    private void settleWithPartner(float displacement) {
+        float partnerDisplacement = partner.value - partner.spring.getFinalPosition();
+        float squaredDisplacement = displacement * displacement + partnerDisplacement * partnerDisplacement;
+        float squaredVelocity = velocity * velocity + partner.velocity * partner.velocity;
+        if (squaredDisplacement < valueThreshold * valueThreshold && squaredVelocity < velocityThreshold * velocityThreshold) {
+            value = spring.getFinalPosition();
+            velocity = 0f;
+            finished = true;
+            partner.value = partner.spring.getFinalPosition();
+            partner.velocity = 0f;
+            partner.finished = true;
+        }
+    }
+
+    int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Copies the current trajectory into the given slot of a background job.
+     *
+     * @return {@code false} if the animator has no trajectory to evaluate yet
+     */
+    boolean copyTrajectoryTo(@NonNull BackgroundStepper.Job job, int index) {
+        if (!running || initialFrameTimeNanos == 0) {
+            return false;
+        }
+        if (retargetPending) {
+            resetTrajectory();
+        }
+        if (decaying) {
+            // Decays are stepped on the main thread, which hands them off to the spring.
+            return false;
+        }
+        job.setTrajectory(index, generation, spring.getFinalPosition(), spring.getStiffness(), spring.getDampingRatio(),
+                initialDisplacement, initialVelocity, initialFrameTimeNanos, minValue, maxValue, valueThreshold, velocityThreshold);
+        return true;
+    }
+
+    /**
+     * Takes a frame computed by the {@link BackgroundStepper} in place of {@link #stepFrame(long)}.
+     */
+    void applyComputedFrame(long frameTimeNanos, float value, float velocity, boolean finished) {
+        this.lastFrameTimeNanos = frameTimeNanos;
+        this.value = value;
+        this.velocity = velocity;
+        this.finished = finished;
+        this.stepped = true;
+    }
+
+    /**
+     * @return whether the last {@link #stepFrame(long)} brought the spring to rest
+     */
+    boolean hasFinishedFrame() {
+        return stepped && finished;
+    }
+
+    /**
+     * Brings the spring to rest at its final position in the frame computed by the last
+     * {@link #stepFrame(long)}, so that it ends when the frame is dispatched.
+     */
+    void settle() {
+        if (stepped) {
+            value = spring.getFinalPosition();
+            velocity = 0f;
+            finished = true;
+        }
+    }
+
+    /**
+     * Restarts the current trajectory from the current value and velocity on the next frame, so that
+     * the time that passes until then doesn't move the spring.
+     */
+    void holdTrajectory() {
+        if (running) {
+            lastFrameTimeNanos = 0;
+            resetTrajectory();
+        }
+    }
+
+    /**
+     * Writes the value computed by the last {@link #stepFrame(long)} to the view.
+     */
+    void applyFrame() {
+        if (running) {
+            setPropertyValue(value);
+        }
+    }
+
+    /**
+     * Notifies listeners of the last {@link #stepFrame(long)} and ends the animation if the spring
+     * came to rest.
+     */
+    void dispatchFrame() {
+        if (!running || !stepped) {
+            return;
+        }
+
+        stepped = false;
+        dispatchUpdate(value, velocity);
+
+        if (finished && running) {
+            endAnimation(false);
+        }
+    }
+
+    /**
+     * Starts a new trajectory from the current value and velocity towards the current final position.
+     */
+    private void resetTrajectory() {
+        if (decaying) {
+            // The position the decay would stop at doesn't change along the decay.
+            float landing = value + velocity / decayRate;
+            spring.setFinalPosition(snapTargetOf(landing));
+            // A decay that wouldn't reach the final position is pulled there by the spring right away.
+            // Without snap points it stops right at it, and hands off once it is too slow to be seen.
+            decaying = (landing - spring.getFinalPosition()) * velocity >= 0f;
+        }
+        solver.configure(spring.getStiffness(), spring.getDampingRatio());
+        evaluatedSeconds = Float.NaN;
+        initialDisplacement = value - spring.getFinalPosition();
+        initialVelocity = velocity;
+        initialFrameTimeNanos = lastFrameTimeNanos;
+        generation++;
+        retargetPending = false;
+
+        trajectory = null;
+        if (trajectoryCache != null && initialDisplacement != 0f && !decaying) {
+            // A cached trajectory starts with the quantized velocity instead of the real one. That
+            // changes the velocity by at most the difference, and the value by at most the
+            // difference over the natural frequency, so it is only used while neither is visible.
+            float relativeVelocity = initialVelocity / initialDisplacement;
+            float velocityError = Math.abs(initialDisplacement * (relativeVelocity - TrajectoryCache.quantize(relativeVelocity)));
+            if (velocityError < velocityThreshold && velocityError < valueThreshold * (float) Math.sqrt(spring.getStiffness())) {
+                trajectory = trajectoryCache.obtain(spring.getStiffness(), spring.getDampingRatio(), relativeVelocity);
+            }
+        }
+        finished = false;
+    }
+
+    /**
+     * Recomputes the trajectory on the next frame, from the final position at that time.
+     */
+    private void requestRetarget() {
+        if (!retargetPending) {
+            retargetPending = true;
+            generation++;
+        }
+        // Keeps a frame that already reached the old final position from ending the animation.
+        finished = false;
+    }
+
+    private void setPropertyValue(float value) {
+        property.setValue(view, value);
+        if (lockedProperty != null) {
+            lockedProperty.setValue(view, value);
+        }
+    }
+
+    private void endAnimation(boolean canceled) {
+        generation++;
+        retargetPending = false;
+        decaying = false;
+        running = false;
+        stepped = false;
+        finished = false;
+        startValueIsSet = false;
+        initialFrameTimeNanos = 0;
+        lastFrameTimeNanos = 0;
+        dispatchEnd(canceled, value, velocity);
+    }
+
+    private static void checkMainThread() {
+        if (Looper.myLooper() != Looper.getMainLooper()) {
+            throw new AndroidRuntimeException("Animations may only be started on the main thread");
+        }
+    }
+
+}
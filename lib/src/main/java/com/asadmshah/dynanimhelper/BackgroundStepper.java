@@ -0,0 +1,225 @@
+package com.asadmshah.dynanimhelper;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
+import android.support.annotation.NonNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Evaluates the springs of analytic groups on a shared worker thread, one frame ahead of the main
+ * thread. Each group owns one {@link Job}: while the main thread applies frame {@code n}, the worker
+ * computes frame {@code n + 1} into the job, and the main thread picks it up on the next vsync.
+ *
+ * <p>A job is owned by exactly one thread at a time. The main thread fills it and hands it over by
+ * setting its state to {@link Job#SUBMITTED}; the worker hands it back by setting it to
+ * {@link Job#DONE}. No locks are taken and nothing is allocated per frame.</p>
+ *
+ * <p>The main thread remains the only writer of animator state. Retargeting or canceling a property
+ * bumps its generation, and frames computed from an older generation are thrown away in favour of
+ * stepping the group on the main thread, so interruptions never apply stale values.</p>
+ *
+ * @see SpringAnimationGroup.Builder#setBackgroundStepping(boolean)
+ */
+final class BackgroundStepper {
+
+    private static final float NANOS_PER_SECOND = 1000000000f;
+
+    private static Handler handler;
+
+    private BackgroundStepper() {
+    }
+
+    private static Handler getHandler() {
+        if (handler == null) {
+            HandlerThread thread = new HandlerThread("SpringStepper", Process.THREAD_PRIORITY_DISPLAY);
+            thread.start();
+            handler = new Handler(thread.getLooper());
+        }
+        return handler;
+    }
+
+    /**
+     * The trajectories of every animator of a group and the frame computed from them.
+     */
+    static final class Job implements Runnable {
+
+        /**
+         * The main thread owns the job and may fill it.
+         */
+        static final int IDLE = 0;
+
+        /**
+         * The worker owns the job and is computing a frame.
+         */
+        static final int SUBMITTED = 1;
+
+        /**
+         * The main thread owns the job, which holds a computed frame.
+         */
+        static final int DONE = 2;
+
+        /**
+         * A computed frame is used if the real frame time is within this many nanoseconds of the
+         * predicted one.
+         */
+        private static final long FRAME_TIME_TOLERANCE_NANOS = 4000000L;
+
+        private final AtomicInteger state = new AtomicInteger(IDLE);
+
+        private final SpringSolver solver = new SpringSolver();
+
+        private long frameTimeNanos;
+
+        // Trajectories, written by the main thread before submitting.
+
+        private final boolean[] active;
+
+        private final int[] generations;
+
+        private final float[] finalPositions;
+
+        private final float[] stiffnesses;
+
+        private final float[] dampingRatios;
+
+        private final float[] initialDisplacements;
+
+        private final float[] initialVelocities;
+
+        private final long[] initialFrameTimes;
+
+        private final float[] minValues;
+
+        private final float[] maxValues;
+
+        private final float[] valueThresholds;
+
+        private final float[] velocityThresholds;
+
+        // Frame, written by the worker before handing the job back.
+
+        private final float[] values;
+
+        private final float[] velocities;
+
+        private final boolean[] finished;
+
+        Job(int size) {
+            active = new boolean[size];
+            generations = new int[size];
+            finalPositions = new float[size];
+            stiffnesses = new float[size];
+            dampingRatios = new float[size];
+            initialDisplacements = new float[size];
+            initialVelocities = new float[size];
+            initialFrameTimes = new long[size];
+            minValues = new float[size];
+            maxValues = new float[size];
+            valueThresholds = new float[size];
+            velocityThresholds = new float[size];
+            values = new float[size];
+            velocities = new float[size];
+            finished = new boolean[size];
+        }
+
+        /**
+         * Applies the computed frame to the animators, if the job holds one for the given frame time
+         * that was computed from their current trajectories. Called on the main thread.
+         *
+         * @return {@code true} if the frame was applied, {@code false} if the animators must be stepped
+         */
+        boolean apply(long frameTimeNanos, @NonNull AnalyticPropertyAnimator[] animators) {
+            if (state.get() != DONE || Math.abs(frameTimeNanos - this.frameTimeNanos) > FRAME_TIME_TOLERANCE_NANOS) {
+                return false;
+            }
+            for (int i = 0; i < animators.length; i++) {
+                if (animators[i].isRunning() != active[i] || (active[i] && animators[i].getGeneration() != generations[i])) {
+                    return false;
+                }
+            }
+
+            for (int i = 0; i < animators.length; i++) {
+                if (active[i]) {
+                    animators[i].applyComputedFrame(frameTimeNanos, values[i], velocities[i], finished[i]);
+                } else {
+                    animators[i].stepFrame(frameTimeNanos);
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Hands the current trajectories of the animators to the worker to compute the frame at the
+         * given time. Does nothing while the worker still owns the job. Called on the main thread.
+         */
+        void submit(long frameTimeNanos, @NonNull AnalyticPropertyAnimator[] animators) {
+            if (state.get() == SUBMITTED) {
+                return;
+            }
+
+            this.frameTimeNanos = frameTimeNanos;
+            for (int i = 0; i < animators.length; i++) {
+                active[i] = animators[i].copyTrajectoryTo(this, i);
+            }
+
+            state.set(SUBMITTED);
+            getHandler().post(this);
+        }
+
+        void setTrajectory(int index, int generation, float finalPosition, float stiffness, float dampingRatio,
+                           float initialDisplacement, float initialVelocity, long initialFrameTimeNanos,
+                           float minValue, float maxValue, float valueThreshold, float velocityThreshold) {
+            generations[index] = generation;
+            finalPositions[index] = finalPosition;
+            stiffnesses[index] = stiffness;
+            dampingRatios[index] = dampingRatio;
+            initialDisplacements[index] = initialDisplacement;
+            initialVelocities[index] = initialVelocity;
+            initialFrameTimes[index] = initialFrameTimeNanos;
+            minValues[index] = minValue;
+            maxValues[index] = maxValue;
+            valueThresholds[index] = valueThreshold;
+            velocityThresholds[index] = velocityThreshold;
+        }
+
+        /**
+         * Computes the frame on the worker thread, the same way
+         * {@link AnalyticPropertyAnimator#stepFrame(long)} does.
+         */
+        @Override
+        public void run() {
+            for (int i = 0; i < active.length; i++) {
+                if (!active[i]) {
+                    continue;
+                }
+
+                solver.configure(stiffnesses[i], dampingRatios[i]);
+                solver.evaluate((frameTimeNanos - initialFrameTimes[i]) / NANOS_PER_SECOND);
+                float displacement = solver.getDisplacement(initialDisplacements[i], initialVelocities[i]);
+                float velocity = solver.getVelocity(initialDisplacements[i], initialVelocities[i]);
+                float value = finalPositions[i] + displacement;
+
+                boolean done = true;
+                if (value >= maxValues[i]) {
+                    value = maxValues[i];
+                } else if (value <= minValues[i]) {
+                    value = minValues[i];
+                } else if (Math.abs(displacement) < valueThresholds[i] && Math.abs(velocity) < velocityThresholds[i]) {
+                    value = finalPositions[i];
+                    velocity = 0f;
+                } else {
+                    done = false;
+                }
+
+                values[i] = value;
+                velocities[i] = velocity;
+                finished[i] = done;
+            }
+
+            state.set(DONE);
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.asadmshah.dynanimhelper;
+
+import android.support.annotation.NonNull;
+
+/**
+ * A float value of an object that can be animated by a {@link SpringAnimationGroup}, alongside the
+ * {@link android.support.animation.DynamicAnimation.ViewProperty} constants. Values are read and
+ * written as primitive floats, so animating a custom property neither boxes nor uses reflection.
+ *
+ * <pre>
+ * FloatProperty&lt;View&gt; CORNER_RADIUS = new FloatProperty&lt;View&gt;("cornerRadius", 1f) {
+ *     public float getValue(View view) {
+ *         return ((RoundedView) view).getCornerRadius();
+ *     }
+ *
+ *     public void setValue(View view, float value) {
+ *         ((RoundedView) view).setCornerRadius(value);
+ *     }
+ * };
+ * </pre>
+ *
+ * <p>Every property states the smallest change of its value that is visible, since custom values
+ * come in any scale. Use 1 for values in pixels, 0.1 for degrees, and 1/256 for fractions between 0
+ * and 1 such as a progress, as the support library does for alpha.</p>
+ *
+ * <p>Custom properties are only supported by {@link SpringAnimationGroup#ENGINE_ANALYTIC}.</p>
+ *
+ * @param <T> type of the object the property belongs to
+ */
+public abstract class FloatProperty<T> {
+
+    private final String name;
+
+    private final float minimumVisibleChange;
+
+    /**
+     * Creates a property with the given smallest visible change. A spring on the property comes to
+     * rest once it is closer to its final position than three quarters of this change, and moves
+     * less than that per 16 ms frame.
+     *
+     * @param name name of the property, used for debugging
+     * @param minimumVisibleChange smallest change in value that is visible, must be positive
+     * @throws IllegalArgumentException if the change isn't positive
+     */
+    public FloatProperty(@NonNull String name, float minimumVisibleChange) {
+        if (minimumVisibleChange <= 0f) {
+            throw new IllegalArgumentException("Minimum visible change must be positive");
+        }
+        this.name = name;
+        this.minimumVisibleChange = minimumVisibleChange;
+    }
+
+    /**
+     * @param object the object the property belongs to
+     * @return current value of the property
+     */
+    public abstract float getValue(T object);
+
+    /**
+     * @param object the object the property belongs to
+     * @param value new value of the property
+     */
+    public abstract void setValue(T object, float value);
+
+    @NonNull
+    public String getName() {
+        return name;
+    }
+
+    public float getMinimumVisibleChange() {
+        return minimumVisibleChange;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.asadmshah.dynanimhelper;
+
+import android.view.Choreographer;
+
+/**
+ * The default {@link FrameScheduler}, backed by a single {@link Choreographer} frame callback. Only
+ * one callback is posted per vsync no matter how many groups, views or properties are animating.
+ * Must only be used from the main thread.
+ */
+final class FrameLoop extends FrameScheduler implements Choreographer.FrameCallback {
+
+    private static FrameLoop instance;
+
+    private FrameLoop() {
+    }
+
+    static FrameLoop getInstance() {
+        if (instance == null) {
+            instance = new FrameLoop();
+        }
+        return instance;
+    }
+
+    @Override
+    protected void onFrameRequested() {
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        dispatchFrame(frameTimeNanos);
+    }
+
+}
@@ -0,0 +1,141 @@
+package com.asadmshah.dynanimhelper;
+
+import android.support.annotation.NonNull;
+
+import java.util.ArrayList;
+
+/**
+ * Source of frames for {@link SpringAnimationGroup}s on {@link SpringAnimationGroup#ENGINE_ANALYTIC}
+ * and for {@link SpringChain}s. Every client of a scheduler is stepped in the same pass with the same
+ * frame time, and a frame is only requested while at least one client is running.
+ *
+ * <p>{@link #getDefault()} is driven by the display's vsync. {@link ManualFrameScheduler} is driven
+ * by the caller, either from a virtual clock in tests and offline rendering or from an existing
+ * render loop. Schedulers must only be used from the main thread.</p>
+ */
+public abstract class FrameScheduler {
+
+    /**
+     * Receives frames from a scheduler. A client is registered with at most one scheduler.
+     */
+    abstract static class Client {
+
+        /**
+         * Slot of the client in the scheduler it is registered with, or -1 if it isn't registered.
+         */
+        int index = -1;
+
+        /**
+         * Number of the last frame the client was stepped in.
+         */
+        int steppedFrame;
+
+        /**
+         * Steps the client to the given frame time.
+         *
+         * @param frameTimeNanos the time at which the frame started rendering
+         * @return {@code true} to keep receiving frames, {@code false} to be removed from the scheduler
+         */
+        abstract boolean doAnimationFrame(long frameTimeNanos);
+    }
+
+    private final ArrayList<Client> clients = new ArrayList<>();
+
+    private boolean framePending;
+
+    /**
+     * Number of frames dispatched so far.
+     */
+    private int frameCount;
+
+    /**
+     * @return the scheduler driven by the display's vsync, which is used unless another one is set
+     */
+    @NonNull
+    public static FrameScheduler getDefault() {
+        return FrameLoop.getInstance();
+    }
+
+    /**
+     * Called when a client needs a frame and none is requested yet. Implementations arrange for
+     * {@link #dispatchFrame(long)} to be called once.
+     */
+    protected abstract void onFrameRequested();
+
+    /**
+     * @return whether a client is waiting for {@link #dispatchFrame(long)}
+     */
+    protected final boolean isFramePending() {
+        return framePending;
+    }
+
+    /**
+     * Adds the client to the scheduler, if it isn't already in it, and makes sure a frame is requested.
+     *
+     * @param client the client to be added
+     */
+    final void register(@NonNull Client client) {
+        if (client.index < 0) {
+            client.index = clients.size();
+            clients.add(client);
+        }
+        if (!framePending) {
+            framePending = true;
+            onFrameRequested();
+        }
+    }
+
+    /**
+     * Removes the client from the scheduler. Safe to call while the scheduler is dispatching.
+     *
+     * @param client the client to be removed
+     */
+    final void unregister(@NonNull Client client) {
+        if (client.index >= 0) {
+            clients.set(client.index, null);
+            client.index = -1;
+        }
+    }
+
+    /**
+     * Steps every client to the given frame time and requests another frame if any is still running.
+     *
+     * @param frameTimeNanos the time at which the frame started rendering
+     */
+    protected final void dispatchFrame(long frameTimeNanos) {
+        framePending = false;
+        int frame = ++frameCount;
+
+        // Clients registered during dispatch are appended and stepped in this same frame, unless they
+        // were already stepped in it before being unregistered.
+        for (int i = 0; i < clients.size(); i++) {
+            Client client = clients.get(i);
+            if (client == null || client.steppedFrame == frame) {
+                continue;
+            }
+            client.steppedFrame = frame;
+            if (!client.doAnimationFrame(frameTimeNanos) && client.index == i) {
+                clients.set(i, null);
+                client.index = -1;
+            }
+        }
+
+        int size = 0;
+        for (int i = 0; i < clients.size(); i++) {
+            Client client = clients.get(i);
+            if (client != null) {
+                client.index = size;
+                clients.set(size++, client);
+            }
+        }
+        for (int i = clients.size() - 1; i >= size; i--) {
+            clients.remove(i);
+        }
+
+        if (!clients.isEmpty() && !framePending) {
+            framePending = true;
+            onFrameRequested();
+        }
+    }
+
+}
@@ -0,0 +1,218 @@
+package com.asadmshah.dynanimhelper;
+
+/**
+ * Frame timing of a single run of a {@link SpringAnimationGroup}, from the moment its first property
+ * starts until its last property ends. One instance is kept per group and updated in place, so
+ * recording never allocates. The values are only valid during the {@link MetricsSink} callbacks; copy
+ * them out to keep them.
+ *
+ * <p>Only {@link SpringAnimationGroup#ENGINE_ANALYTIC} steps the group itself, so only there are
+ * frames timed by the vsync time of the frame and is the step time measured. On
+ * {@link SpringAnimationGroup#ENGINE_SUPPORT} the support library steps every property on its own
+ * clock: frames are timed when the group's listeners are called, after every property stepped, and
+ * {@link #getLastStepNanos()} is always {@code 0}.</p>
+ *
+ * @see SpringAnimationGroup.Builder#setMetricsSink(MetricsSink)
+ */
+public final class GroupMetrics {
+
+    /**
+     * Receives the metrics of a group. Called on the main thread, from inside the frame, so
+     * implementations should only aggregate the values.
+     */
+    public interface MetricsSink {
+
+        /**
+         * Called after every frame the group stepped.
+         *
+         * @param group the group that stepped
+         * @param metrics the metrics of the current run, including the frame that was just stepped
+         */
+        void onGroupFrame(SpringAnimationGroup group, GroupMetrics metrics);
+
+        /**
+         * Called once when the last running property of the group ends.
+         *
+         * @param group the group that ended
+         * @param metrics the metrics of the whole run
+         */
+        void onGroupSettled(SpringAnimationGroup group, GroupMetrics metrics);
+    }
+
+    /**
+     * Frames that arrive later than this many expected intervals count as late.
+     */
+    private static final float LATE_FRAME_FACTOR = 1.5f;
+
+    private final long displayFrameIntervalNanos;
+
+    private long expectedFrameIntervalNanos;
+
+    private long startTimeNanos;
+
+    private long lastFrameTimeNanos;
+
+    private int frameCount;
+
+    private int droppedFrameCount;
+
+    private int lateFrameCount;
+
+    private long lastFrameIntervalNanos;
+
+    private long maxFrameIntervalNanos;
+
+    private long lastStepNanos;
+
+    private long lastDispatchNanos;
+
+    private long totalDispatchNanos;
+
+    private long durationNanos;
+
+    private boolean canceled;
+
+    GroupMetrics(float refreshRate) {
+        displayFrameIntervalNanos = (long) (1000000000L / refreshRate);
+        expectedFrameIntervalNanos = displayFrameIntervalNanos;
+    }
+
+    /**
+     * @param timeNanos time the run starts at
+     * @param minFrameIntervalNanos shortest interval the group writes frames at, or {@code 0} if
+     *                              its frame rate isn't capped
+     */
+    void begin(long timeNanos, long minFrameIntervalNanos) {
+        expectedFrameIntervalNanos = Math.max(displayFrameIntervalNanos, minFrameIntervalNanos);
+        startTimeNanos = timeNanos;
+        lastFrameTimeNanos = 0;
+        frameCount = 0;
+        droppedFrameCount = 0;
+        lateFrameCount = 0;
+        lastFrameIntervalNanos = 0;
+        maxFrameIntervalNanos = 0;
+        lastStepNanos = 0;
+        lastDispatchNanos = 0;
+        totalDispatchNanos = 0;
+        durationNanos = 0;
+        canceled = false;
+    }
+
+    void recordFrame(long frameTimeNanos, long stepNanos, long dispatchNanos) {
+        if (lastFrameTimeNanos != 0) {
+            long interval = frameTimeNanos - lastFrameTimeNanos;
+            lastFrameIntervalNanos = interval;
+            maxFrameIntervalNanos = Math.max(maxFrameIntervalNanos, interval);
+
+            int missed = Math.round((float) interval / expectedFrameIntervalNanos) - 1;
+            if (missed > 0) {
+                droppedFrameCount += missed;
+            }
+            if (interval > expectedFrameIntervalNanos * LATE_FRAME_FACTOR) {
+                lateFrameCount++;
+            }
+        }
+
+        lastFrameTimeNanos = frameTimeNanos;
+        lastStepNanos = stepNanos;
+        lastDispatchNanos = dispatchNanos;
+        totalDispatchNanos += dispatchNanos;
+        frameCount++;
+    }
+
+    /**
+     * Called when the group pauses. The first frame after it resumes starts a new interval, so the
+     * pause isn't counted as dropped frames. It is still part of the duration.
+     */
+    void pause() {
+        lastFrameTimeNanos = 0;
+    }
+
+    void end(long timeNanos, boolean canceled) {
+        this.durationNanos = timeNanos - startTimeNanos;
+        this.canceled = canceled;
+    }
+
+    /**
+     * @return the frame interval the dropped and late frames are measured against, which is the
+     *         longer of the display's and the group's capped frame interval
+     */
+    public long getExpectedFrameIntervalNanos() {
+        return expectedFrameIntervalNanos;
+    }
+
+    /**
+     * @return number of frames stepped so far in this run
+     */
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * @return number of vsyncs that passed without the group being stepped
+     */
+    public int getDroppedFrameCount() {
+        return droppedFrameCount;
+    }
+
+    /**
+     * @return number of frames that arrived more than one and a half expected intervals after the
+     *         previous one
+     */
+    public int getLateFrameCount() {
+        return lateFrameCount;
+    }
+
+    /**
+     * @return time between the last two frames, or {@code 0} after the first frame
+     */
+    public long getLastFrameIntervalNanos() {
+        return lastFrameIntervalNanos;
+    }
+
+    /**
+     * @return longest time between two consecutive frames in this run
+     */
+    public long getMaxFrameIntervalNanos() {
+        return maxFrameIntervalNanos;
+    }
+
+    /**
+     * @return time spent evaluating springs and writing views in the last frame, always {@code 0} on
+     *         {@link SpringAnimationGroup#ENGINE_SUPPORT}
+     */
+    public long getLastStepNanos() {
+        return lastStepNanos;
+    }
+
+    /**
+     * @return time spent in listener callbacks in the last frame
+     */
+    public long getLastDispatchNanos() {
+        return lastDispatchNanos;
+    }
+
+    /**
+     * @return time spent in listener callbacks over the whole run
+     */
+    public long getTotalDispatchNanos() {
+        return totalDispatchNanos;
+    }
+
+    /**
+     * @return time from the start of the run until the group settled, only valid in
+     *         {@link MetricsSink#onGroupSettled(SpringAnimationGroup, GroupMetrics)}
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * @return whether any property was canceled during the run, only valid in
+     *         {@link MetricsSink#onGroupSettled(SpringAnimationGroup, GroupMetrics)}
+     */
+    public boolean isCanceled() {
+        return canceled;
+    }
+
+}
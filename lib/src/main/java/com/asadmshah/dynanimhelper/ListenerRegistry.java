@@ -0,0 +1,122 @@
+package com.asadmshah.dynanimhelper;
+
+import android.support.animation.DynamicAnimation;
+import android.support.annotation.NonNull;
+
+/**
+ * Compact list of view property and listener pairs. The same listener may be registered for several
+ * properties; each pair is its own entry.
+ *
+ * <p>Entries are kept in two parallel arrays that grow by doubling, so adding and removing doesn't
+ * allocate once the arrays are large enough. Dispatchers read the arrays between
+ * {@link #beginDispatch()} and {@link #endDispatch()}; a change made while dispatching first copies
+ * the arrays, so that the arrays being walked never change under the dispatcher.</p>
+ */
+final class ListenerRegistry {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private DynamicAnimation.ViewProperty[] properties = new DynamicAnimation.ViewProperty[0];
+
+    private Object[] listeners = new Object[0];
+
+    private int size;
+
+    private int dispatchDepth;
+
+    /**
+     * Adds the pair, unless it is already registered.
+     *
+     * @return {@code true} if the pair was added
+     */
+    boolean add(@NonNull DynamicAnimation.ViewProperty property, @NonNull Object listener) {
+        if (indexOf(property, listener) >= 0) {
+            return false;
+        }
+
+        if (dispatchDepth > 0 || size == listeners.length) {
+            copyArrays(size == listeners.length ? Math.max(INITIAL_CAPACITY, size * 2) : listeners.length);
+        }
+        properties[size] = property;
+        listeners[size] = listener;
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes the pair, if it is registered.
+     *
+     * @return {@code true} if the pair was removed
+     */
+    boolean remove(@NonNull DynamicAnimation.ViewProperty property, @NonNull Object listener) {
+        int index = indexOf(property, listener);
+        if (index < 0) {
+            return false;
+        }
+
+        if (dispatchDepth > 0) {
+            copyArrays(listeners.length);
+        }
+        System.arraycopy(properties, index + 1, properties, index, size - index - 1);
+        System.arraycopy(listeners, index + 1, listeners, index, size - index - 1);
+        size--;
+        properties[size] = null;
+        listeners[size] = null;
+        return true;
+    }
+
+    /**
+     * @return whether any listener is registered for the property
+     */
+    boolean contains(@NonNull DynamicAnimation.ViewProperty property) {
+        for (int i = 0; i < size; i++) {
+            if (properties[i] == property) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Must be called before reading {@link #properties()}, {@link #listeners()} and {@link #size()}
+     * for a dispatch, and paired with {@link #endDispatch()}.
+     */
+    void beginDispatch() {
+        dispatchDepth++;
+    }
+
+    void endDispatch() {
+        dispatchDepth--;
+    }
+
+    DynamicAnimation.ViewProperty[] properties() {
+        return properties;
+    }
+
+    Object[] listeners() {
+        return listeners;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int indexOf(@NonNull DynamicAnimation.ViewProperty property, @NonNull Object listener) {
+        for (int i = 0; i < size; i++) {
+            if (properties[i] == property && listeners[i] == listener) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void copyArrays(int capacity) {
+        DynamicAnimation.ViewProperty[] newProperties = new DynamicAnimation.ViewProperty[capacity];
+        Object[] newListeners = new Object[capacity];
+        System.arraycopy(properties, 0, newProperties, 0, size);
+        System.arraycopy(listeners, 0, newListeners, 0, size);
+        properties = newProperties;
+        listeners = newListeners;
+    }
+
+}
@@ -0,0 +1,125 @@
+package com.asadmshah.dynanimhelper;
+
+import android.support.annotation.Nullable;
+
+/**
+ * {@link FrameScheduler} that only produces frames when told to. Use it to step groups headlessly
+ * on a virtual clock, in tests or when rendering offline, or to drive them from an existing render
+ * loop so that springs share its tick.
+ *
+ * <pre>
+ * ManualFrameScheduler scheduler = new ManualFrameScheduler();
+ * SpringAnimationGroup group = SpringAnimationGroup
+ *     .from(view)
+ *     .setEngine(SpringAnimationGroup.ENGINE_ANALYTIC)
+ *     .setFrameScheduler(scheduler)
+ *     .setFinalPosition(DynamicAnimation.TRANSLATION_X, 100f)
+ *     .build();
+ *
+ * group.start();
+ * scheduler.runUntilIdle(ManualFrameScheduler.FRAME_INTERVAL_60HZ, 1000);
+ * </pre>
+ *
+ * <p>Like every scheduler it must only be used from the main thread.</p>
+ */
+public final class ManualFrameScheduler extends FrameScheduler {
+
+    /**
+     * Interval between frames of a 60 Hz display, in nanoseconds.
+     */
+    public static final long FRAME_INTERVAL_60HZ = 1000000000L / 60;
+
+    /**
+     * Notified when a client of the scheduler needs a frame.
+     */
+    public interface OnFrameRequestedListener {
+
+        /**
+         * Called once per requested frame, before {@link #doFrame(long)} is called for it.
+         *
+         * @param scheduler the scheduler that needs a frame
+         */
+        void onFrameRequested(ManualFrameScheduler scheduler);
+    }
+
+    @Nullable
+    private OnFrameRequestedListener frameRequestedListener;
+
+    private long frameTimeNanos;
+
+    /**
+     * Sets a listener that is told whenever a frame is needed, for example to wake a render loop
+     * that only ticks while something is animating.
+     *
+     * @param listener the listener, or {@code null} to remove it
+     */
+    public void setOnFrameRequestedListener(@Nullable OnFrameRequestedListener listener) {
+        this.frameRequestedListener = listener;
+    }
+
+    /**
+     * @return whether any client is waiting for a frame
+     */
+    public boolean hasPendingFrame() {
+        return isFramePending();
+    }
+
+    /**
+     * @return time of the last frame, or {@code 0} if no frame was produced yet
+     */
+    public long getFrameTimeNanos() {
+        return frameTimeNanos;
+    }
+
+    /**
+     * Steps every client to the given frame time, as taken from an external clock.
+     *
+     * @param frameTimeNanos time of the frame, must be positive and not earlier than the last frame
+     * @throws IllegalArgumentException if the time isn't positive or goes backwards
+     */
+    public void doFrame(long frameTimeNanos) {
+        if (frameTimeNanos <= 0 || frameTimeNanos < this.frameTimeNanos) {
+            throw new IllegalArgumentException("Frame times must be positive and must not go backwards");
+        }
+        this.frameTimeNanos = frameTimeNanos;
+        dispatchFrame(frameTimeNanos);
+    }
+
+    /**
+     * Advances the virtual clock by the given interval and produces a frame at the new time.
+     *
+     * @param intervalNanos time since the last frame, must be positive
+     * @throws IllegalArgumentException if the interval isn't positive
+     */
+    public void advance(long intervalNanos) {
+        if (intervalNanos <= 0) {
+            throw new IllegalArgumentException("Interval must be positive");
+        }
+        doFrame(frameTimeNanos + intervalNanos);
+    }
+
+    /**
+     * Advances the virtual clock one interval at a time until no client needs a frame anymore.
+     *
+     * @param intervalNanos time between two frames, must be positive
+     * @param maxFrames the most frames to produce, so that undamped springs don't loop forever
+     * @return number of frames produced
+     * @throws IllegalArgumentException if the interval isn't positive
+     */
+    public int runUntilIdle(long intervalNanos, int maxFrames) {
+        int frames = 0;
+        while (frames < maxFrames && isFramePending()) {
+            advance(intervalNanos);
+            frames++;
+        }
+        return frames;
+    }
+
+    @Override
+    protected void onFrameRequested() {
+        if (frameRequestedListener != null) {
+            frameRequestedListener.onFrameRequested(this);
+        }
+    }
+
+}
@@ -0,0 +1,174 @@
+package com.asadmshah.dynanimhelper;
+
+import android.support.animation.DynamicAnimation;
+import android.support.animation.SpringForce;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.view.View;
+
+import java.util.ArrayList;
+
+/**
+ * Animates a single {@link FloatProperty} of a view on behalf of a {@link SpringAnimationGroup}. Each
+ * engine supplies its own implementation.
+ *
+ * @see SupportPropertyAnimator
+ * @see AnalyticPropertyAnimator
+ */
+abstract class PropertyAnimator {
+
+    /**
+     * Receives end notifications from a property animator.
+     */
+    interface OnEndListener {
+        void onEnd(PropertyAnimator animator, boolean canceled, float value, float velocity);
+    }
+
+    /**
+     * Receives per-frame notifications from a property animator.
+     */
+    interface OnUpdateListener {
+        void onUpdate(PropertyAnimator animator, float value, float velocity);
+    }
+
+    /**
+     * Receives start and end notifications from every animator of a group, so that the group can
+     * track how many of its properties are running.
+     */
+    interface Host {
+        void onAnimatorStart(PropertyAnimator animator, float value);
+
+        void onAnimatorEnd(PropertyAnimator animator, boolean canceled, float value, float velocity);
+    }
+
+    final View view;
+
+    /**
+     * The animated property. The {@link DynamicAnimation.ViewProperty} constants are represented by
+     * their {@link ViewProperties#adapterOf(DynamicAnimation.ViewProperty) adapters}.
+     */
+    final FloatProperty<? super View> property;
+
+    /**
+     * The view property that {@link #property} adapts, or {@code null} for custom properties.
+     */
+    @Nullable
+    final DynamicAnimation.ViewProperty viewProperty;
+
+    /**
+     * Position of the animator in its group.
+     */
+    int index;
+
+    private final ArrayList<OnEndListener> endListeners = new ArrayList<>();
+
+    private final ArrayList<OnUpdateListener> updateListeners = new ArrayList<>();
+
+    private Host host;
+
+    PropertyAnimator(@NonNull View view, @NonNull FloatProperty<? super View> property) {
+        this.view = view;
+        this.property = property;
+        this.viewProperty = property instanceof ViewProperties.Adapter ? ((ViewProperties.Adapter) property).property : null;
+    }
+
+    void setHost(@NonNull Host host) {
+        this.host = host;
+    }
+
+    void addEndListener(@NonNull OnEndListener listener) {
+        if (!endListeners.contains(listener)) {
+            endListeners.add(listener);
+        }
+    }
+
+    void removeEndListener(@NonNull OnEndListener listener) {
+        endListeners.remove(listener);
+    }
+
+    /**
+     * @throws UnsupportedOperationException if the update listener is added after the animation has
+     *                                       started
+     */
+    void addUpdateListener(@NonNull OnUpdateListener listener) {
+        if (isRunning()) {
+            throw new UnsupportedOperationException("Error: Update listeners must be added before the animation.");
+        }
+        if (!updateListeners.contains(listener)) {
+            updateListeners.add(listener);
+        }
+    }
+
+    void removeUpdateListener(@NonNull OnUpdateListener listener) {
+        updateListeners.remove(listener);
+    }
+
+    boolean hasUpdateListeners() {
+        return !updateListeners.isEmpty();
+    }
+
+    /**
+     * Must be called by implementations whenever the animator goes from idle to running.
+     *
+     * @param value the value the animator starts from
+     */
+    final void dispatchStart(float value) {
+        if (host != null) {
+            host.onAnimatorStart(this, value);
+        }
+    }
+
+    /**
+     * Listeners are walked backwards so that a listener may remove itself during the callback. The
+     * host is notified last, after the property listeners.
+     */
+    final void dispatchEnd(boolean canceled, float value, float velocity) {
+        for (int i = endListeners.size() - 1; i >= 0; i--) {
+            if (i < endListeners.size()) {
+                endListeners.get(i).onEnd(this, canceled, value, velocity);
+            }
+        }
+        if (host != null) {
+            host.onAnimatorEnd(this, canceled, value, velocity);
+        }
+    }
+
+    final void dispatchUpdate(float value, float velocity) {
+        for (int i = updateListeners.size() - 1; i >= 0; i--) {
+            if (i < updateListeners.size()) {
+                updateListeners.get(i).onUpdate(this, value, velocity);
+            }
+        }
+    }
+
+    abstract SpringForce getSpring();
+
+    abstract void setSpring(@NonNull SpringForce springForce);
+
+    abstract void setStartValue(float startValue);
+
+    abstract void setStartVelocity(float startVelocity);
+
+    abstract void setMinValue(float min);
+
+    abstract void setMaxValue(float max);
+
+    /**
+     * Sets the smallest change in value that is visible on screen. The spring comes to rest once it
+     * is closer to its final position than a fraction of this change and slow enough.
+     */
+    abstract void setMinimumVisibleChange(float minimumVisibleChange);
+
+    abstract void start();
+
+    abstract void cancel();
+
+    abstract void skipToEnd();
+
+    abstract boolean canSkipToEnd();
+
+    abstract void animateToFinalPosition(float finalPosition);
+
+    abstract boolean isRunning();
+
+}
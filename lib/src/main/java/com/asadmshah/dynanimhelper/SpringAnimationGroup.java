@@ -1,5 +1,8 @@
 package com.asadmshah.dynanimhelper;
 
+import android.content.Context;
+import android.os.Build;
+import android.os.PowerManager;
 import android.support.animation.DynamicAnimation;
 import android.support.animation.SpringAnimation;
 import android.support.animation.SpringForce;
@@ -7,9 +10,12 @@ import android.support.annotation.FloatRange;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.util.AndroidRuntimeException;
+import android.view.VelocityTracker;
 import android.view.View;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -18,50 +24,467 @@ import java.util.Map;
 public class SpringAnimationGroup {
 
     /**
-     *    Holds references to the actual OnAnimationEndListener in order to be removed in the call to removeEndListener.
+     * Engine that runs every property on its own support library {@link SpringAnimation}. This is
+     * the default engine.
+     *
+     * @see Builder#setEngine(int)
+     */
+    public static final int ENGINE_SUPPORT = 0;
+
+    /**
+     * Engine that evaluates every property in closed form with a {@link SpringSolver}.
+     *
+     * @see Builder#setEngine(int)
+     */
+    public static final int ENGINE_ANALYTIC = 1;
+
+    /**
+     * The group keeps running whether or not its views can be seen. This is the default policy.
+     *
+     * @see Builder#setVisibilityPolicy(int)
+     */
+    public static final int VISIBILITY_IGNORE = 0;
+
+    /**
+     * The group pauses while none of its views can be seen and continues where it left off once one
+     * can be seen again. Requires {@link #ENGINE_ANALYTIC}.
+     *
+     * @see Builder#setVisibilityPolicy(int)
+     */
+    public static final int VISIBILITY_PAUSE = 1;
+
+    /**
+     * The group skips to the end as soon as none of its views can be seen. Springs without damping,
+     * which can't skip to the end, are canceled instead.
+     *
+     * @see Builder#setVisibilityPolicy(int)
+     */
+    public static final int VISIBILITY_SKIP_TO_END = 2;
+
+    /**
+     * Refresh rate frame timing is measured against unless another is given.
+     */
+    private static final float DEFAULT_REFRESH_RATE = 60f;
+
+    /**
+     * A capped frame is written once this fraction of the capped interval has passed, so that vsync
+     * jitter doesn't push it to the next vsync.
+     */
+    private static final float FRAME_INTERVAL_TOLERANCE = 0.8f;
+
+    /**
+     *    Holds the listeners that are notified once the last running property of the group ends.
      *
      *    @see #addEndListener(OnGroupAnimationEndListener)
      *    @see #removeEndListener(OnGroupAnimationEndListener)
      */
-    private final Map<OnGroupAnimationEndListener, DynamicAnimation.OnAnimationEndListener> animationGroupEndListeners;
+    private final ArrayList<OnGroupAnimationEndListener> animationGroupEndListeners;
 
     /**
-     *    Holds references to the actual OnAnimationEndListener in order to be removed in the call to removeEndListener.
+     *    Holds the {@link OnPropertyAnimationEndListener}s of every view property.
      *
      *    @see #addEndListener(DynamicAnimation.ViewProperty, OnPropertyAnimationEndListener)
      *    @see #removeEndListener(DynamicAnimation.ViewProperty, OnPropertyAnimationEndListener)
      */
-    private final Map<OnPropertyAnimationEndListener, DynamicAnimation.OnAnimationEndListener> animationPropertyEndListeners;
+    private final ListenerRegistry animationPropertyEndListeners;
 
     /**
-     * Holds references to the actual OnAnimationUpdateListener in order to be removed in the call to removeEndListener.
+     * Holds the {@link OnPropertyAnimationUpdateListener}s of every view property.
      *
      * @see #addUpdateListener(DynamicAnimation.ViewProperty, OnPropertyAnimationUpdateListener)
      * @see #removeUpdateListener(DynamicAnimation.ViewProperty, OnPropertyAnimationUpdateListener)
      */
-    private final Map<OnPropertyAnimationUpdateListener, DynamicAnimation.OnAnimationUpdateListener> animationPropertyUpdateListeners;
+    private final ListenerRegistry animationPropertyUpdateListeners;
+
+    /**
+     * Added to every animator whose view property has end listeners, and forwards to them.
+     */
+    private final PropertyAnimator.OnEndListener propertyEndDispatcher = new PropertyAnimator.OnEndListener() {
+        @Override
+        public void onEnd(PropertyAnimator animator, boolean canceled, float value, float velocity) {
+            ListenerRegistry registry = animationPropertyEndListeners;
+            DynamicAnimation.ViewProperty[] properties = registry.properties();
+            Object[] listeners = registry.listeners();
+            int size = registry.size();
+
+            registry.beginDispatch();
+            try {
+                for (int i = 0; i < size; i++) {
+                    if (properties[i] == animator.viewProperty) {
+                        ((OnPropertyAnimationEndListener) listeners[i]).onPropertyAnimationEnd(SpringAnimationGroup.this, properties[i], canceled, value, velocity);
+                    }
+                }
+            } finally {
+                registry.endDispatch();
+            }
+        }
+    };
+
+    /**
+     * Added to every animator whose view property has update listeners, and forwards to them.
+     */
+    private final PropertyAnimator.OnUpdateListener propertyUpdateDispatcher = new PropertyAnimator.OnUpdateListener() {
+        @Override
+        public void onUpdate(PropertyAnimator animator, float value, float velocity) {
+            ListenerRegistry registry = animationPropertyUpdateListeners;
+            DynamicAnimation.ViewProperty[] properties = registry.properties();
+            Object[] listeners = registry.listeners();
+            int size = registry.size();
+
+            registry.beginDispatch();
+            try {
+                for (int i = 0; i < size; i++) {
+                    if (properties[i] == animator.viewProperty) {
+                        ((OnPropertyAnimationUpdateListener) listeners[i]).onPropertyAnimationUpdate(SpringAnimationGroup.this, properties[i], value, velocity);
+                    }
+                }
+            } finally {
+                registry.endDispatch();
+            }
+        }
+    };
+
+    /**
+     * Holds the listeners that are notified once per frame with the values of every property.
+     *
+     * @see #addUpdateListener(OnGroupAnimationUpdateListener)
+     * @see #removeUpdateListener(OnGroupAnimationUpdateListener)
+     */
+    private final ArrayList<OnGroupAnimationUpdateListener> animationGroupUpdateListeners;
+
+    /**
+     * Values and velocities of every property in the last frame, indexed like {@link #animators}.
+     * Reused for every frame and handed to the {@link OnGroupAnimationUpdateListener}s.
+     */
+    private final float[] frameValues;
+
+    private final float[] frameVelocities;
+
+    /**
+     * Value every property started its current run from, indexed like {@link #animators}.
+     */
+    private final float[] startValues;
+
+    /**
+     * Whether each support library animation reported a value since the last group update was
+     * dispatched, indexed like {@link #animators}.
+     */
+    private final boolean[] frameUpdated;
+
+    /**
+     * Number of {@link #frameUpdated} flags that are set.
+     */
+    private int frameUpdateCount;
+
+    /**
+     * Records the value of each support library animation for the group update listeners.
+     */
+    private final PropertyAnimator.OnUpdateListener frameSnapshotListener = new PropertyAnimator.OnUpdateListener() {
+        @Override
+        public void onUpdate(PropertyAnimator animator, float value, float velocity) {
+            int index = animator.index;
+            if (frameUpdated[index]) {
+                // A new frame started before every running animation reported in the last one, for
+                // example because one was started after the frame was stepped.
+                dispatchFrameSnapshot();
+            }
+
+            frameValues[index] = value;
+            frameVelocities[index] = velocity;
+            frameUpdated[index] = true;
+
+            // Every running animation is stepped once per frame, so the frame is complete once all
+            // of them have reported.
+            if (++frameUpdateCount >= runningCount) {
+                dispatchFrameSnapshot();
+            }
+        }
+    };
+
+    /**
+     * Holds the {@link PropertyAnimator} for every view and {@link DynamicAnimation.ViewProperty}
+     * pair in the group, in the order they were built.
+     */
+    private final PropertyAnimator[] animators;
+
+    /**
+     * Holds the same animators as {@link #animators} when the group runs on {@link #ENGINE_ANALYTIC},
+     * otherwise {@code null}.
+     */
+    @Nullable
+    private final AnalyticPropertyAnimator[] analyticAnimators;
+
+    /**
+     * Steps every analytic animator of the group from its {@link FrameScheduler}.
+     */
+    private final FrameScheduler.Client frameClient = new FrameScheduler.Client() {
+        @Override
+        public boolean doAnimationFrame(long frameTimeNanos) {
+            if (skipPending) {
+                skipPending = false;
+                skipHiddenAnimators();
+            }
+            // Animators started while paused register the client again; it drops out until resumed.
+            return !paused && stepAnalyticAnimators(frameTimeNanos);
+        }
+    };
+
+    /**
+     * Tracks how many properties of the group are running. The group is running while the count is
+     * above zero and ends exactly once when it drops back to zero.
+     */
+    private final PropertyAnimator.Host animatorHost = new PropertyAnimator.Host() {
+        @Override
+        public void onAnimatorStart(PropertyAnimator animator, float value) {
+            startValues[animator.index] = value;
+            frameValues[animator.index] = value;
+            frameVelocities[animator.index] = 0f;
+            if (runningCount++ == 0) {
+                canceled = false;
+                settlePending = false;
+                lastAppliedFrameTimeNanos = 0;
+                lastFrameTimeNanos = 0;
+                resolveFrameRate();
+                applyHardwareLayers();
+                if (metrics != null) {
+                    metrics.begin(System.nanoTime(), minFrameIntervalNanos);
+                }
+                if (visibilityWatcher != null) {
+                    visibilityWatcher.start();
+                }
+            } else if (analyticAnimators == null && visibilityWatcher != null && visibilityWatcher.isHidden()) {
+                // Joins the properties that were skipped to their end when the views were hidden.
+                skipHiddenAnimator(animator);
+            }
+        }
+
+        @Override
+        public void onAnimatorEnd(PropertyAnimator animator, boolean canceled, float value, float velocity) {
+            SpringAnimationGroup.this.canceled |= canceled;
+            if (frameUpdated[animator.index]) {
+                // Only animations that are still running complete the frame.
+                frameUpdated[animator.index] = false;
+                frameUpdateCount--;
+            }
+            if (--runningCount == 0) {
+                paused = false;
+                skipPending = false;
+                if (visibilityWatcher != null) {
+                    visibilityWatcher.stop();
+                }
+                restoreLayerTypes();
+                if (metrics != null) {
+                    if (steppingFrame) {
+                        // Reported once the frame that ended the group has been recorded.
+                        settlePending = true;
+                    } else {
+                        dispatchSettled();
+                    }
+                }
+                dispatchGroupEnd(SpringAnimationGroup.this.canceled, value, velocity);
+            }
+        }
+    };
+
+    /**
+     * Number of properties that are currently running.
+     */
+    private int runningCount;
+
+    /**
+     * Whether any property was canceled since the group last started running.
+     */
+    private boolean canceled;
+
+    /**
+     * Receives the frame timing of the group, or {@code null} if metrics are disabled.
+     *
+     * @see Builder#setMetricsSink(GroupMetrics.MetricsSink)
+     */
+    @Nullable
+    private GroupMetrics.MetricsSink metricsSink;
+
+    /**
+     * Frame timing of the current run, or {@code null} if metrics are disabled.
+     */
+    @Nullable
+    private GroupMetrics metrics;
+
+    /**
+     * Whether the group is inside {@link #stepAnalyticAnimators(long)}.
+     */
+    private boolean steppingFrame;
+
+    /**
+     * Whether the group settled during the current frame and the sink hasn't been told yet.
+     */
+    private boolean settlePending;
+
+    /**
+     * Distance and speed below which every property counts as settled when the group settles as a
+     * whole, indexed like the properties of one view, or {@code null} if every property settles on
+     * its own.
+     *
+     * @see Builder#setSettleThreshold(float, float)
+     */
+    @Nullable
+    private float[] settleValueThresholds;
+
+    @Nullable
+    private float[] settleVelocityThresholds;
+
+    /**
+     * Computes the next frame of the group on the worker thread, or {@code null} if the group is
+     * stepped on the main thread only.
+     *
+     * @see Builder#setBackgroundStepping(boolean)
+     */
+    @Nullable
+    private BackgroundStepper.Job backgroundJob;
+
+    /**
+     * Time of the last frame the group was stepped to, used to predict the next one.
+     */
+    private long lastFrameTimeNanos;
+
+    /**
+     * Frame rate the group writes its views at, or {@code 0} if it isn't capped.
+     *
+     * @see Builder#setMaxFrameRate(float)
+     */
+    private float maxFrameRate;
 
     /**
-     * Holds all of the {@link SpringAnimation} for each respective {@link DynamicAnimation.ViewProperty}.
+     * Frame rate the group writes its views at while the device is in power save mode, or {@code 0}
+     * if power save mode doesn't change it.
+     *
+     * @see Builder#setPowerSaveFrameRate(float)
+     */
+    private float powerSaveFrameRate;
+
+    /**
+     * Shortest time between two frames written to the views in the current run, or {@code 0} to
+     * write every frame.
+     */
+    private long minFrameIntervalNanos;
+
+    /**
+     * Time of the last frame written to the views in the current run.
+     */
+    private long lastAppliedFrameTimeNanos;
+
+    /**
+     * Distinct views of the group that are put on a hardware layer while it runs, or {@code null} if
+     * layers are not managed.
+     *
+     * @see Builder#setHardwareLayerEnabled(boolean)
+     */
+    @Nullable
+    private View[] layerViews;
+
+    /**
+     * Layer type of each of {@link #layerViews} before the group started.
+     */
+    @Nullable
+    private int[] savedLayerTypes;
+
+    /**
+     * Scheduler the analytic animators are stepped by, or {@code null} on {@link #ENGINE_SUPPORT}.
+     */
+    @Nullable
+    private FrameScheduler frameScheduler;
+
+    /**
+     * What the group does while none of its views can be seen.
+     *
+     * @see Builder#setVisibilityPolicy(int)
+     */
+    private int visibilityPolicy = VISIBILITY_IGNORE;
+
+    /**
+     * Watches the views while the group runs, or {@code null} if the policy is {@link #VISIBILITY_IGNORE}.
+     */
+    @Nullable
+    private VisibilityWatcher visibilityWatcher;
+
+    /**
+     * Whether the group is paused because none of its views can be seen.
+     */
+    private boolean paused;
+
+    /**
+     * Whether the analytic animators are skipped to their end on the next frame because none of the
+     * views can be seen.
+     */
+    private boolean skipPending;
+
+    /**
+     * The timeline the group is a stage of, or {@code null}.
      */
-    private final Map<DynamicAnimation.ViewProperty, SpringAnimation> animationsMap;
+    @Nullable
+    private SpringTimeline timeline;
+
+    private final VisibilityWatcher.Callback visibilityCallback = new VisibilityWatcher.Callback() {
+        @Override
+        public void onHidden() {
+            if (visibilityPolicy == VISIBILITY_PAUSE) {
+                pause();
+            } else if (analyticAnimators != null) {
+                // Analytic springs end as soon as they are skipped, which must not happen while the
+                // group is still starting them, so they are skipped on the next frame.
+                skipPending = true;
+            } else {
+                // The support library ends skipped animations on their next frame.
+                skipHiddenAnimators();
+            }
+        }
+
+        @Override
+        public void onShown() {
+            resume();
+        }
+    };
 
     /**
      * Creates the group for the given animations.
      *
-     * @param animationsMap mapping of {@link DynamicAnimation.ViewProperty} to {@link SpringAnimation}.
+     * @param animators the animator for each view and {@link DynamicAnimation.ViewProperty} pair.
      */
-    private SpringAnimationGroup(Map<DynamicAnimation.ViewProperty, SpringAnimation> animationsMap) {
-        animationGroupEndListeners = new HashMap<>();
-        animationPropertyEndListeners = new HashMap<>();
-        animationPropertyUpdateListeners = new HashMap<>();
+    private SpringAnimationGroup(PropertyAnimator[] animators) {
+        animationGroupEndListeners = new ArrayList<>();
+        animationPropertyEndListeners = new ListenerRegistry();
+        animationPropertyUpdateListeners = new ListenerRegistry();
+        animationGroupUpdateListeners = new ArrayList<>();
+
+        this.animators = animators;
+        for (int i = 0; i < animators.length; i++) {
+            animators[i].index = i;
+            animators[i].setHost(animatorHost);
+        }
 
-        this.animationsMap = animationsMap;
+        frameValues = new float[animators.length];
+        frameVelocities = new float[animators.length];
+        frameUpdated = new boolean[animators.length];
+        startValues = new float[animators.length];
+
+        if (animators.length > 0 && animators[0] instanceof AnalyticPropertyAnimator) {
+            analyticAnimators = new AnalyticPropertyAnimator[animators.length];
+            frameScheduler = FrameScheduler.getDefault();
+            for (int i = 0; i < animators.length; i++) {
+                analyticAnimators[i] = (AnalyticPropertyAnimator) animators[i];
+                analyticAnimators[i].setFrameClient(frameScheduler, frameClient);
+            }
+        } else {
+            analyticAnimators = null;
+        }
     }
 
     /**
-     * Adds an end listener to the animation group for receiving onAnimationEnd callbacks. If the listener
-     * is {@code null} or has already been added to the list of listeners for the animation, no op.
+     * Adds an end listener to the animation group for receiving onAnimationEnd callbacks. The listener
+     * is called once, when the last running property of the group ends, and receives the value and
+     * velocity of that property. {@code canceled} is {@code true} if any property was canceled. If the
+     * listener is {@code null} or has already been added to the list of listeners for the animation,
+     * no op.
      *
      * @see DynamicAnimation#addEndListener(DynamicAnimation.OnAnimationEndListener)
      *
@@ -69,20 +492,8 @@ public class SpringAnimationGroup {
      * @return the animation group to which the listener is added
      */
     public SpringAnimationGroup addEndListener(@NonNull final OnGroupAnimationEndListener listener) {
-        if (!animationsMap.isEmpty()) {
-            DynamicAnimation.OnAnimationEndListener pureListener = new DynamicAnimation.OnAnimationEndListener() {
-                @Override
-                public void onAnimationEnd(DynamicAnimation animation, boolean canceled, float value, float velocity) {
-                    listener.onGroupAnimationEnd(SpringAnimationGroup.this, canceled, value, velocity);
-                }
-            };
-
-            animationGroupEndListeners.put(listener, pureListener);
-
-            SpringAnimation animation = getFirstSpringAnimation();
-            if (animation != null) {
-                animation.addEndListener(pureListener);
-            }
+        if (animators.length > 0 && !animationGroupEndListeners.contains(listener)) {
+            animationGroupEndListeners.add(listener);
         }
 
         return this;
@@ -91,7 +502,8 @@ public class SpringAnimationGroup {
     /**
      * Adds an end listener to the animation group for receiving onAnimationEnd callbacks for the
      * given view property. If the listener is {@code null} or has already been added to the list of
-     * listeners for the animation, no op.
+     * listeners for the property, no op. The same listener may be added for several properties. When
+     * the group spans several views the listener is called for each of them.
      *
      * @see DynamicAnimation#addEndListener(DynamicAnimation.OnAnimationEndListener)
      *
@@ -99,25 +511,21 @@ public class SpringAnimationGroup {
      * @param listener the listener to be added
      * @return the animation group to which the listener is added
      */
-    public SpringAnimationGroup addEndListener(@NonNull final DynamicAnimation.ViewProperty property, @NonNull final OnPropertyAnimationEndListener listener) {
-        if (animationsMap.containsKey(property)) {
-            DynamicAnimation.OnAnimationEndListener pureListener = new DynamicAnimation.OnAnimationEndListener() {
-                @Override
-                public void onAnimationEnd(DynamicAnimation animation, boolean canceled, float value, float velocity) {
-                    listener.onPropertyAnimationEnd(SpringAnimationGroup.this, property, canceled, value, velocity);
+    public SpringAnimationGroup addEndListener(@NonNull DynamicAnimation.ViewProperty property, @NonNull OnPropertyAnimationEndListener listener) {
+        if (hasProperty(property) && animationPropertyEndListeners.add(property, listener)) {
+            for (PropertyAnimator animator : animators) {
+                if (animator.viewProperty == property) {
+                    animator.addEndListener(propertyEndDispatcher);
                 }
-            };
-
-            animationPropertyEndListeners.put(listener, pureListener);
-
-            animationsMap.get(property).addEndListener(pureListener);
+            }
         }
 
         return this;
     }
 
     /**
-     * Adds an update listener to the animation for the given view property.
+     * Adds an update listener to the animation for the given view property. When the group spans
+     * several views the listener is called for each of them.
      *
      * @see DynamicAnimation#addUpdateListener(DynamicAnimation.OnAnimationUpdateListener)
      *
@@ -127,25 +535,51 @@ public class SpringAnimationGroup {
      * @throws UnsupportedOperationException if the update listener is added after the animation has
      *                                       started
      */
-    public SpringAnimationGroup addUpdateListener(@NonNull final DynamicAnimation.ViewProperty property, @NonNull final OnPropertyAnimationUpdateListener listener) {
-        if (animationsMap.containsKey(property)) {
-            DynamicAnimation.OnAnimationUpdateListener pureListener = new DynamicAnimation.OnAnimationUpdateListener() {
-                @Override
-                public void onAnimationUpdate(DynamicAnimation animation, float value, float velocity) {
-                    listener.onPropertyAnimationUpdate(SpringAnimationGroup.this, property, value, velocity);
+    public SpringAnimationGroup addUpdateListener(@NonNull DynamicAnimation.ViewProperty property, @NonNull OnPropertyAnimationUpdateListener listener) {
+        if (hasProperty(property)) {
+            // Attached first, so that adding to a running property throws before anything is registered.
+            for (PropertyAnimator animator : animators) {
+                if (animator.viewProperty == property) {
+                    animator.addUpdateListener(propertyUpdateDispatcher);
                 }
-            };
+            }
+            animationPropertyUpdateListeners.add(property, listener);
+        }
+
+        return this;
+    }
+
+    /**
+     * Adds an update listener to the animation group that is called once per frame with the value and
+     * velocity of every property of the group. The arrays are indexed like {@link #getView(int)} and
+     * {@link #getProperty(int)}, and are reused for every frame, so nothing is allocated while the
+     * group runs. Properties that are not running keep their last value.
+     *
+     * @param listener the listener to be added
+     * @return the animation group to which the listener is added
+     * @throws UnsupportedOperationException if the update listener is added after the animation has
+     *                                       started
+     */
+    public SpringAnimationGroup addUpdateListener(@NonNull OnGroupAnimationUpdateListener listener) {
+        if (isRunning()) {
+            throw new UnsupportedOperationException("Error: Update listeners must be added before the animation.");
+        }
 
-            animationPropertyUpdateListeners.put(listener, pureListener);
+        if (!animationGroupUpdateListeners.contains(listener)) {
+            animationGroupUpdateListeners.add(listener);
+        }
 
-            animationsMap.get(property).addUpdateListener(pureListener);
+        if (analyticAnimators == null) {
+            for (PropertyAnimator animator : animators) {
+                animator.addUpdateListener(frameSnapshotListener);
+            }
         }
 
         return this;
     }
 
     /**
-     * Updates the final position of the spring for the given view property.
+     * Updates the final position of the spring for the given view property on every view of the group.
      *
      * @see SpringAnimation#animateToFinalPosition(float)
      *
@@ -153,123 +587,319 @@ public class SpringAnimationGroup {
      * @param finalPosition rest position of the spring
      */
     public void animateToFinalPosition(@NonNull DynamicAnimation.ViewProperty property, float finalPosition) {
-        if (animationsMap.containsKey(property)) {
-            animationsMap.get(property).animateToFinalPosition(finalPosition);
-        }
+        animateToFinalPosition(ViewProperties.adapterOf(property), finalPosition);
     }
 
     /**
-     * Cancels the on-going animation for the given view property
+     * Updates the final position of the spring for the given custom property on every view of the group.
      *
-     * @see SpringAnimation#cancel()
+     * @see SpringAnimation#animateToFinalPosition(float)
      *
-     * @throws AndroidRuntimeException if this method is not called on the main thread
+     * @param property the property in question
+     * @param finalPosition rest position of the spring
      */
-    public void cancel() {
-        for (SpringAnimation animation : animationsMap.values()) {
-            animation.cancel();
+    public void animateToFinalPosition(@NonNull FloatProperty<? super View> property, float finalPosition) {
+        for (PropertyAnimator animator : animators) {
+            if (animator.property == property) {
+                animator.animateToFinalPosition(finalPosition);
+            }
         }
     }
 
     /**
-     * Queries whether the spring in the given view property can eventually come to the rest position.
+     * Updates the final position of the spring for the given view property of the given view only.
      *
-     * @see SpringAnimation#canSkipToEnd()
+     * @see SpringAnimation#animateToFinalPosition(float)
      *
+     * @param view the view in question
      * @param property the view property in question
-     * @return {@code true} if the spring is damped, otherwise {@code false}
+     * @param finalPosition rest position of the spring
      */
-    public boolean canSkipToEnd(@NonNull DynamicAnimation.ViewProperty property) {
-        return animationsMap.containsKey(property) && animationsMap.get(property).canSkipToEnd();
+    public void animateToFinalPosition(@NonNull View view, @NonNull DynamicAnimation.ViewProperty property, float finalPosition) {
+        animateToFinalPosition(view, ViewProperties.adapterOf(property), finalPosition);
     }
 
     /**
-     * Returns the spring that the animation for the given view property uses for animations.
+     * Updates the final position of the spring for the given custom property of the given view only.
      *
-     * @see SpringAnimation#getSpring()
+     * @see SpringAnimation#animateToFinalPosition(float)
      *
-     * @param property the view property in question
-     * @return the spring in use
+     * @param view the view in question
+     * @param property the property in question
+     * @param finalPosition rest position of the spring
      */
-    @Nullable
-    public SpringForce getSpring(@NonNull DynamicAnimation.ViewProperty property) {
-        if (animationsMap.containsKey(property)) {
-            return animationsMap.get(property).getSpring();
+    public void animateToFinalPosition(@NonNull View view, @NonNull FloatProperty<? super View> property, float finalPosition) {
+        for (PropertyAnimator animator : animators) {
+            if (animator.view == view && animator.property == property) {
+                animator.animateToFinalPosition(finalPosition);
+            }
         }
-        return null;
     }
 
     /**
-     * Returns whether the animation is currently running.
+     * Updates the final positions of several view properties on every view of the group at once, for
+     * example of X, Y and scale while tracking a drag. Retargets are coalesced per frame: however often
+     * a property is retargeted before the next frame, its trajectory is only recomputed once, from the
+     * last final position.
      *
-     * @return {@code true} if the animation is currently running, {@code false} otherwise
-     */
-    public boolean isRunning() {
-        SpringAnimation animation = getFirstSpringAnimation();
-        return animation != null && animation.isRunning();
-    }
-
-    /**
-     * Removes the end listener from the animation group, so as to stop receiving animation end callbacks.
+     * @see #animateToFinalPosition(DynamicAnimation.ViewProperty, float)
      *
-     * @param listener the listener to be removed
+     * @param properties the view properties in question
+     * @param finalPositions rest position of the spring of each view property, indexed like
+     *                       {@code properties}
+     * @throws IllegalArgumentException if the arrays differ in length
      */
-    public void removeEndListener(@NonNull OnGroupAnimationEndListener listener) {
-        if (animationGroupEndListeners.containsKey(listener)) {
-            SpringAnimation animation = getFirstSpringAnimation();
-            if (animation != null) {
-                animation.removeEndListener(animationGroupEndListeners.get(listener));
+    public void animateToFinalPositions(@NonNull DynamicAnimation.ViewProperty[] properties, @NonNull float[] finalPositions) {
+        if (properties.length != finalPositions.length) {
+            throw new IllegalArgumentException("Expected " + properties.length + " final positions but got " + finalPositions.length);
+        }
+
+        for (PropertyAnimator animator : animators) {
+            for (int i = 0; i < properties.length; i++) {
+                if (animator.viewProperty == properties[i]) {
+                    animator.animateToFinalPosition(finalPositions[i]);
+                    break;
+                }
             }
-            animationGroupEndListeners.remove(listener);
         }
     }
 
     /**
-     * Removes the end listener from the animation for the given view property, so as to stop
-     * receiving animation end callbacks.
+     * Updates the final position of every property of every view of the group at once, without
+     * looking any property up. Retargets are coalesced per frame like in
+     * {@link #animateToFinalPositions(DynamicAnimation.ViewProperty[], float[])}.
      *
-     * @param property the view property in question
-     * @param listener the listener to be removed
+     * @see #getView(int)
+     * @see #getFloatProperty(int)
+     *
+     * @param finalPositions rest position of each spring, indexed like {@link #getFloatProperty(int)}
+     * @throws IllegalArgumentException if the array doesn't hold exactly {@link #getPropertyCount()}
+     *         final positions
      */
-    public void removeEndListener(@NonNull DynamicAnimation.ViewProperty property, @NonNull OnPropertyAnimationEndListener listener) {
-        if (animationPropertyEndListeners.containsKey(listener)) {
-            SpringAnimation animation = animationsMap.get(property);
-            if (animation != null) {
-                animation.removeEndListener(animationPropertyEndListeners.get(listener));
-            }
-            animationPropertyEndListeners.remove(listener);
+    public void animateToFinalPositions(@NonNull float[] finalPositions) {
+        if (finalPositions.length != animators.length) {
+            throw new IllegalArgumentException("Expected " + animators.length + " final positions but got " + finalPositions.length);
+        }
+
+        for (int i = 0; i < animators.length; i++) {
+            animators[i].animateToFinalPosition(finalPositions[i]);
         }
     }
 
     /**
-     * Removes the update listener from the animation for the given view property, so as to stop
-     * receiving animation update callbacks.
+     * Cancels the on-going animation for the given view property
      *
-     * @param property the view property in question
-     * @param listener the listener to be removed
+     * @see SpringAnimation#cancel()
+     *
+     * @throws AndroidRuntimeException if this method is not called on the main thread
      */
-    public void removeUpdateListener(@NonNull DynamicAnimation.ViewProperty property, @NonNull OnPropertyAnimationUpdateListener listener) {
-        if (animationPropertyUpdateListeners.containsKey(listener)) {
-            SpringAnimation animation = animationsMap.get(property);
-            if (animation != null) {
-                animation.removeUpdateListener(animationPropertyUpdateListeners.get(listener));
-            }
-            animationPropertyUpdateListeners.remove(listener);
+    public void cancel() {
+        for (PropertyAnimator animation : animators) {
+            animation.cancel();
         }
     }
 
     /**
-     * Uses the given spring for the given view property as the force that drives this animation.
+     * Queries whether the spring in the given view property can eventually come to the rest position.
      *
-     * @see SpringAnimation#setSpring(SpringForce)
+     * @see SpringAnimation#canSkipToEnd()
+     *
+     * @param property the view property in question
+     * @return {@code true} if the spring is damped, otherwise {@code false}
+     */
+    public boolean canSkipToEnd(@NonNull DynamicAnimation.ViewProperty property) {
+        return canSkipToEnd(ViewProperties.adapterOf(property));
+    }
+
+    /**
+     * Queries whether the spring in the given custom property can eventually come to the rest position.
+     *
+     * @see SpringAnimation#canSkipToEnd()
+     *
+     * @param property the property in question
+     * @return {@code true} if the spring is damped, otherwise {@code false}
+     */
+    public boolean canSkipToEnd(@NonNull FloatProperty<? super View> property) {
+        PropertyAnimator animator = findAnimator(property);
+        return animator != null && animator.canSkipToEnd();
+    }
+
+    /**
+     * Returns the spring that the animation for the given view property uses for animations. When
+     * the group spans several views, the spring of the first view is returned.
+     *
+     * @see SpringAnimation#getSpring()
+     *
+     * @param property the view property in question
+     * @return the spring in use
+     */
+    @Nullable
+    public SpringForce getSpring(@NonNull DynamicAnimation.ViewProperty property) {
+        return getSpring(ViewProperties.adapterOf(property));
+    }
+
+    /**
+     * Returns the spring that the animation for the given custom property uses for animations.
+     *
+     * @see #getSpring(DynamicAnimation.ViewProperty)
+     *
+     * @param property the property in question
+     * @return the spring in use
+     */
+    @Nullable
+    public SpringForce getSpring(@NonNull FloatProperty<? super View> property) {
+        PropertyAnimator animator = findAnimator(property);
+        if (animator != null) {
+            return animator.getSpring();
+        }
+        return null;
+    }
+
+    /**
+     * Returns whether the animation is currently running, i.e. whether any of its properties is running.
+     *
+     * @return {@code true} if the animation is currently running, {@code false} otherwise
+     */
+    public boolean isRunning() {
+        return runningCount > 0;
+    }
+
+    /**
+     * Removes the end listener from the animation group, so as to stop receiving animation end callbacks.
+     *
+     * @param listener the listener to be removed
+     */
+    public void removeEndListener(@NonNull OnGroupAnimationEndListener listener) {
+        animationGroupEndListeners.remove(listener);
+    }
+
+    /**
+     * Removes the end listener from the animation for the given view property, so as to stop
+     * receiving animation end callbacks.
+     *
+     * @param property the view property in question
+     * @param listener the listener to be removed
+     */
+    public void removeEndListener(@NonNull DynamicAnimation.ViewProperty property, @NonNull OnPropertyAnimationEndListener listener) {
+        if (animationPropertyEndListeners.remove(property, listener) && !animationPropertyEndListeners.contains(property)) {
+            for (PropertyAnimator animator : animators) {
+                if (animator.viewProperty == property) {
+                    animator.removeEndListener(propertyEndDispatcher);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the update listener from the animation group, so as to stop receiving per-frame callbacks.
+     *
+     * @param listener the listener to be removed
+     */
+    public void removeUpdateListener(@NonNull OnGroupAnimationUpdateListener listener) {
+        animationGroupUpdateListeners.remove(listener);
+
+        if (animationGroupUpdateListeners.isEmpty() && metrics == null && settleValueThresholds == null && analyticAnimators == null) {
+            for (PropertyAnimator animator : animators) {
+                animator.removeUpdateListener(frameSnapshotListener);
+            }
+        }
+    }
+
+    /**
+     * Removes the update listener from the animation for the given view property, so as to stop
+     * receiving animation update callbacks.
+     *
+     * @param property the view property in question
+     * @param listener the listener to be removed
+     */
+    public void removeUpdateListener(@NonNull DynamicAnimation.ViewProperty property, @NonNull OnPropertyAnimationUpdateListener listener) {
+        if (animationPropertyUpdateListeners.remove(property, listener) && !animationPropertyUpdateListeners.contains(property)) {
+            for (PropertyAnimator animator : animators) {
+                if (animator.viewProperty == property) {
+                    animator.removeUpdateListener(propertyUpdateDispatcher);
+                }
+            }
+        }
+    }
+
+    /**
+     * Seeds every view property that follows a gesture with the current velocity of the tracker, in
+     * one pass over the group. The velocity is computed in pixels per second and converted like in
+     * {@link #setGestureVelocity(float, float)}.
+     *
+     * @param tracker the tracker of the gesture
+     */
+    public void setGestureVelocity(@NonNull VelocityTracker tracker) {
+        tracker.computeCurrentVelocity(1000);
+        setGestureVelocity(tracker.getXVelocity(), tracker.getYVelocity());
+    }
+
+    /**
+     * Seeds every view property that follows a gesture with the velocity of the gesture, in one pass
+     * over the group and without allocating. Properties that aren't running start with the velocity,
+     * and running properties continue from where they are with it, from the next frame on.
+     *
+     * <p>Translations, positions and scroll offsets take the velocity of their axis. Scales change by
+     * one for every width or height of the view that the finger travels per second, and rotations
+     * turn the edge of the view at the speed of the finger: {@link DynamicAnimation#ROTATION} and
+     * {@link DynamicAnimation#ROTATION_Y} follow horizontal motion, {@link DynamicAnimation#ROTATION_X}
+     * vertical motion. Alpha, elevations and custom properties are left alone, as are scales and
+     * rotations of views that haven't been laid out yet.</p>
+     *
+     * @param velocityX horizontal velocity of the gesture in pixels per second
+     * @param velocityY vertical velocity of the gesture in pixels per second
+     */
+    public void setGestureVelocity(float velocityX, float velocityY) {
+        for (PropertyAnimator animator : animators) {
+            if (animator.property instanceof ViewProperties.Adapter) {
+                float velocity = ViewProperties.getGestureVelocity(animator.view, ((ViewProperties.Adapter) animator.property).index, velocityX, velocityY);
+                if (!Float.isNaN(velocity)) {
+                    animator.setStartVelocity(velocity);
+                }
+            }
+        }
+    }
+
+    /**
+     * Uses the given spring for the given view property as the force that drives this animation.
+     * When the group spans several views, every view of the property shares the spring. On the
+     * first axis of a coupled pair, the stiffness and damping ratio apply to both axes.
+     *
+     * @see SpringAnimation#setSpring(SpringForce)
+     * @see Builder#setCoupled(DynamicAnimation.ViewProperty, DynamicAnimation.ViewProperty)
      *
      * @param property the view property in question
      * @param springForce a pre-defined spring force that drives the animation
      * @return the animation that the spring force is set on
+     * @throws IllegalArgumentException if the property is the second axis of a coupled pair, which
+     *                                  takes the spring of the first axis
      */
     public SpringAnimationGroup setSpring(@NonNull DynamicAnimation.ViewProperty property, @NonNull SpringForce springForce) {
-        if (animationsMap.containsKey(property)) {
-            animationsMap.get(property).setSpring(springForce);
+        return setSpring(ViewProperties.adapterOf(property), springForce);
+    }
+
+    /**
+     * Uses the given spring for the given custom property as the force that drives this animation.
+     *
+     * @see #setSpring(DynamicAnimation.ViewProperty, SpringForce)
+     *
+     * @param property the property in question
+     * @param springForce a pre-defined spring force that drives the animation
+     * @return the animation that the spring force is set on
+     * @throws IllegalArgumentException if the property is the second axis of a coupled pair, which
+     *                                  takes the spring of the first axis
+     */
+    public SpringAnimationGroup setSpring(@NonNull FloatProperty<? super View> property, @NonNull SpringForce springForce) {
+        for (PropertyAnimator animator : animators) {
+            if (animator.property == property && animator instanceof AnalyticPropertyAnimator
+                    && ((AnalyticPropertyAnimator) animator).isSecondAxis()) {
+                throw new IllegalArgumentException("The second axis of a coupled pair takes the spring of the first axis");
+            }
+        }
+        for (PropertyAnimator animator : animators) {
+            if (animator.property == property) {
+                animator.setSpring(springForce);
+            }
         }
 
         return this;
@@ -284,7 +914,7 @@ public class SpringAnimationGroup {
      * @throws AndroidRuntimeException if this method is not called on the main thread
      */
     public void skipToEnd() {
-        for (SpringAnimation animation : animationsMap.values()) {
+        for (PropertyAnimator animation : animators) {
             animation.skipToEnd();
         }
     }
@@ -299,8 +929,23 @@ public class SpringAnimationGroup {
      * @throws AndroidRuntimeException if this method is not called on the main thread
      */
     public void skipToEnd(@NonNull DynamicAnimation.ViewProperty property) {
-        if (animationsMap.containsKey(property)) {
-            animationsMap.get(property).skipToEnd();
+        skipToEnd(ViewProperties.adapterOf(property));
+    }
+
+    /**
+     * Skips to the end of the animation for the given custom property.
+     *
+     * @see SpringAnimation#skipToEnd()
+     *
+     * @param property the property in question
+     * @throws IllegalStateException if the spring is undamped (i.e. damping ratio = 0)
+     * @throws AndroidRuntimeException if this method is not called on the main thread
+     */
+    public void skipToEnd(@NonNull FloatProperty<? super View> property) {
+        for (PropertyAnimator animator : animators) {
+            if (animator.property == property) {
+                animator.skipToEnd();
+            }
         }
     }
 
@@ -312,242 +957,1392 @@ public class SpringAnimationGroup {
      * @throws AndroidRuntimeException if this method is not called on the main thread
      */
     public void start() {
-        for (SpringAnimation animation : animationsMap.values()) {
+        for (PropertyAnimator animation : animators) {
             animation.start();
         }
     }
 
+    /**
+     * Steps every analytic animator to the given frame time. All springs are evaluated first, then
+     * every view is written in one pass, and only then are listeners notified, so that listeners
+     * observe a consistent frame across all views of the group.
+     *
+     * @param frameTimeNanos the time at which the frame started rendering
+     * @return {@code true} if any animator is still running
+     */
+    private boolean stepAnalyticAnimators(long frameTimeNanos) {
+        if (analyticAnimators == null) {
+            return false;
+        }
+
+        steppingFrame = true;
+        long stepStartNanos = metrics != null ? System.nanoTime() : 0;
+
+        if (backgroundJob == null || !backgroundJob.apply(frameTimeNanos, analyticAnimators)) {
+            for (AnalyticPropertyAnimator animator : analyticAnimators) {
+                animator.stepFrame(frameTimeNanos);
+            }
+        }
+        if (settleValueThresholds != null && isWithinSettleThresholds()) {
+            for (AnalyticPropertyAnimator animator : analyticAnimators) {
+                animator.settle();
+            }
+        }
+        if (minFrameIntervalNanos > 0 && !isFrameDue(frameTimeNanos)) {
+            // The springs are evaluated at the frame time, so skipping a write doesn't shift them in time.
+            steppingFrame = false;
+            submitBackgroundFrame(frameTimeNanos);
+            return runningCount > 0;
+        }
+        lastAppliedFrameTimeNanos = frameTimeNanos;
+
+        boolean stepped = false;
+        for (AnalyticPropertyAnimator animator : analyticAnimators) {
+            animator.applyFrame();
+            stepped |= animator.hasSteppedFrame();
+        }
+
+        long dispatchStartNanos = metrics != null ? System.nanoTime() : 0;
+
+        if (stepped && !animationGroupUpdateListeners.isEmpty()) {
+            for (int i = 0; i < analyticAnimators.length; i++) {
+                frameValues[i] = analyticAnimators[i].getValue();
+                frameVelocities[i] = analyticAnimators[i].getVelocity();
+            }
+            dispatchGroupUpdate();
+        }
+
+        for (AnalyticPropertyAnimator animator : analyticAnimators) {
+            animator.dispatchFrame();
+        }
+
+        steppingFrame = false;
+        submitBackgroundFrame(frameTimeNanos);
+
+        if (metrics != null) {
+            if (stepped) {
+                long now = System.nanoTime();
+                metrics.recordFrame(frameTimeNanos, dispatchStartNanos - stepStartNanos, now - dispatchStartNanos);
+                metricsSink.onGroupFrame(this, metrics);
+            }
+            if (settlePending) {
+                settlePending = false;
+                dispatchSettled();
+            }
+        }
+
+        return runningCount > 0;
+    }
+
+    /**
+     * Listeners are walked backwards so that a listener may remove itself during the callback.
+     */
+    private void dispatchGroupUpdate() {
+        for (int i = animationGroupUpdateListeners.size() - 1; i >= 0; i--) {
+            if (i < animationGroupUpdateListeners.size()) {
+                animationGroupUpdateListeners.get(i).onGroupAnimationUpdate(this, frameValues, frameVelocities);
+            }
+        }
+    }
+
+    /**
+     * Manages a hardware layer on every view of the group while it runs. Does nothing if any of the
+     * animated properties isn't layer friendly.
+     */
+    private void setHardwareLayerEnabled() {
+        ArrayList<View> views = new ArrayList<>();
+        for (PropertyAnimator animator : animators) {
+            if (!(animator.property instanceof ViewProperties.Adapter)
+                    || !ViewProperties.isLayerFriendly(((ViewProperties.Adapter) animator.property).index)) {
+                return;
+            }
+            if (!views.contains(animator.view)) {
+                views.add(animator.view);
+            }
+        }
+
+        layerViews = views.toArray(new View[views.size()]);
+        savedLayerTypes = new int[layerViews.length];
+    }
+
+    private void applyHardwareLayers() {
+        if (layerViews == null) {
+            return;
+        }
+
+        for (int i = 0; i < layerViews.length; i++) {
+            savedLayerTypes[i] = layerViews[i].getLayerType();
+            if (savedLayerTypes[i] != View.LAYER_TYPE_HARDWARE) {
+                layerViews[i].setLayerType(View.LAYER_TYPE_HARDWARE, null);
+            }
+        }
+    }
+
+    private void restoreLayerTypes() {
+        if (layerViews == null) {
+            return;
+        }
+
+        for (int i = 0; i < layerViews.length; i++) {
+            if (savedLayerTypes[i] != View.LAYER_TYPE_HARDWARE) {
+                layerViews[i].setLayerType(savedLayerTypes[i], null);
+            }
+        }
+    }
+
+    /**
+     * Has the worker compute the frame after the given one, predicting it one frame interval ahead.
+     */
+    private void submitBackgroundFrame(long frameTimeNanos) {
+        long intervalNanos = lastFrameTimeNanos != 0 ? frameTimeNanos - lastFrameTimeNanos : 0;
+        lastFrameTimeNanos = frameTimeNanos;
+
+        if (backgroundJob != null && runningCount > 0 && intervalNanos > 0) {
+            backgroundJob.submit(frameTimeNanos + intervalNanos, analyticAnimators);
+        }
+    }
+
+    /**
+     * Watches the views of the group while it runs. While none of them can be seen,
+     * {@link #VISIBILITY_PAUSE} pauses the group and {@link #VISIBILITY_SKIP_TO_END} skips every
+     * running property to its end. Must be called before the group starts.
+     */
+    private void setVisibilityPolicy(int policy) {
+        ArrayList<View> views = new ArrayList<>();
+        for (PropertyAnimator animator : animators) {
+            if (!views.contains(animator.view)) {
+                views.add(animator.view);
+            }
+        }
+
+        visibilityPolicy = policy;
+        visibilityWatcher = new VisibilityWatcher(views.toArray(new View[views.size()]), visibilityCallback);
+    }
+
+    private void skipHiddenAnimators() {
+        for (PropertyAnimator animator : animators) {
+            if (animator.isRunning()) {
+                skipHiddenAnimator(animator);
+            }
+        }
+    }
+
+    /**
+     * Skips the animator to its end, or cancels it if its spring is undamped and never ends.
+     */
+    private static void skipHiddenAnimator(@NonNull PropertyAnimator animator) {
+        if (animator.canSkipToEnd()) {
+            animator.skipToEnd();
+        } else {
+            animator.cancel();
+        }
+    }
+
+    /**
+     * Stops stepping the analytic animators. Every spring holds its value and velocity and continues
+     * its trajectory from the first frame after {@link #resume()}, so the time spent paused doesn't
+     * move it. The group leaves its scheduler, which then no longer references the views.
+     * Package-private so that tests can pause a group without a window.
+     */
+    void pause() {
+        if (paused || analyticAnimators == null) {
+            return;
+        }
+        paused = true;
+
+        for (AnalyticPropertyAnimator animator : analyticAnimators) {
+            animator.holdTrajectory();
+        }
+        frameScheduler.unregister(frameClient);
+        if (metrics != null) {
+            metrics.pause();
+        }
+    }
+
+    /**
+     * Steps the springs paused by {@link #pause()} again from the next frame on.
+     */
+    void resume() {
+        if (!paused) {
+            return;
+        }
+        paused = false;
+
+        lastFrameTimeNanos = 0;
+        lastAppliedFrameTimeNanos = 0;
+        if (runningCount > 0) {
+            frameScheduler.register(frameClient);
+        }
+    }
+
+    /**
+     * Package-private so that tests can report draws without a window.
+     */
+    @Nullable
+    VisibilityWatcher getVisibilityWatcher() {
+        return visibilityWatcher;
+    }
+
     @Nullable
-    private SpringAnimation getFirstSpringAnimation() {
-        for (SpringAnimation animation : animationsMap.values()) {
-            return animation;
+    SpringTimeline getTimeline() {
+        return timeline;
+    }
+
+    /**
+     * Marks the group as a stage of the given timeline, which is then its only listener.
+     */
+    void setTimeline(@NonNull SpringTimeline timeline) {
+        this.timeline = timeline;
+    }
+
+    /**
+     * Steps the springs of the group on the worker thread. Must be called before the group starts.
+     */
+    private void setBackgroundStepping() {
+        if (analyticAnimators != null) {
+            backgroundJob = new BackgroundStepper.Job(analyticAnimators.length);
         }
-        return null;
     }
 
     /**
-     * Creates a {@link Builder} for the given view.
-     *
-     * @param view to animate.
-     * @return the newly generated builder.
+     * Returns whether a capped group writes the given frame. Frames in which a spring comes to rest
+     * are always written, so that a capped group ends at the same moment as an uncapped one.
      */
-    public static Builder from(@NonNull View view) {
-        return new Builder(view);
+    private boolean isFrameDue(long frameTimeNanos) {
+        if (lastAppliedFrameTimeNanos == 0
+                || frameTimeNanos - lastAppliedFrameTimeNanos >= minFrameIntervalNanos * FRAME_INTERVAL_TOLERANCE) {
+            return true;
+        }
+        for (AnalyticPropertyAnimator animator : analyticAnimators) {
+            if (animator.hasFinishedFrame()) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
-     * Builder class for generating a {@link SpringAnimationGroup}
+     * Resolves the frame rate cap for the run that is starting. Only {@link #ENGINE_ANALYTIC} groups
+     * are capped.
      */
-    public static class Builder {
+    private void resolveFrameRate() {
+        float frameRate = maxFrameRate;
+        if (analyticAnimators == null) {
+            frameRate = 0f;
+        } else if (powerSaveFrameRate > 0f && isPowerSaveMode(animators[0].view.getContext())) {
+            frameRate = frameRate > 0f ? Math.min(frameRate, powerSaveFrameRate) : powerSaveFrameRate;
+        }
+        minFrameIntervalNanos = frameRate > 0f ? (long) (1000000000L / frameRate) : 0;
+    }
 
-        /**
-         * Holds the {@link SpringForce} for the the {@link DynamicAnimation.ViewProperty}
-         */
-        private final Map<DynamicAnimation.ViewProperty, SpringForce> propertiesMap = new HashMap<>();
+    private static boolean isPowerSaveMode(@NonNull Context context) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
+            return false;
+        }
+        PowerManager powerManager = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+        return powerManager != null && powerManager.isPowerSaveMode();
+    }
 
-        /**
-         * Holds the max value for the {@link DynamicAnimation.ViewProperty}
-         */
-        private final Map<DynamicAnimation.ViewProperty, Float> maxValuesMap = new HashMap<>();
+    /**
+     * Steps the group from the given scheduler. Must be called before the group starts.
+     */
+    private void setFrameScheduler(@NonNull FrameScheduler scheduler) {
+        if (analyticAnimators != null) {
+            frameScheduler = scheduler;
+            for (AnalyticPropertyAnimator animator : analyticAnimators) {
+                animator.setFrameClient(scheduler, frameClient);
+            }
+        }
+    }
 
-        /**
+    /**
+     * Caps the rate the group writes its views at. Must be called before the group starts.
+     */
+    private void setFrameRates(float maxFrameRate, float powerSaveFrameRate) {
+        this.maxFrameRate = maxFrameRate;
+        this.powerSaveFrameRate = powerSaveFrameRate;
+    }
+
+    /**
+     * Checks the last frame of every running property against the settle thresholds of the group.
+     * On {@link #ENGINE_ANALYTIC} a property that hasn't stepped yet is not settled.
+     */
+    private boolean isWithinSettleThresholds() {
+        int propertyCount = settleValueThresholds.length;
+        for (int i = 0; i < animators.length; i++) {
+            PropertyAnimator animator = animators[i];
+            if (!animator.isRunning()) {
+                continue;
+            }
+
+            float value;
+            float velocity;
+            if (analyticAnimators != null) {
+                if (!analyticAnimators[i].hasSteppedFrame()) {
+                    return false;
+                }
+                value = analyticAnimators[i].getValue();
+                velocity = analyticAnimators[i].getVelocity();
+            } else {
+                value = frameValues[i];
+                velocity = frameVelocities[i];
+            }
+
+            int j = i % propertyCount;
+            if (Math.abs(value - animator.getSpring().getFinalPosition()) >= settleValueThresholds[j]
+                    || Math.abs(velocity) >= settleVelocityThresholds[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Makes every property of the group settle together, once all of them are within the given
+     * thresholds. Must be called before the group starts.
+     */
+    private void setSettleThresholds(@NonNull float[] valueThresholds, @NonNull float[] velocityThresholds) {
+        settleValueThresholds = valueThresholds;
+        settleVelocityThresholds = velocityThresholds;
+
+        if (analyticAnimators == null) {
+            for (PropertyAnimator animator : animators) {
+                animator.addUpdateListener(frameSnapshotListener);
+            }
+        }
+    }
+
+    /**
+     * Settles the group if it is within its thresholds and dispatches the frame recorded by
+     * {@link #frameSnapshotListener}. Only used by {@link #ENGINE_SUPPORT}.
+     */
+    private void dispatchFrameSnapshot() {
+        Arrays.fill(frameUpdated, false);
+        frameUpdateCount = 0;
+
+        if (settleValueThresholds != null && isWithinSettleThresholds()) {
+            // The support library ends each animation at its final position on its next frame.
+            for (PropertyAnimator target : animators) {
+                if (target.isRunning() && target.canSkipToEnd()) {
+                    target.skipToEnd();
+                }
+            }
+        }
+
+        long dispatchStartNanos = metrics != null ? System.nanoTime() : 0;
+        dispatchGroupUpdate();
+        if (metrics != null) {
+            // The support library doesn't expose its frame time, and steps each property on its own.
+            long now = System.nanoTime();
+            metrics.recordFrame(dispatchStartNanos, 0, now - dispatchStartNanos);
+            metricsSink.onGroupFrame(this, metrics);
+        }
+    }
+
+    private void dispatchSettled() {
+        metrics.end(System.nanoTime(), canceled);
+        metricsSink.onGroupSettled(this, metrics);
+    }
+
+    /**
+     * Enables frame timing for the group. Must be called before the group starts.
+     */
+    private void setMetricsSink(@NonNull GroupMetrics.MetricsSink sink, float refreshRate) {
+        metricsSink = sink;
+        metrics = new GroupMetrics(refreshRate);
+
+        if (analyticAnimators == null) {
+            for (PropertyAnimator animator : animators) {
+                animator.addUpdateListener(frameSnapshotListener);
+            }
+        }
+    }
+
+    /**
+     * Listeners are walked backwards so that a listener may remove itself during the callback.
+     */
+    private void dispatchGroupEnd(boolean canceled, float value, float velocity) {
+        for (int i = animationGroupEndListeners.size() - 1; i >= 0; i--) {
+            if (i < animationGroupEndListeners.size()) {
+                animationGroupEndListeners.get(i).onGroupAnimationEnd(this, canceled, value, velocity);
+            }
+        }
+    }
+
+    /**
+     * Returns how far the group has come from where its properties started towards their final
+     * positions, as the fraction of the distance covered by the property that is furthest behind.
+     * Properties that aren't running or that overshoot their final position count as done. Only up
+     * to date inside an {@link OnGroupAnimationUpdateListener}, which is when the values of
+     * the frame are recorded.
+     *
+     * @see SpringTimeline.Builder#thenAt(float, SpringAnimationGroup)
+     *
+     * @return the progress of the slowest running property, or 1 if none is running
+     */
+    float getProgress() {
+        float progress = 1f;
+        for (int i = 0; i < animators.length; i++) {
+            if (!animators[i].isRunning()) {
+                continue;
+            }
+            float finalPosition = animators[i].getSpring().getFinalPosition();
+            float distance = startValues[i] - finalPosition;
+            if (distance != 0f) {
+                progress = Math.min(progress, 1f - (frameValues[i] - finalPosition) / distance);
+            }
+        }
+        return progress;
+    }
+
+    /**
+     * Returns the number of view and property pairs in the group. This is the length of the arrays
+     * passed to {@link OnGroupAnimationUpdateListener}. Pairs are indexed as described by
+     * {@link Builder}.
+     *
+     * @return number of animated properties
+     */
+    public int getPropertyCount() {
+        return animators.length;
+    }
+
+    /**
+     * Returns the view animated at the given index.
+     *
+     * @param index index between 0 and {@link #getPropertyCount()}
+     * @return the view at the index
+     */
+    @NonNull
+    public View getView(int index) {
+        return animators[index].view;
+    }
+
+    /**
+     * Returns the view property animated at the given index.
+     *
+     * @param index index between 0 and {@link #getPropertyCount()}
+     * @return the view property at the index, or {@code null} if it is a custom property
+     */
+    @Nullable
+    public DynamicAnimation.ViewProperty getProperty(int index) {
+        return animators[index].viewProperty;
+    }
+
+    /**
+     * Returns the custom property animated at the given index.
+     *
+     * @param index index between 0 and {@link #getPropertyCount()}
+     * @return the property at the index, or {@code null} if it is a view property
+     */
+    @Nullable
+    public FloatProperty<? super View> getFloatProperty(int index) {
+        return animators[index].viewProperty == null ? animators[index].property : null;
+    }
+
+    /**
+     * Returns the index of the given view and property pair.
+     *
+     * @param view the view in question
+     * @param property the view property in question
+     * @return the index, or {@code -1} if the group doesn't animate the property on the view
+     */
+    public int indexOf(@NonNull View view, @NonNull DynamicAnimation.ViewProperty property) {
+        return indexOf(view, ViewProperties.adapterOf(property));
+    }
+
+    /**
+     * Returns the index of the given view and custom property pair.
+     *
+     * @param view the view in question
+     * @param property the property in question
+     * @return the index, or {@code -1} if the group doesn't animate the property on the view
+     */
+    public int indexOf(@NonNull View view, @NonNull FloatProperty<? super View> property) {
+        for (int i = 0; i < animators.length; i++) {
+            if (animators[i].view == view && animators[i].property == property) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean hasProperty(@NonNull DynamicAnimation.ViewProperty property) {
+        return findAnimator(ViewProperties.adapterOf(property)) != null;
+    }
+
+    @Nullable
+    private PropertyAnimator findAnimator(@NonNull FloatProperty<? super View> property) {
+        for (PropertyAnimator animator : animators) {
+            if (animator.property == property) {
+                return animator;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Creates a {@link Builder} for the given view.
+     *
+     * @param view to animate.
+     * @return the newly generated builder.
+     */
+    public static Builder from(@NonNull View view) {
+        return new Builder(new View[] { view });
+    }
+
+    /**
+     * Creates a {@link Builder} that animates the same properties on every one of the given views.
+     * On {@link #ENGINE_ANALYTIC} every spring of the group is stepped from one frame callback per
+     * vsync, so the per-frame overhead doesn't grow with the number of views.
+     *
+     * @param views to animate.
+     * @return the newly generated builder.
+     */
+    public static Builder from(@NonNull View... views) {
+        return new Builder(views.clone());
+    }
+
+    /**
+     * Creates a {@link Builder} without views, to compile a {@link Template} with
+     * {@link Builder#buildTemplate()}.
+     *
+     * @return the newly generated builder.
+     */
+    public static Builder template() {
+        return new Builder(new View[0]);
+    }
+
+    /**
+     * Builder class for generating a {@link SpringAnimationGroup}
+     *
+     * <p>Properties are indexed in the order they are first passed to the builder, usually by
+     * {@link #setFinalPosition(DynamicAnimation.ViewProperty, float)}. The second axis of a coupled
+     * pair follows its first axis, and the follower of a locked pair isn't indexed at all. With
+     * several views, all properties of the first view come before those of the second, and so on.
+     * These indices are used by {@link SpringAnimationGroup#getProperty(int)},
+     * {@link SpringAnimationGroup#animateToFinalPositions(float[])} and the arrays passed to
+     * {@link OnGroupAnimationUpdateListener}.</p>
+     */
+    public static class Builder {
+
+        /**
+         * Holds the {@link SpringForce} for the the {@link DynamicAnimation.ViewProperty}
+         */
+        private final Map<FloatProperty<? super View>, SpringForce> propertiesMap = new LinkedHashMap<>();
+
+        /**
+         * Holds the max value for the {@link DynamicAnimation.ViewProperty}
+         */
+        private final Map<FloatProperty<? super View>, Float> maxValuesMap = new LinkedHashMap<>();
+
+        /**
          * Holds the min value for the {@link DynamicAnimation.ViewProperty}
          */
-        private final Map<DynamicAnimation.ViewProperty, Float> minValuesMap = new HashMap<>();
+        private final Map<FloatProperty<? super View>, Float> minValuesMap = new LinkedHashMap<>();
+
+        /**
+         * Holds the start value for the {@link DynamicAnimation.ViewProperty}
+         */
+        private final Map<FloatProperty<? super View>, Float> startValuesMap = new LinkedHashMap<>();
+
+        /**
+         * Holds the velocities value for the {@link DynamicAnimation.ViewProperty}
+         */
+        private final Map<FloatProperty<? super View>, Float> startVelocitiesMap = new LinkedHashMap<>();
+
+        /**
+         * Holds the minimum visible change for the {@link DynamicAnimation.ViewProperty}
+         */
+        private final Map<FloatProperty<? super View>, Float> minimumVisibleChangesMap = new LinkedHashMap<>();
+
+        /**
+         * Holds the second axis of every two-dimensional spring, keyed by its first axis
+         */
+        private final Map<FloatProperty<? super View>, FloatProperty<? super View>> coupledPropertiesMap = new LinkedHashMap<>();
+
+        /**
+         * Holds the property that follows every locked property, keyed by the locked property
+         */
+        private final Map<FloatProperty<? super View>, FloatProperty<? super View>> lockedPropertiesMap = new LinkedHashMap<>();
+
+        /**
+         * Holds the friction for the {@link DynamicAnimation.ViewProperty}
+         */
+        private final Map<FloatProperty<? super View>, Float> frictionsMap = new LinkedHashMap<>();
+
+        /**
+         * Holds the sorted snap points for the {@link DynamicAnimation.ViewProperty}
+         */
+        private final Map<FloatProperty<? super View>, float[]> snapPointsMap = new LinkedHashMap<>();
+
+        /**
+         * The views to animate.
+         */
+        private final View[] views;
+
+        /**
+         * The damping ratio to be applied to {@link SpringForce}. This value is only applied to
+         * properties where the value wasn't explicitly given using {@link #setSpring(DynamicAnimation.ViewProperty, SpringForce)}
+         * or {@link #setDampingRatio(DynamicAnimation.ViewProperty, float)}.
+         */
+        private float dampingRatio = SpringForce.DAMPING_RATIO_MEDIUM_BOUNCY;
+
+        /**
+         * The stiffness to be applied to {@link SpringForce}. This value is only applied to
+         * properties where the value wasn't explicitly given using {@link #setSpring(DynamicAnimation.ViewProperty, SpringForce)}
+         * or {@link #setStiffness(DynamicAnimation.ViewProperty, float)}.
+         */
+        private float stiffness = SpringForce.STIFFNESS_MEDIUM;
+
+        /**
+         * The engine that drives the built group.
+         */
+        private int engine = ENGINE_SUPPORT;
+
+        /**
+         * Receives the frame timing of the built group, or {@code null} to disable metrics.
+         */
+        @Nullable
+        private GroupMetrics.MetricsSink metricsSink;
+
+        /**
+         * The display refresh rate the frame timing is measured against.
+         */
+        private float refreshRate = DEFAULT_REFRESH_RATE;
+
+        /**
+         * Cache of baked trajectories for the built group, or {@code null} to evaluate springs directly.
+         */
+        @Nullable
+        private TrajectoryCache trajectoryCache;
+
+        /**
+         * Whether the built group puts its views on a hardware layer while it runs.
+         */
+        private boolean hardwareLayerEnabled;
+
+        /**
+         * Distance in dp within which pixel properties of the built group settle together, or
+         * {@code 0} if every property settles on its own.
+         */
+        private float settleDistanceDp;
+
+        /**
+         * Speed in dp per second below which pixel properties of the built group settle together.
+         */
+        private float settleVelocityDp;
+
+        /**
+         * Scheduler the built group is stepped by, or {@code null} for the display's vsync.
+         */
+        @Nullable
+        private FrameScheduler frameScheduler;
+
+        /**
+         * Whether the built group evaluates its springs on the worker thread.
+         */
+        private boolean backgroundStepping;
+
+        /**
+         * Frame rate the built group writes its views at, or {@code 0} if it isn't capped.
+         */
+        private float maxFrameRate;
+
+        /**
+         * Frame rate the built group writes its views at in power save mode, or {@code 0} if it
+         * doesn't change.
+         */
+        private float powerSaveFrameRate;
+
+        /**
+         * What the built group does while none of its views can be seen.
+         */
+        private int visibilityPolicy = VISIBILITY_IGNORE;
+
+        /**
+         * Template {@link #build()} creates groups from, or {@code null} if the builder changed since
+         * it was compiled.
+         */
+        @Nullable
+        private Template template;
+
+        private Builder(View[] views) {
+            this.views = views;
+        }
+
+        /**
+         * Sets the {@link SpringForce} for the given {@link DynamicAnimation.ViewProperty}.
+         *
+         * @param property to apply the spring force to
+         * @param springForce to use on the view
+         * @return this builder
+         */
+        public Builder setSpring(@NonNull DynamicAnimation.ViewProperty property, @NonNull SpringForce springForce) {
+            return setSpring(ViewProperties.adapterOf(property), springForce);
+        }
+
+        /**
+         * Same as {@link #setSpring(DynamicAnimation.ViewProperty, SpringForce)}, for a custom property.
+         *
+         * @param property to apply the spring force to
+         * @param springForce to use on the view
+         * @return this builder
+         */
+        public Builder setSpring(@NonNull FloatProperty<? super View> property, @NonNull SpringForce springForce) {
+            propertiesMap.put(property, springForce);
+            template = null;
+
+            return this;
+        }
+
+        /**
+         * Sets the rest position of the spring for the given {@link DynamicAnimation.ViewProperty}.
+         *
+         * @param property to apply the spring force to
+         * @param finalPosition rest position of the spring
+         * @return this builder
+         */
+        public Builder setFinalPosition(@NonNull DynamicAnimation.ViewProperty property, float finalPosition) {
+            return setFinalPosition(ViewProperties.adapterOf(property), finalPosition);
+        }
+
+        /**
+         * Same as {@link #setFinalPosition(DynamicAnimation.ViewProperty, float)}, for a custom property.
+         *
+         * @param property to apply the spring force to
+         * @param finalPosition rest position of the spring
+         * @return this builder
+         */
+        public Builder setFinalPosition(@NonNull FloatProperty<? super View> property, float finalPosition) {
+            SpringForce springForce = initIfNew(property);
+            springForce.setFinalPosition(finalPosition);
+            template = null;
+
+            return this;
+        }
+
+        /**
+         * Sets the default damping ratio to apply to any previous and future registered view properties.
+         * This value can be overridden for the specific view property using the method
+         * {@link #setDampingRatio(DynamicAnimation.ViewProperty, float)}
+         *
+         * @see SpringForce#setDampingRatio(float)
+         *
+         * @param dampingRatio damping ratio of the spring, it should be non-negative
+         * @return this builder
+         */
+        public Builder setDampingRatio(@FloatRange(from = 0.0) float dampingRatio) {
+            this.dampingRatio = dampingRatio;
+
+            for (SpringForce force : propertiesMap.values()) {
+                force.setDampingRatio(dampingRatio);
+            }
+            template = null;
+
+            return this;
+        }
+
+        /**
+         * Sets damping ratio for the given view property.
+         *
+         * @see SpringForce#setDampingRatio(float)
+         *
+         * @param property to apply the value to
+         * @param dampingRatio damping ratio of the spring, it should be non-negative
+         * @return this builder
+         */
+        public Builder setDampingRatio(@NonNull DynamicAnimation.ViewProperty property, @FloatRange(from = 0.0) float dampingRatio) {
+            return setDampingRatio(ViewProperties.adapterOf(property), dampingRatio);
+        }
+
+        /**
+         * Same as {@link #setDampingRatio(DynamicAnimation.ViewProperty, float)}, for a custom property.
+         *
+         * @param property to apply the value to
+         * @param dampingRatio damping ratio of the spring, it should be non-negative
+         * @return this builder
+         */
+        public Builder setDampingRatio(@NonNull FloatProperty<? super View> property, @FloatRange(from = 0.0) float dampingRatio) {
+            SpringForce springForce = initIfNew(property);
+            springForce.setDampingRatio(dampingRatio);
+            template = null;
+
+            return this;
+        }
+
+        /**
+         * Sets the default stiffness to apply to any previous and future registered view properties.
+         * This value can be overridden for the specific view property using the method
+         * {@link #setStiffness(DynamicAnimation.ViewProperty, float)}
+         *
+         * @see SpringForce#setStiffness(float)
+         *
+         * @param stiffness non-negative stiffness constant of a spring
+         * @return this builder
+         */
+        public Builder setStiffness(float stiffness) {
+            this.stiffness = stiffness;
+
+            for (SpringForce force : propertiesMap.values()) {
+                force.setStiffness(stiffness);
+            }
+            template = null;
+
+            return this;
+        }
+
+        /**
+         * Sets stiffness for the given view property.
+         *
+         * @see SpringForce#setStiffness(float)
+         *
+         * @param property to apply the value to
+         * @param stiffness non-negative stiffness constant of a spring
+         * @return this builder
+         */
+        public Builder setStiffness(@NonNull DynamicAnimation.ViewProperty property, float stiffness) {
+            return setStiffness(ViewProperties.adapterOf(property), stiffness);
+        }
+
+        /**
+         * Same as {@link #setStiffness(DynamicAnimation.ViewProperty, float)}, for a custom property.
+         *
+         * @param property to apply the value to
+         * @param stiffness non-negative stiffness constant of a spring
+         * @return this builder
+         */
+        public Builder setStiffness(@NonNull FloatProperty<? super View> property, float stiffness) {
+            SpringForce springForce = initIfNew(property);
+            springForce.setStiffness(stiffness);
+            template = null;
+
+            return this;
+        }
+
+        /**
+         * Sets the max value of the animation for the given view property.
+         *
+         * @see DynamicAnimation#setMaxValue(float)
+         *
+         * @param property to apply the value to
+         * @param max maximum value of the property to be animated
+         * @return this builder
+         */
+        public Builder setMaxValue(@NonNull DynamicAnimation.ViewProperty property, float max) {
+            return setMaxValue(ViewProperties.adapterOf(property), max);
+        }
+
+        /**
+         * Same as {@link #setMaxValue(DynamicAnimation.ViewProperty, float)}, for a custom property.
+         *
+         * @param property to apply the value to
+         * @param max maximum value of the property to be animated
+         * @return this builder
+         */
+        public Builder setMaxValue(@NonNull FloatProperty<? super View> property, float max) {
+            maxValuesMap.put(property, max);
+            template = null;
+
+            return this;
+        }
+
+        /**
+         * Sets the min value of the animation for the given view property.
+         *
+         * @see DynamicAnimation#setMinValue(float)
+         *
+         * @param property to apply the value to
+         * @param min minimum value of the property to be animated
+         * @return this builder
+         */
+        public Builder setMinValue(@NonNull DynamicAnimation.ViewProperty property, float min) {
+            return setMinValue(ViewProperties.adapterOf(property), min);
+        }
+
+        /**
+         * Same as {@link #setMinValue(DynamicAnimation.ViewProperty, float)}, for a custom property.
+         *
+         * @param property to apply the value to
+         * @param min minimum value of the property to be animated
+         * @return this builder
+         */
+        public Builder setMinValue(@NonNull FloatProperty<? super View> property, float min) {
+            minValuesMap.put(property, min);
+            template = null;
+
+            return this;
+        }
+
+        /**
+         * Sets the start value of the animation for the given view property.
+         *
+         * @see DynamicAnimation#setStartValue(float)
+         *
+         * @param property to apply the value to
+         * @param startValue start value for the animation
+         * @return this builder
+         */
+        public Builder setStartValue(@NonNull DynamicAnimation.ViewProperty property, float startValue) {
+            return setStartValue(ViewProperties.adapterOf(property), startValue);
+        }
+
+        /**
+         * Same as {@link #setStartValue(DynamicAnimation.ViewProperty, float)}, for a custom property.
+         *
+         * @param property to apply the value to
+         * @param startValue start value for the animation
+         * @return this builder
+         */
+        public Builder setStartValue(@NonNull FloatProperty<? super View> property, float startValue) {
+            startValuesMap.put(property, startValue);
+            template = null;
+
+            return this;
+        }
+
+        /**
+         * Sets the start velocity of the animation for the given view property.
+         *
+         * @see DynamicAnimation#setStartVelocity(float)
+         *
+         * @param property to apply the value to
+         * @param startVelocity start velocity of the animation in pixel/second
+         * @return this builder
+         */
+        public Builder setStartVelocity(@NonNull DynamicAnimation.ViewProperty property, float startVelocity) {
+            return setStartVelocity(ViewProperties.adapterOf(property), startVelocity);
+        }
+
+        /**
+         * Same as {@link #setStartVelocity(DynamicAnimation.ViewProperty, float)}, for a custom property.
+         *
+         * @param property to apply the value to
+         * @param startVelocity start velocity of the animation in pixel/second
+         * @return this builder
+         */
+        public Builder setStartVelocity(@NonNull FloatProperty<? super View> property, float startVelocity) {
+            startVelocitiesMap.put(property, startVelocity);
+            template = null;
+
+            return this;
+        }
+
+        /**
+         * Sets the smallest change in value of the given view property that is visible on screen. The
+         * spring comes to rest once it is closer to its final position than a fraction of this
+         * change. Raising it for long translations stops the trailing frames of sub-pixel motion.
+         *
+         * @see DynamicAnimation#setMinimumVisibleChange(float)
+         *
+         * @param property to apply the value to
+         * @param minimumVisibleChange smallest visible change in the unit of the property, must be positive
+         * @return this builder
+         * @throws IllegalArgumentException if the change isn't positive
+         */
+        public Builder setMinimumVisibleChange(@NonNull DynamicAnimation.ViewProperty property, @FloatRange(from = 0.0, fromInclusive = false) float minimumVisibleChange) {
+            return setMinimumVisibleChange(ViewProperties.adapterOf(property), minimumVisibleChange);
+        }
+
+        /**
+         * Same as {@link #setMinimumVisibleChange(DynamicAnimation.ViewProperty, float)}, for a custom property.
+         *
+         * @param property to apply the value to
+         * @param minimumVisibleChange smallest visible change in the unit of the property, must be positive
+         * @return this builder
+         * @throws IllegalArgumentException if the change isn't positive
+         */
+        public Builder setMinimumVisibleChange(@NonNull FloatProperty<? super View> property, @FloatRange(from = 0.0, fromInclusive = false) float minimumVisibleChange) {
+            if (minimumVisibleChange <= 0f) {
+                throw new IllegalArgumentException("Minimum visible change must be positive");
+            }
+            minimumVisibleChangesMap.put(property, minimumVisibleChange);
+            template = null;
+
+            return this;
+        }
+
+        /**
+         * Animates two properties as the axes of one two-dimensional spring, such as
+         * {@link DynamicAnimation#TRANSLATION_X} and {@link DynamicAnimation#TRANSLATION_Y} of a
+         * dragged view. Both axes use the stiffness and damping ratio of the first property, share one
+         * solver evaluation per frame and start, retarget, cancel and come to rest together. A view
+         * released at rest moves on a straight line towards its final position, and one released with
+         * a velocity curves into it like a single spring would, instead of one axis arriving before
+         * the other. Each axis keeps its own final position, and the minimum
+         * visible change of the second property applies to the length of the vector. Groups with
+         * coupled properties are always stepped on the main thread. Requires {@link #ENGINE_ANALYTIC}.
+         *
+         * @param first the first axis, whose spring both axes use
+         * @param second the second axis
+         * @return this builder
+         * @throws IllegalArgumentException if both are the same property, or either is already coupled
+         *                                  or locked
+         */
+        public Builder setCoupled(@NonNull DynamicAnimation.ViewProperty first, @NonNull DynamicAnimation.ViewProperty second) {
+            return setCoupled(ViewProperties.adapterOf(first), ViewProperties.adapterOf(second));
+        }
+
+        /**
+         * Same as {@link #setCoupled(DynamicAnimation.ViewProperty, DynamicAnimation.ViewProperty)}, for
+         * custom properties.
+         *
+         * @param first the first axis, whose spring both axes use
+         * @param second the second axis
+         * @return this builder
+         * @throws IllegalArgumentException if both are the same property, or either is already coupled
+         *                                  or locked
+         */
+        public Builder setCoupled(@NonNull FloatProperty<? super View> first, @NonNull FloatProperty<? super View> second) {
+            checkUnpaired(first, second);
+            initIfNew(first);
+            initIfNew(second);
+            coupledPropertiesMap.put(first, second);
+            template = null;
+
+            return this;
+        }
+
+        /**
+         * Drives a second property from the spring of the first one, such as
+         * {@link DynamicAnimation#SCALE_Y} from {@link DynamicAnimation#SCALE_X} for a uniform scale.
+         * The follower is written with every value of the spring and costs nothing else per frame. It
+         * isn't animated by the group on its own: it has no spring, listeners or final position of its
+         * own, and takes the value of the spring on the first frame. Requires {@link #ENGINE_ANALYTIC}.
+         *
+         * @param property the property whose spring drives both
+         * @param follower the property that follows it
+         * @return this builder
+         * @throws IllegalArgumentException if both are the same property, or either is already coupled
+         *                                  or locked
+         */
+        public Builder setLocked(@NonNull DynamicAnimation.ViewProperty property, @NonNull DynamicAnimation.ViewProperty follower) {
+            return setLocked(ViewProperties.adapterOf(property), ViewProperties.adapterOf(follower));
+        }
+
+        /**
+         * Same as {@link #setLocked(DynamicAnimation.ViewProperty, DynamicAnimation.ViewProperty)}, for
+         * custom properties.
+         *
+         * @param property the property whose spring drives both
+         * @param follower the property that follows it
+         * @return this builder
+         * @throws IllegalArgumentException if both are the same property, or either is already coupled
+         *                                  or locked
+         */
+        public Builder setLocked(@NonNull FloatProperty<? super View> property, @NonNull FloatProperty<? super View> follower) {
+            checkUnpaired(property, follower);
+            initIfNew(property);
+            lockedPropertiesMap.put(property, follower);
+            template = null;
+
+            return this;
+        }
 
         /**
-         * Holds the start value for the {@link DynamicAnimation.ViewProperty}
+         * Makes the given {@link DynamicAnimation.ViewProperty} fling before it springs: whenever it
+         * starts, or is given a velocity while running, it first decelerates under the given friction
+         * like a FlingAnimation, and then hands off to its spring within the same animation and
+         * without a frame in between. The final position of the spring is picked when the fling
+         * starts, as the snap point closest to where the fling would stop, or that position itself
+         * without snap points. The hand-off happens in the frame in which the fling passes the final
+         * position, or in which the spring would brake at least as hard as the friction, so that the
+         * spring only settles the motion. A fling that wouldn't reach the final position is handed
+         * off right away and pulled there by the spring. Properties that
+         * start without a velocity, or that are retargeted with
+         * {@link SpringAnimationGroup#animateToFinalPosition(DynamicAnimation.ViewProperty, float)},
+         * only spring. Requires {@link #ENGINE_ANALYTIC}.
+         *
+         * @see #setSnapPoints(DynamicAnimation.ViewProperty, float...)
+         * @see SpringAnimationGroup#setGestureVelocity(float, float)
+         *
+         * @param property to apply the value to
+         * @param friction friction as in FlingAnimation, where {@code 1} is the default of the support
+         *                 library, must be positive
+         * @return this builder
+         * @throws IllegalArgumentException if the friction isn't positive
          */
-        private final Map<DynamicAnimation.ViewProperty, Float> startValuesMap = new HashMap<>();
+        public Builder setFriction(@NonNull DynamicAnimation.ViewProperty property, @FloatRange(from = 0.0, fromInclusive = false) float friction) {
+            return setFriction(ViewProperties.adapterOf(property), friction);
+        }
 
         /**
-         * Holds the velocities value for the {@link DynamicAnimation.ViewProperty}
+         * Same as {@link #setFriction(DynamicAnimation.ViewProperty, float)}, for a custom property.
+         *
+         * @param property to apply the value to
+         * @param friction friction as in FlingAnimation, must be positive
+         * @return this builder
+         * @throws IllegalArgumentException if the friction isn't positive
          */
-        private final Map<DynamicAnimation.ViewProperty, Float> startVelocitiesMap = new HashMap<>();
+        public Builder setFriction(@NonNull FloatProperty<? super View> property, @FloatRange(from = 0.0, fromInclusive = false) float friction) {
+            if (friction <= 0f) {
+                throw new IllegalArgumentException("Friction must be positive");
+            }
+            initIfNew(property);
+            frictionsMap.put(property, friction);
+            template = null;
+
+            return this;
+        }
 
         /**
-         * The view to pass to animate.
+         * Sets the positions the given {@link DynamicAnimation.ViewProperty} may come to rest at after
+         * a fling, such as the pages of a carousel or the collapsed and expanded offsets of a bottom
+         * sheet. Snap points outside of the min and max value are clamped. Only used with
+         * {@link #setFriction(DynamicAnimation.ViewProperty, float)}.
+         *
+         * @param property to apply the value to
+         * @param snapPoints the positions, in any order
+         * @return this builder
          */
-        private final View view;
+        public Builder setSnapPoints(@NonNull DynamicAnimation.ViewProperty property, @NonNull float... snapPoints) {
+            return setSnapPoints(ViewProperties.adapterOf(property), snapPoints);
+        }
 
         /**
-         * The damping ratio to be applied to {@link SpringForce}. This value is only applied to
-         * properties where the value wasn't explicitly given using {@link #setSpring(DynamicAnimation.ViewProperty, SpringForce)}
-         * or {@link #setDampingRatio(DynamicAnimation.ViewProperty, float)}.
+         * Same as {@link #setSnapPoints(DynamicAnimation.ViewProperty, float...)}, for a custom property.
+         *
+         * @param property to apply the value to
+         * @param snapPoints the positions, in any order
+         * @return this builder
          */
-        private float dampingRatio = SpringForce.DAMPING_RATIO_MEDIUM_BOUNCY;
+        public Builder setSnapPoints(@NonNull FloatProperty<? super View> property, @NonNull float... snapPoints) {
+            float[] sorted = snapPoints.clone();
+            Arrays.sort(sorted);
+            snapPointsMap.put(property, sorted);
+            template = null;
+
+            return this;
+        }
 
         /**
-         * The stiffness to be applied to {@link SpringForce}. This value is only applied to
-         * properties where the value wasn't explicitly given using {@link #setSpring(DynamicAnimation.ViewProperty, SpringForce)}
-         * or {@link #setStiffness(DynamicAnimation.ViewProperty, float)}.
+         * Makes the built group settle as a whole: once every pixel property is within the given
+         * distance of its final position and slower than the given speed, and every other property is
+         * within its own threshold, all properties snap to their final positions in the same frame.
+         * Distances are in density independent pixels and converted with the density of the first
+         * view, so the group stops at the same visual precision on every display.
+         *
+         * @param distanceDp distance from the final position in dp, must be positive
+         * @param velocityDp speed in dp per second, must be positive
+         * @return this builder
+         * @throws IllegalArgumentException if either threshold isn't positive
          */
-        private float stiffness = SpringForce.STIFFNESS_MEDIUM;
+        public Builder setSettleThreshold(@FloatRange(from = 0.0, fromInclusive = false) float distanceDp, @FloatRange(from = 0.0, fromInclusive = false) float velocityDp) {
+            if (distanceDp <= 0f || velocityDp <= 0f) {
+                throw new IllegalArgumentException("Settle thresholds must be positive");
+            }
+            this.settleDistanceDp = distanceDp;
+            this.settleVelocityDp = velocityDp;
+            template = null;
 
-        private Builder(View view) {
-            this.view = view;
+            return this;
         }
 
         /**
-         * Sets the {@link SpringForce} for the given {@link DynamicAnimation.ViewProperty}.
+         * Sets the scheduler the built group is stepped by. By default groups run on the display's
+         * vsync; a {@link ManualFrameScheduler} steps them on a virtual clock or from a custom render
+         * loop. Groups and chains that share a scheduler are stepped in the same pass. Only used by
+         * {@link #ENGINE_ANALYTIC}; the support library steps its animations itself.
          *
-         * @param property to apply the spring force to
-         * @param springForce to use on the view
+         * @param scheduler the scheduler, or {@code null} for the display's vsync
          * @return this builder
          */
-        public Builder setSpring(@NonNull DynamicAnimation.ViewProperty property, @NonNull SpringForce springForce) {
-            propertiesMap.put(property, springForce);
+        public Builder setFrameScheduler(@Nullable FrameScheduler scheduler) {
+            this.frameScheduler = scheduler;
+            template = null;
 
             return this;
         }
 
         /**
-         * Sets the rest position of the spring for the given {@link DynamicAnimation.ViewProperty}.
+         * Sets whether the built group evaluates its springs on a shared worker thread, one frame
+         * ahead of the main thread, so that the main thread only writes the computed values to the
+         * views. Worth it for groups with hundreds of springs. Retargeting, canceling and ending
+         * properties stay on the main thread; a frame computed before such a change is discarded and
+         * the group is stepped on the main thread instead. The worker doesn't support
+         * {@link #setTrajectoryCache(TrajectoryCache) trajectory caches},
+         * {@link #setCoupled(DynamicAnimation.ViewProperty, DynamicAnimation.ViewProperty) coupled
+         * properties} or {@link #setFriction(DynamicAnimation.ViewProperty, float) friction}, which
+         * make the builder throw. Only used by {@link #ENGINE_ANALYTIC}.
          *
-         * @param property to apply the spring force to
-         * @param finalPosition rest position of the spring
+         * @param enabled whether to step on the worker thread
          * @return this builder
          */
-        public Builder setFinalPosition(@NonNull DynamicAnimation.ViewProperty property, float finalPosition) {
-            SpringForce springForce = initIfNew(property);
-            springForce.setFinalPosition(finalPosition);
+        public Builder setBackgroundStepping(boolean enabled) {
+            this.backgroundStepping = enabled;
+            template = null;
 
             return this;
         }
 
         /**
-         * Sets the default damping ratio to apply to any previous and future registered view properties.
-         * This value can be overridden for the specific view property using the method
-         * {@link #setDampingRatio(DynamicAnimation.ViewProperty, float)}
-         *
-         * @see SpringForce#setDampingRatio(float)
+         * Caps the rate at which the built group writes its views, for example to run decorative
+         * springs at a steady 30 fps on low-end devices. The springs are still evaluated at the real
+         * frame time, so a capped group passes through the same values at the same moments and ends
+         * at the same time as an uncapped one. Only used by {@link #ENGINE_ANALYTIC}.
          *
-         * @param dampingRatio damping ratio of the spring, it should be non-negative
+         * @param framesPerSecond the highest frame rate, must be positive
          * @return this builder
+         * @throws IllegalArgumentException if the frame rate isn't positive
          */
-        public Builder setDampingRatio(@FloatRange(from = 0.0) float dampingRatio) {
-            this.dampingRatio = dampingRatio;
-
-            for (SpringForce force : propertiesMap.values()) {
-                force.setDampingRatio(dampingRatio);
+        public Builder setMaxFrameRate(@FloatRange(from = 0.0, fromInclusive = false) float framesPerSecond) {
+            if (framesPerSecond <= 0f) {
+                throw new IllegalArgumentException("Frame rate must be positive");
             }
+            this.maxFrameRate = framesPerSecond;
+            template = null;
 
             return this;
         }
 
         /**
-         * Sets damping ratio for the given view property.
+         * Caps the rate at which the built group writes its views while the device is in power save
+         * mode. Power save mode is checked every time the group starts running. Only used by
+         * {@link #ENGINE_ANALYTIC}.
          *
-         * @see SpringForce#setDampingRatio(float)
+         * @see #setMaxFrameRate(float)
          *
-         * @param property to apply the value to
-         * @param dampingRatio damping ratio of the spring, it should be non-negative
+         * @param framesPerSecond the highest frame rate in power save mode, must be positive
          * @return this builder
+         * @throws IllegalArgumentException if the frame rate isn't positive
          */
-        public Builder setDampingRatio(@NonNull DynamicAnimation.ViewProperty property, @FloatRange(from = 0.0) float dampingRatio) {
-            SpringForce springForce = initIfNew(property);
-            springForce.setDampingRatio(dampingRatio);
+        public Builder setPowerSaveFrameRate(@FloatRange(from = 0.0, fromInclusive = false) float framesPerSecond) {
+            if (framesPerSecond <= 0f) {
+                throw new IllegalArgumentException("Frame rate must be positive");
+            }
+            this.powerSaveFrameRate = framesPerSecond;
+            template = null;
 
             return this;
         }
 
         /**
-         * Sets the default stiffness to apply to any previous and future registered view properties.
-         * This value can be overridden for the specific view property using the method
-         * {@link #setStiffness(DynamicAnimation.ViewProperty, float)}
-         *
-         * @see SpringForce#setStiffness(float)
+         * Sets the engine that drives the built group. {@link #ENGINE_SUPPORT} runs every property
+         * on its own support library {@link SpringAnimation}. {@link #ENGINE_ANALYTIC} evaluates
+         * every property in closed form with a {@link SpringSolver}, which makes the result exact
+         * at any frame time.
          *
-         * @param stiffness non-negative stiffness constant of a spring
+         * @param engine either {@link #ENGINE_SUPPORT} or {@link #ENGINE_ANALYTIC}
          * @return this builder
+         * @throws IllegalArgumentException if the engine is unknown
          */
-        public Builder setStiffness(float stiffness) {
-            this.stiffness = stiffness;
-
-            for (SpringForce force : propertiesMap.values()) {
-                force.setStiffness(stiffness);
+        public Builder setEngine(int engine) {
+            if (engine != ENGINE_SUPPORT && engine != ENGINE_ANALYTIC) {
+                throw new IllegalArgumentException("Unknown engine: " + engine);
             }
+            this.engine = engine;
+            template = null;
 
             return this;
         }
 
         /**
-         * Sets stiffness for the given view property.
-         *
-         * @see SpringForce#setStiffness(float)
+         * Sets a sink that receives the frame timing of the built group: frames stepped, the interval
+         * between frames, dropped and late frames, time spent in listener callbacks and the time it
+         * took to settle. Timing is measured against a 60 Hz display. Step times and vsync frame
+         * times are only available on {@link #ENGINE_ANALYTIC}, see {@link GroupMetrics}.
          *
-         * @param property to apply the value to
-         * @param stiffness non-negative stiffness constant of a spring
+         * @param sink the sink, or {@code null} to disable metrics
          * @return this builder
          */
-        public Builder setStiffness(@NonNull DynamicAnimation.ViewProperty property, float stiffness) {
-            SpringForce springForce = initIfNew(property);
-            springForce.setStiffness(stiffness);
-
-            return this;
+        public Builder setMetricsSink(@Nullable GroupMetrics.MetricsSink sink) {
+            return setMetricsSink(sink, DEFAULT_REFRESH_RATE);
         }
 
         /**
-         * Sets the max value of the animation for the given view property.
+         * Sets a sink that receives the frame timing of the built group, measured against a display
+         * with the given refresh rate.
          *
-         * @see DynamicAnimation#setMaxValue(float)
+         * @see #setMetricsSink(GroupMetrics.MetricsSink)
          *
-         * @param property to apply the value to
-         * @param max maximum value of the property to be animated
+         * @param sink the sink, or {@code null} to disable metrics
+         * @param refreshRate refresh rate of the display in frames per second
          * @return this builder
          */
-        public Builder setMaxValue(@NonNull DynamicAnimation.ViewProperty property, float max) {
-            maxValuesMap.put(property, max);
+        public Builder setMetricsSink(@Nullable GroupMetrics.MetricsSink sink, @FloatRange(from = 0.0, fromInclusive = false) float refreshRate) {
+            if (refreshRate <= 0f) {
+                throw new IllegalArgumentException("Refresh rate must be positive");
+            }
+            this.metricsSink = sink;
+            this.refreshRate = refreshRate;
+            template = null;
 
             return this;
         }
 
         /**
-         * Sets the min value of the animation for the given view property.
+         * Sets a cache of baked trajectories for the built group. Whenever a property starts or is
+         * retargeted, its trajectory is looked up by stiffness, damping ratio and relative start
+         * velocity, and baked on a miss; each frame then costs a table lookup. Share one cache between
+         * groups that run the same springs. Only used by {@link #ENGINE_ANALYTIC}.
          *
-         * @see DynamicAnimation#setMinValue(float)
-         *
-         * @param property to apply the value to
-         * @param min minimum value of the property to be animated
+         * @param cache the cache, or {@code null} to evaluate springs directly
          * @return this builder
          */
-        public Builder setMinValue(@NonNull DynamicAnimation.ViewProperty property, float min) {
-            minValuesMap.put(property, min);
+        public Builder setTrajectoryCache(@Nullable TrajectoryCache cache) {
+            this.trajectoryCache = cache;
+            template = null;
 
             return this;
         }
 
         /**
-         * Sets the start value of the animation for the given view property.
-         *
-         * @see DynamicAnimation#setStartValue(float)
+         * Sets whether the built group puts its views on a hardware layer while it runs. The layer
+         * type of every view is switched to {@link View#LAYER_TYPE_HARDWARE} when the first property
+         * starts and restored when the last property ends, so the view is rendered once and only
+         * composited on every frame. The setting is ignored if any of the animated properties changes
+         * the content of the view, such as {@link DynamicAnimation#SCROLL_X}.
          *
-         * @param property to apply the value to
-         * @param startValue start value for the animation
+         * @param enabled whether to manage hardware layers
          * @return this builder
          */
-        public Builder setStartValue(@NonNull DynamicAnimation.ViewProperty property, float startValue) {
-            startValuesMap.put(property, startValue);
+        public Builder setHardwareLayerEnabled(boolean enabled) {
+            this.hardwareLayerEnabled = enabled;
+            template = null;
 
             return this;
         }
 
         /**
-         * Sets the start velocity of the animation for the given view property.
-         *
-         * @see DynamicAnimation#setStartVelocity(float)
+         * Sets what the built group does while none of its views can be seen: while they are
+         * detached, while they or their window aren't visible, for example because the activity was
+         * stopped, or while they are scrolled out of their parents. By default the group keeps
+         * running. With {@link #VISIBILITY_PAUSE} it continues where it left off once a view can be
+         * seen again, and leaves its frame scheduler while paused, so that a detached view isn't kept
+         * alive by a running group. A group that starts while none of its views is attached can't
+         * be seen from its first frame. The group only listens to its views while it runs. Cancel a
+         * paused group whose views won't be seen again, for example because they were recycled, to
+         * remove its listeners right away.
          *
-         * @param property to apply the value to
-         * @param startVelocity start velocity of the animation in pixel/second
+         * @param policy one of {@link #VISIBILITY_IGNORE}, {@link #VISIBILITY_PAUSE} or
+         *               {@link #VISIBILITY_SKIP_TO_END}
          * @return this builder
+         * @throws IllegalArgumentException if the policy is unknown
          */
-        public Builder setStartVelocity(@NonNull DynamicAnimation.ViewProperty property, float startVelocity) {
-            startVelocitiesMap.put(property, startVelocity);
+        public Builder setVisibilityPolicy(int policy) {
+            if (policy != VISIBILITY_IGNORE && policy != VISIBILITY_PAUSE && policy != VISIBILITY_SKIP_TO_END) {
+                throw new IllegalArgumentException("Unknown visibility policy: " + policy);
+            }
+            this.visibilityPolicy = policy;
+            template = null;
 
             return this;
         }
 
-        private SpringForce initIfNew(@NonNull DynamicAnimation.ViewProperty property) {
+        private void checkUnpaired(@NonNull FloatProperty<? super View> first, @NonNull FloatProperty<? super View> second) {
+            if (first == second) {
+                throw new IllegalArgumentException("A property can't be paired with itself");
+            }
+            if (isPaired(first) || isPaired(second)) {
+                throw new IllegalArgumentException("A property can only be coupled or locked once");
+            }
+        }
+
+        private boolean isPaired(@NonNull FloatProperty<? super View> property) {
+            return coupledPropertiesMap.containsKey(property) || coupledPropertiesMap.containsValue(property)
+                    || lockedPropertiesMap.containsKey(property) || lockedPropertiesMap.containsValue(property);
+        }
+
+        private SpringForce initIfNew(@NonNull FloatProperty<? super View> property) {
             SpringForce springForce = propertiesMap.get(property);
             if (springForce == null) {
                 springForce = new SpringForce();
@@ -560,25 +2355,452 @@ public class SpringAnimationGroup {
         }
 
         /**
-         * Builds a {@link SpringAnimationGroup} the properties set through this builder.
+         * Builds a {@link SpringAnimationGroup} the properties set through this builder. The properties
+         * are compiled once and reused by every later call until the builder is changed.
+         *
+         * @see #buildTemplate()
          *
          * @return the SpringAnimationGroup
+         * @throws IllegalStateException if a custom {@link FloatProperty}, {@link #VISIBILITY_PAUSE},
+         *         coupled or locked properties or friction are used on {@link #ENGINE_SUPPORT}
+         * @throws UnsupportedOperationException if background stepping is combined with a trajectory
+         *         cache, coupled properties or friction on {@link #ENGINE_ANALYTIC}
          */
         public SpringAnimationGroup build() {
-            Map<DynamicAnimation.ViewProperty, SpringAnimation> map = new HashMap<>();
-            for (Map.Entry<DynamicAnimation.ViewProperty, SpringForce> entry : propertiesMap.entrySet()) {
-                SpringAnimation animation = new SpringAnimation(view, entry.getKey(), entry.getValue().getFinalPosition());
-                animation.setSpring(entry.getValue());
-                map.put(entry.getKey(), animation);
+            if (template == null) {
+                template = buildTemplate();
+            }
+
+            // Every view animates with copies of the springs of this builder, read again here in case
+            // one that was handed to setSpring changed since the template was compiled.
+            SpringForce[] springs = new SpringForce[template.properties.length];
+            for (int i = 0; i < springs.length; i++) {
+                springs[i] = propertiesMap.get(template.properties[i]);
+            }
+            return template.create(views, springs);
+        }
 
-                if (maxValuesMap.containsKey(entry.getKey())) animation.setMaxValue(maxValuesMap.get(entry.getKey()));
-                if (minValuesMap.containsKey(entry.getKey())) animation.setMinValue(minValuesMap.get(entry.getKey()));
-                if (startValuesMap.containsKey(entry.getKey())) animation.setStartValue(startValuesMap.get(entry.getKey()));
-                if (startVelocitiesMap.containsKey(entry.getKey())) animation.setStartVelocity(startVelocitiesMap.get(entry.getKey()));
+        /**
+         * Compiles the properties set through this builder into an immutable {@link Template}, from
+         * which any number of identical groups can be created without going through a builder again.
+         * The views of this builder are ignored.
+         *
+         * @return the template
+         * @throws IllegalStateException if a custom {@link FloatProperty}, {@link #VISIBILITY_PAUSE},
+         *         coupled or locked properties or friction are used on {@link #ENGINE_SUPPORT}
+         * @throws UnsupportedOperationException if background stepping is combined with a trajectory
+         *         cache, coupled properties or friction on {@link #ENGINE_ANALYTIC}
+         */
+        public Template buildTemplate() {
+            if (engine == ENGINE_SUPPORT) {
+                for (FloatProperty<? super View> property : propertiesMap.keySet()) {
+                    if (!(property instanceof ViewProperties.Adapter)) {
+                        throw new IllegalStateException("Custom property " + property + " requires ENGINE_ANALYTIC");
+                    }
+                }
+                if (visibilityPolicy == VISIBILITY_PAUSE) {
+                    throw new IllegalStateException("VISIBILITY_PAUSE requires ENGINE_ANALYTIC");
+                }
+                if (!coupledPropertiesMap.isEmpty() || !lockedPropertiesMap.isEmpty()) {
+                    throw new IllegalStateException("Coupled and locked properties require ENGINE_ANALYTIC");
+                }
+                if (!frictionsMap.isEmpty()) {
+                    throw new IllegalStateException("Friction requires ENGINE_ANALYTIC");
+                }
+            } else if (backgroundStepping) {
+                if (trajectoryCache != null) {
+                    throw new UnsupportedOperationException("Background stepping doesn't use trajectory caches");
+                }
+                if (!coupledPropertiesMap.isEmpty()) {
+                    throw new UnsupportedOperationException("Background stepping doesn't support coupled properties");
+                }
+                if (!frictionsMap.isEmpty()) {
+                    throw new UnsupportedOperationException("Background stepping doesn't support friction");
+                }
+            }
+            return new Template(this);
+        }
+
+        /**
+         * Applies the properties set through this builder to a group that was already built, instead
+         * of building a new one. Nothing is allocated, so a group can be reused for every interaction.
+         * Only properties that the group already animates are updated; properties the group
+         * doesn't have are ignored.
+         *
+         * <p>If {@code preserveMotion} is {@code true}, running properties keep their current value
+         * and velocity and are retargeted to the new final position, so an interrupted animation
+         * continues smoothly. Otherwise running properties are canceled and the start values and
+         * velocities of this builder are applied. Properties that aren't running are left for the
+         * next call to {@link SpringAnimationGroup#start()}.</p>
+         *
+         * @param group the group to update
+         * @param preserveMotion whether running properties keep their current value and velocity
+         * @return the updated group
+         * @throws AndroidRuntimeException if this method is not called on the main thread
+         */
+        public SpringAnimationGroup applyTo(@NonNull SpringAnimationGroup group, boolean preserveMotion) {
+            for (int i = 0; i < group.animators.length; i++) {
+                PropertyAnimator animator = group.animators[i];
+                FloatProperty<? super View> property = animator.property;
+                SpringForce source = propertiesMap.get(property);
+                if (source == null) {
+                    continue;
+                }
+
+                SpringForce target = animator.getSpring();
+                AnalyticPropertyAnimator analytic = group.analyticAnimators != null ? group.analyticAnimators[i] : null;
+                // The second axis of a coupled pair is given the spring of its first axis instead.
+                if (analytic == null || !analytic.isSecondAxis()) {
+                    if (target != source) {
+                        target.setDampingRatio(source.getDampingRatio());
+                        target.setStiffness(source.getStiffness());
+                    }
+                    if (analytic != null) {
+                        analytic.alignPartner();
+                    }
+                }
+
+                if (minimumVisibleChangesMap.containsKey(property)) animator.setMinimumVisibleChange(minimumVisibleChangesMap.get(property));
+                animator.setMaxValue(maxValuesMap.containsKey(property) ? maxValuesMap.get(property) : Float.MAX_VALUE);
+                animator.setMinValue(minValuesMap.containsKey(property) ? minValuesMap.get(property) : -Float.MAX_VALUE);
+
+                if (preserveMotion && animator.isRunning()) {
+                    animator.animateToFinalPosition(source.getFinalPosition());
+                    continue;
+                }
+
+                if (animator.isRunning()) {
+                    animator.cancel();
+                }
+                target.setFinalPosition(source.getFinalPosition());
+                if (startValuesMap.containsKey(property)) animator.setStartValue(startValuesMap.get(property));
+                if (startVelocitiesMap.containsKey(property)) animator.setStartVelocity(startVelocitiesMap.get(property));
+            }
+            return group;
+        }
+
+    }
+
+    /**
+     * Immutable group configuration compiled from a {@link Builder}, for screens that build the same
+     * group for many views, such as every item of a list. All the builder's maps are flattened into
+     * primitive arrays once, so creating a group only allocates the group, its animators and their
+     * springs.
+     *
+     * <pre>
+     * static final SpringAnimationGroup.Template ITEM_ENTER = SpringAnimationGroup
+     *     .template()
+     *     .setEngine(SpringAnimationGroup.ENGINE_ANALYTIC)
+     *     .setStartValue(DynamicAnimation.TRANSLATION_Y, 200f)
+     *     .setFinalPosition(DynamicAnimation.TRANSLATION_Y, 0f)
+     *     .buildTemplate();
+     *
+     * ITEM_ENTER.create(holder.itemView).start();
+     * </pre>
+     *
+     * <p>A template never changes after it is compiled, so it may be shared between threads. The
+     * groups it creates, and any {@link TrajectoryCache} or {@link FrameScheduler} it hands to them,
+     * must still only be used from the main thread.</p>
+     */
+    public static final class Template {
+
+        private final int engine;
+
+        /**
+         * The animated properties, in the order every created group lays out its animators.
+         */
+        private final FloatProperty<? super View>[] properties;
+
+        private final float[] finalPositions;
+
+        private final float[] stiffnesses;
+
+        private final float[] dampingRatios;
+
+        // Optional values, NaN where the builder didn't set one.
+
+        private final float[] maxValues;
+
+        private final float[] minValues;
+
+        private final float[] startValues;
+
+        private final float[] startVelocities;
+
+        private final float[] minimumVisibleChanges;
+
+        /**
+         * Whether each property is the first axis of a two-dimensional spring whose second axis comes
+         * right after it.
+         */
+        private final boolean[] coupledWithNext;
+
+        /**
+         * The property that follows each property, or {@code null}.
+         */
+        private final FloatProperty<? super View>[] lockedProperties;
+
+        /**
+         * Friction of each property, NaN where it doesn't fling.
+         */
+        private final float[] frictions;
+
+        /**
+         * Sorted snap points of each property, or {@code null}. Shared by every created group, which
+         * only reads them.
+         */
+        private final float[][] snapPoints;
+
+        @Nullable
+        private final GroupMetrics.MetricsSink metricsSink;
+
+        private final float refreshRate;
+
+        @Nullable
+        private final TrajectoryCache trajectoryCache;
+
+        private final boolean hardwareLayerEnabled;
+
+        /**
+         * Distance and speed below which each property counts as settled when a created group
+         * settles as a whole, or {@code null} if every property settles on its own. Shared by every
+         * created group unless {@link #settleThresholdsInDp} is set.
+         */
+        @Nullable
+        private final float[] settleValueThresholds;
+
+        @Nullable
+        private final float[] settleVelocityThresholds;
+
+        /**
+         * Whether the settle thresholds of each property are in density independent pixels and
+         * converted with the density of every created group's views, or {@code null} if no property
+         * is in pixels.
+         */
+        @Nullable
+        private final boolean[] settleThresholdsInDp;
+
+        @Nullable
+        private final FrameScheduler frameScheduler;
+
+        private final boolean backgroundStepping;
+
+        private final float maxFrameRate;
+
+        private final float powerSaveFrameRate;
+
+        private final int visibilityPolicy;
+
+        private Template(@NonNull Builder builder) {
+            // Followers aren't animated themselves, and second axes are stepped right after their first.
+            ArrayList<FloatProperty<? super View>> ordered = new ArrayList<>(builder.propertiesMap.size());
+            for (FloatProperty<? super View> property : builder.propertiesMap.keySet()) {
+                if (builder.lockedPropertiesMap.containsValue(property) || builder.coupledPropertiesMap.containsValue(property)) {
+                    continue;
+                }
+                ordered.add(property);
+                FloatProperty<? super View> second = builder.coupledPropertiesMap.get(property);
+                if (second != null) {
+                    ordered.add(second);
+                }
+            }
+
+            int count = ordered.size();
+            properties = ordered.toArray(newPropertyArray(count));
+            finalPositions = new float[count];
+            stiffnesses = new float[count];
+            dampingRatios = new float[count];
+            maxValues = new float[count];
+            minValues = new float[count];
+            startValues = new float[count];
+            startVelocities = new float[count];
+            minimumVisibleChanges = new float[count];
+            coupledWithNext = new boolean[count];
+            lockedProperties = newPropertyArray(count);
+            frictions = new float[count];
+            snapPoints = new float[count][];
+
+            for (int index = 0; index < count; index++) {
+                FloatProperty<? super View> property = properties[index];
+                SpringForce springForce = builder.propertiesMap.get(property);
+                finalPositions[index] = springForce.getFinalPosition();
+                stiffnesses[index] = springForce.getStiffness();
+                dampingRatios[index] = springForce.getDampingRatio();
+                maxValues[index] = valueOf(builder.maxValuesMap, property);
+                minValues[index] = valueOf(builder.minValuesMap, property);
+                startValues[index] = valueOf(builder.startValuesMap, property);
+                startVelocities[index] = valueOf(builder.startVelocitiesMap, property);
+                minimumVisibleChanges[index] = valueOf(builder.minimumVisibleChangesMap, property);
+                coupledWithNext[index] = builder.coupledPropertiesMap.containsKey(property);
+                lockedProperties[index] = builder.lockedPropertiesMap.get(property);
+                frictions[index] = valueOf(builder.frictionsMap, property);
+                snapPoints[index] = builder.snapPointsMap.get(property);
+            }
+
+            engine = builder.engine;
+            metricsSink = builder.metricsSink;
+            refreshRate = builder.refreshRate;
+            trajectoryCache = builder.trajectoryCache;
+            hardwareLayerEnabled = builder.hardwareLayerEnabled;
+            frameScheduler = builder.frameScheduler;
+            backgroundStepping = builder.backgroundStepping;
+            maxFrameRate = builder.maxFrameRate;
+            powerSaveFrameRate = builder.powerSaveFrameRate;
+            visibilityPolicy = builder.visibilityPolicy;
+
+            if (builder.settleDistanceDp > 0f) {
+                settleValueThresholds = new float[count];
+                settleVelocityThresholds = new float[count];
+                boolean[] inDp = null;
+                for (int index = 0; index < count; index++) {
+                    FloatProperty<? super View> property = properties[index];
+                    if (property instanceof ViewProperties.Adapter && ViewProperties.isPixelProperty(((ViewProperties.Adapter) property).index)) {
+                        if (inDp == null) {
+                            inDp = new boolean[count];
+                        }
+                        inDp[index] = true;
+                        settleValueThresholds[index] = builder.settleDistanceDp;
+                        settleVelocityThresholds[index] = builder.settleVelocityDp;
+                    } else {
+                        float change = Float.isNaN(minimumVisibleChanges[index]) ? property.getMinimumVisibleChange() : minimumVisibleChanges[index];
+                        settleValueThresholds[index] = change * AnalyticPropertyAnimator.THRESHOLD_MULTIPLIER;
+                        settleVelocityThresholds[index] = settleValueThresholds[index] * AnalyticPropertyAnimator.VELOCITY_THRESHOLD_MULTIPLIER;
+                    }
+                }
+                settleThresholdsInDp = inDp;
+            } else {
+                settleValueThresholds = null;
+                settleVelocityThresholds = null;
+                settleThresholdsInDp = null;
+            }
+        }
+
+        /**
+         * Creates a group that animates the properties of this template on the given view.
+         *
+         * @param view to animate.
+         * @return the newly created group.
+         */
+        public SpringAnimationGroup create(@NonNull View view) {
+            return create(new View[] { view }, null);
+        }
+
+        /**
+         * Creates a group that animates the properties of this template on every one of the given
+         * views.
+         *
+         * @param views to animate.
+         * @return the newly created group.
+         */
+        public SpringAnimationGroup create(@NonNull View... views) {
+            return create(views.clone(), null);
+        }
+
+        /**
+         * @return number of properties every created group animates per view
+         */
+        public int getPropertyCount() {
+            return properties.length;
+        }
+
+        /**
+         * @param springs springs every view animates with copies of, indexed like {@link #properties},
+         *                or {@code null} to use the springs of this template
+         */
+        private SpringAnimationGroup create(@NonNull View[] views, @Nullable SpringForce[] springs) {
+            PropertyAnimator[] animators = new PropertyAnimator[views.length * properties.length];
+            int index = 0;
+            for (int i = 0; i < views.length; i++) {
+                for (int j = 0; j < properties.length; j++) {
+                    // Every animator gets its own spring, since retargeting one view, aligning a coupled
+                    // axis or snapping a fling moves the final position of its spring.
+                    SpringForce springForce;
+                    if (springs == null) {
+                        springForce = newSpring(finalPositions[j], stiffnesses[j], dampingRatios[j]);
+                    } else {
+                        springForce = newSpring(springs[j].getFinalPosition(), springs[j].getStiffness(), springs[j].getDampingRatio());
+                    }
+
+                    PropertyAnimator animation;
+                    if (engine == ENGINE_ANALYTIC) {
+                        AnalyticPropertyAnimator analytic = new AnalyticPropertyAnimator(views[i], properties[j], springForce);
+                        analytic.setTrajectoryCache(trajectoryCache);
+                        analytic.setLockedProperty(lockedProperties[j]);
+                        if (!Float.isNaN(frictions[j])) {
+                            analytic.setDecay(frictions[j], snapPoints[j]);
+                        }
+                        if (j > 0 && coupledWithNext[j - 1]) {
+                            AnalyticPropertyAnimator.couple((AnalyticPropertyAnimator) animators[index - 1], analytic);
+                        }
+                        animation = analytic;
+                    } else {
+                        animation = new SupportPropertyAnimator(views[i], ((ViewProperties.Adapter) properties[j]).property, springForce);
+                    }
+                    animators[index++] = animation;
+
+                    if (!Float.isNaN(maxValues[j])) animation.setMaxValue(maxValues[j]);
+                    if (!Float.isNaN(minValues[j])) animation.setMinValue(minValues[j]);
+                    if (!Float.isNaN(startValues[j])) animation.setStartValue(startValues[j]);
+                    if (!Float.isNaN(startVelocities[j])) animation.setStartVelocity(startVelocities[j]);
+                    if (!Float.isNaN(minimumVisibleChanges[j])) animation.setMinimumVisibleChange(minimumVisibleChanges[j]);
+                }
+            }
+            SpringAnimationGroup group = new SpringAnimationGroup(animators);
+            if (metricsSink != null) {
+                group.setMetricsSink(metricsSink, refreshRate);
+            }
+            if (hardwareLayerEnabled) {
+                group.setHardwareLayerEnabled();
+            }
+            if (settleValueThresholds != null) {
+                if (settleThresholdsInDp == null) {
+                    group.setSettleThresholds(settleValueThresholds, settleVelocityThresholds);
+                } else {
+                    setSettleThresholdsInPixels(group, views);
+                }
+            }
+            group.setFrameRates(maxFrameRate, powerSaveFrameRate);
+            if (frameScheduler != null) {
+                group.setFrameScheduler(frameScheduler);
+            }
+            if (backgroundStepping) {
+                group.setBackgroundStepping();
+            }
+            if (visibilityPolicy != VISIBILITY_IGNORE) {
+                group.setVisibilityPolicy(visibilityPolicy);
+            }
+            return group;
+        }
+
+        private static SpringForce newSpring(float finalPosition, float stiffness, float dampingRatio) {
+            SpringForce springForce = new SpringForce(finalPosition);
+            springForce.setDampingRatio(dampingRatio);
+            springForce.setStiffness(stiffness);
+            return springForce;
+        }
+
+        private void setSettleThresholdsInPixels(@NonNull SpringAnimationGroup group, @NonNull View[] views) {
+            float density = views.length > 0 ? views[0].getResources().getDisplayMetrics().density : 1f;
+            float[] valueThresholds = settleValueThresholds.clone();
+            float[] velocityThresholds = settleVelocityThresholds.clone();
+            for (int j = 0; j < properties.length; j++) {
+                if (settleThresholdsInDp[j]) {
+                    valueThresholds[j] *= density;
+                    velocityThresholds[j] *= density;
+                }
             }
-            return new SpringAnimationGroup(map);
+            group.setSettleThresholds(valueThresholds, velocityThresholds);
         }
 
+        @SuppressWarnings("unchecked")
+        private static FloatProperty<? super View>[] newPropertyArray(int length) {
+            return (FloatProperty<? super View>[]) new FloatProperty<?>[length];
+        }
+
+        private static float valueOf(@NonNull Map<FloatProperty<? super View>, Float> map, @NonNull FloatProperty<? super View> property) {
+            Float value = map.get(property);
+            return value != null ? value : Float.NaN;
+        }
     }
 
     /**
@@ -590,6 +2812,18 @@ public class SpringAnimationGroup {
         void onGroupAnimationEnd(SpringAnimationGroup group, boolean canceled, float value, float velocity);
     }
 
+    /**
+     * An animation listener that receives the values of every property of an animation group once
+     * per frame. The arrays are owned by the group and reused for every frame; they must not be
+     * modified or kept past the callback.
+     *
+     * @see SpringAnimationGroup#getPropertyCount()
+     * @see SpringAnimationGroup#indexOf(View, DynamicAnimation.ViewProperty)
+     */
+    public interface OnGroupAnimationUpdateListener {
+        void onGroupAnimationUpdate(SpringAnimationGroup group, float[] values, float[] velocities);
+    }
+
     /**
      * An animation listener that receives end notifications from an animation.
      *
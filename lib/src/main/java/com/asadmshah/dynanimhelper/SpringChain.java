@@ -0,0 +1,516 @@
+package com.asadmshah.dynanimhelper;
+
+import android.os.Looper;
+import android.support.animation.DynamicAnimation;
+import android.support.animation.SpringForce;
+import android.support.annotation.FloatRange;
+import android.support.annotation.NonNull;
+import android.util.AndroidRuntimeException;
+import android.view.View;
+
+import java.util.ArrayList;
+
+/**
+ * Follow-the-leader chain of springs across many views. The first view of the chain, the leader,
+ * springs towards the final position; every following view springs towards the current position of
+ * the view before it. All links are stepped in a single pass per frame from the chain's
+ * {@link FrameScheduler}, and their state is kept in flat arrays, so a chain of hundreds of views
+ * needs no per-link objects or listeners.
+ *
+ * <pre>
+ * SpringChain chain = SpringChain
+ *     .from(heads)
+ *     .addProperty(DynamicAnimation.TRANSLATION_X)
+ *     .addProperty(DynamicAnimation.TRANSLATION_Y)
+ *     .setStiffnessFalloff(0.85f)
+ *     .build();
+ *
+ * chain.animateToFinalPosition(DynamicAnimation.TRANSLATION_X, touchX);
+ * </pre>
+ */
+public final class SpringChain {
+
+    private static final float THRESHOLD_MULTIPLIER = 0.75f;
+    private static final float VELOCITY_THRESHOLD_MULTIPLIER = 1000f / 16f;
+
+    private static final float NANOS_PER_SECOND = 1000000000f;
+
+    private final View[] views;
+
+    private final DynamicAnimation.ViewProperty[] properties;
+
+    private final int[] propertyIndices;
+
+    private final float[] valueThresholds;
+
+    private final float[] velocityThresholds;
+
+    /**
+     * One solver per link, each with the stiffness and damping ratio of that link.
+     */
+    private final SpringSolver[] solvers;
+
+    /**
+     * State of every link and property, at {@code link * properties.length + property}.
+     */
+    private final float[] values;
+
+    private final float[] velocities;
+
+    /**
+     * Final position of the leader for each property.
+     */
+    private final float[] finalPositions;
+
+    private final long staggerDelayNanos;
+
+    /**
+     * Time until which each link follows {@link #heldTargets} instead of the link before it, or
+     * {@code 0} if it follows that link.
+     */
+    private final long[] holdUntilNanos;
+
+    /**
+     * Position of the link before each link and property when the link started to hold.
+     */
+    private final float[] heldTargets;
+
+    /**
+     * Values of the last stepped link before the current frame, so that the next link can hold them.
+     */
+    private final float[] previousLinkValues;
+
+    private final ArrayList<OnChainAnimationEndListener> endListeners = new ArrayList<>();
+
+    private final FrameScheduler frameScheduler;
+
+    private final FrameScheduler.Client frameClient = new FrameScheduler.Client() {
+        @Override
+        public boolean doAnimationFrame(long frameTimeNanos) {
+            return step(frameTimeNanos);
+        }
+    };
+
+    private boolean running;
+
+    /**
+     * Whether the final position of the leader moved since the last frame.
+     */
+    private boolean retargeted;
+
+    private long lastFrameTimeNanos;
+
+    private SpringChain(Builder builder) {
+        views = builder.views;
+        properties = builder.properties.toArray(new DynamicAnimation.ViewProperty[builder.properties.size()]);
+
+        propertyIndices = new int[properties.length];
+        valueThresholds = new float[properties.length];
+        velocityThresholds = new float[properties.length];
+        finalPositions = new float[properties.length];
+        for (int p = 0; p < properties.length; p++) {
+            propertyIndices[p] = ViewProperties.indexOf(properties[p]);
+            valueThresholds[p] = ViewProperties.getMinimumVisibleChange(propertyIndices[p]) * THRESHOLD_MULTIPLIER;
+            velocityThresholds[p] = valueThresholds[p] * VELOCITY_THRESHOLD_MULTIPLIER;
+            finalPositions[p] = ViewProperties.getValue(views[0], propertyIndices[p]);
+        }
+
+        solvers = new SpringSolver[views.length];
+        float stiffness = builder.stiffness;
+        float dampingRatio = builder.dampingRatio;
+        for (int i = 0; i < views.length; i++) {
+            solvers[i] = new SpringSolver(stiffness, dampingRatio);
+            stiffness *= builder.stiffnessFalloff;
+            dampingRatio *= builder.dampingRatioFalloff;
+        }
+
+        values = new float[views.length * properties.length];
+        velocities = new float[views.length * properties.length];
+
+        staggerDelayNanos = builder.staggerDelayMillis * 1000000L;
+        holdUntilNanos = new long[views.length];
+        heldTargets = new float[views.length * properties.length];
+        previousLinkValues = new float[properties.length];
+        frameScheduler = builder.frameScheduler;
+    }
+
+    /**
+     * Moves the final position of the leader for the given property and starts the chain if it isn't
+     * running. With a stagger delay, every link reacts to the move one delay after the link before
+     * it, whether or not the chain is running. Does nothing for a property the chain doesn't follow.
+     *
+     * @param property the view property in question
+     * @param finalPosition rest position of the leader
+     * @throws AndroidRuntimeException if this method is not called on the main thread
+     */
+    public void animateToFinalPosition(@NonNull DynamicAnimation.ViewProperty property, float finalPosition) {
+        for (int p = 0; p < properties.length; p++) {
+            if (properties[p] == property) {
+                finalPositions[p] = finalPosition;
+                retargeted = running;
+                start();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Starts the chain from the current values of its views.
+     *
+     * @throws AndroidRuntimeException if this method is not called on the main thread
+     */
+    public void start() {
+        checkMainThread();
+        if (running) {
+            return;
+        }
+
+        for (int i = 0; i < views.length; i++) {
+            for (int p = 0; p < properties.length; p++) {
+                int slot = i * properties.length + p;
+                values[slot] = ViewProperties.getValue(views[i], propertyIndices[p]);
+                velocities[slot] = 0f;
+            }
+        }
+
+        running = true;
+        lastFrameTimeNanos = 0;
+        frameScheduler.register(frameClient);
+    }
+
+    /**
+     * Stops every link where it is.
+     *
+     * @throws AndroidRuntimeException if this method is not called on the main thread
+     */
+    public void cancel() {
+        checkMainThread();
+        if (running) {
+            end(true);
+        }
+    }
+
+    /**
+     * Moves every link to the final position of the leader and ends the chain.
+     *
+     * @throws AndroidRuntimeException if this method is not called on the main thread
+     */
+    public void skipToEnd() {
+        checkMainThread();
+        if (!running) {
+            return;
+        }
+
+        for (int i = 0; i < views.length; i++) {
+            for (int p = 0; p < properties.length; p++) {
+                int slot = i * properties.length + p;
+                values[slot] = finalPositions[p];
+                velocities[slot] = 0f;
+                ViewProperties.setValue(views[i], propertyIndices[p], finalPositions[p]);
+            }
+        }
+        end(false);
+    }
+
+    /**
+     * @return {@code true} if any link of the chain is moving
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * @return number of views in the chain
+     */
+    public int getLinkCount() {
+        return views.length;
+    }
+
+    /**
+     * Adds a listener that is called when every link has come to rest or the chain is canceled.
+     *
+     * @param listener the listener to be added
+     * @return this chain
+     */
+    public SpringChain addEndListener(@NonNull OnChainAnimationEndListener listener) {
+        if (!endListeners.contains(listener)) {
+            endListeners.add(listener);
+        }
+        return this;
+    }
+
+    /**
+     * @param listener the listener to be removed
+     */
+    public void removeEndListener(@NonNull OnChainAnimationEndListener listener) {
+        endListeners.remove(listener);
+    }
+
+    private boolean step(long frameTimeNanos) {
+        if (!running) {
+            return false;
+        }
+
+        int stride = properties.length;
+
+        if (lastFrameTimeNanos == 0) {
+            lastFrameTimeNanos = frameTimeNanos;
+            retargeted = false;
+            // Links wait in place for their stagger delay before they start to follow.
+            for (int i = 1; i < views.length; i++) {
+                holdUntilNanos[i] = staggerDelayNanos > 0 ? frameTimeNanos + i * staggerDelayNanos : 0;
+                System.arraycopy(values, i * stride, heldTargets, i * stride, stride);
+            }
+            return true;
+        }
+
+        float deltaSeconds = (frameTimeNanos - lastFrameTimeNanos) / NANOS_PER_SECOND;
+        lastFrameTimeNanos = frameTimeNanos;
+
+        boolean moving = false;
+        // Whether the link before the current one changed where it is heading in this frame.
+        boolean kicked = retargeted;
+        retargeted = false;
+
+        for (int i = 0; i < views.length; i++) {
+            boolean holding = false;
+            if (i > 0 && staggerDelayNanos > 0) {
+                boolean released = holdUntilNanos[i] != 0 && frameTimeNanos >= holdUntilNanos[i];
+                if (released) {
+                    holdUntilNanos[i] = 0;
+                }
+                if (kicked && holdUntilNanos[i] == 0) {
+                    // Keeps heading where the link before it was for one more delay.
+                    holdUntilNanos[i] = frameTimeNanos + staggerDelayNanos;
+                    System.arraycopy(previousLinkValues, 0, heldTargets, i * stride, stride);
+                }
+                holding = holdUntilNanos[i] != 0;
+                moving |= holding;
+                kicked = released;
+            }
+            System.arraycopy(values, i * stride, previousLinkValues, 0, stride);
+
+            SpringSolver solver = solvers[i].evaluate(deltaSeconds);
+            for (int p = 0; p < stride; p++) {
+                int slot = i * stride + p;
+                // The previous link was already stepped to this frame, so the chain follows without lag.
+                float target;
+                if (i == 0) {
+                    target = finalPositions[p];
+                } else if (holding) {
+                    target = heldTargets[slot];
+                } else {
+                    target = values[slot - stride];
+                }
+
+                float startDisplacement = values[slot] - target;
+                float displacement = solver.getDisplacement(startDisplacement, velocities[slot]);
+                float velocity = solver.getVelocity(startDisplacement, velocities[slot]);
+
+                if (Math.abs(displacement) < valueThresholds[p] && Math.abs(velocity) < velocityThresholds[p]
+                        && (i == 0 || !moving)) {
+                    values[slot] = target;
+                    velocities[slot] = 0f;
+                } else {
+                    values[slot] = target + displacement;
+                    velocities[slot] = velocity;
+                    moving = true;
+                }
+            }
+        }
+
+        for (int i = 0; i < views.length; i++) {
+            View view = views[i];
+            for (int p = 0; p < stride; p++) {
+                ViewProperties.setValue(view, propertyIndices[p], values[i * stride + p]);
+            }
+        }
+
+        if (!moving) {
+            end(false);
+        }
+        return running;
+    }
+
+    private void end(boolean canceled) {
+        running = false;
+        retargeted = false;
+        lastFrameTimeNanos = 0;
+
+        for (int i = endListeners.size() - 1; i >= 0; i--) {
+            if (i < endListeners.size()) {
+                endListeners.get(i).onChainAnimationEnd(this, canceled);
+            }
+        }
+    }
+
+    private static void checkMainThread() {
+        if (Looper.myLooper() != Looper.getMainLooper()) {
+            throw new AndroidRuntimeException("Animations may only be started on the main thread");
+        }
+    }
+
+    /**
+     * Creates a {@link Builder} for a chain through the given views. The first view leads.
+     *
+     * @param views the views of the chain, in order
+     * @return the newly generated builder.
+     */
+    public static Builder from(@NonNull View... views) {
+        return new Builder(views.clone());
+    }
+
+    /**
+     * Builder class for generating a {@link SpringChain}
+     */
+    public static class Builder {
+
+        private final View[] views;
+
+        private final ArrayList<DynamicAnimation.ViewProperty> properties = new ArrayList<>();
+
+        private float stiffness = SpringForce.STIFFNESS_MEDIUM;
+
+        private float dampingRatio = SpringForce.DAMPING_RATIO_MEDIUM_BOUNCY;
+
+        private float stiffnessFalloff = 1f;
+
+        private float dampingRatioFalloff = 1f;
+
+        private long staggerDelayMillis;
+
+        private FrameScheduler frameScheduler = FrameScheduler.getDefault();
+
+        private Builder(View[] views) {
+            if (views.length == 0) {
+                throw new IllegalArgumentException("A chain needs at least one view");
+            }
+            this.views = views;
+        }
+
+        /**
+         * Adds a view property that every link of the chain follows.
+         *
+         * @param property the view property in question
+         * @return this builder
+         */
+        public Builder addProperty(@NonNull DynamicAnimation.ViewProperty property) {
+            if (!properties.contains(property)) {
+                properties.add(property);
+            }
+
+            return this;
+        }
+
+        /**
+         * Sets the stiffness of the leader's spring.
+         *
+         * @see SpringForce#setStiffness(float)
+         *
+         * @param stiffness non-negative stiffness constant of a spring
+         * @return this builder
+         */
+        public Builder setStiffness(float stiffness) {
+            this.stiffness = stiffness;
+
+            return this;
+        }
+
+        /**
+         * Sets the damping ratio of the leader's spring.
+         *
+         * @see SpringForce#setDampingRatio(float)
+         *
+         * @param dampingRatio damping ratio of the spring, it should be non-negative
+         * @return this builder
+         */
+        public Builder setDampingRatio(@FloatRange(from = 0.0) float dampingRatio) {
+            this.dampingRatio = dampingRatio;
+
+            return this;
+        }
+
+        /**
+         * Sets the factor the stiffness is multiplied by from one link to the next. Values below 1
+         * make the tail of the chain lag further behind.
+         *
+         * @param falloff multiplier per link, above 0 and at most 1, 1 by default
+         * @return this builder
+         * @throws IllegalArgumentException if the falloff is outside (0, 1]
+         */
+        public Builder setStiffnessFalloff(@FloatRange(from = 0.0, fromInclusive = false, to = 1.0) float falloff) {
+            checkFalloff(falloff);
+            this.stiffnessFalloff = falloff;
+
+            return this;
+        }
+
+        /**
+         * Sets the factor the damping ratio is multiplied by from one link to the next. Values below
+         * 1 make the tail of the chain bouncier.
+         *
+         * @param falloff multiplier per link, above 0 and at most 1, 1 by default
+         * @return this builder
+         * @throws IllegalArgumentException if the falloff is outside (0, 1]
+         */
+        public Builder setDampingRatioFalloff(@FloatRange(from = 0.0, fromInclusive = false, to = 1.0) float falloff) {
+            checkFalloff(falloff);
+            this.dampingRatioFalloff = falloff;
+
+            return this;
+        }
+
+        /**
+         * Sets the delay between one link reacting to a move of the leader and the next one. Until it
+         * reacts, a link keeps heading where the link before it was.
+         *
+         * @param delayMillis delay per link in milliseconds, 0 by default
+         * @return this builder
+         */
+        public Builder setStaggerDelay(long delayMillis) {
+            this.staggerDelayMillis = delayMillis;
+
+            return this;
+        }
+
+        /**
+         * Sets the scheduler the chain is stepped by, instead of the display's vsync.
+         *
+         * @param scheduler the scheduler
+         * @return this builder
+         */
+        public Builder setFrameScheduler(@NonNull FrameScheduler scheduler) {
+            this.frameScheduler = scheduler;
+
+            return this;
+        }
+
+        private static void checkFalloff(float falloff) {
+            if (!(falloff > 0f && falloff <= 1f)) {
+                throw new IllegalArgumentException("Falloff must be above 0 and at most 1");
+            }
+        }
+
+        /**
+         * Builds a {@link SpringChain} with the properties set through this builder.
+         *
+         * @return the SpringChain
+         * @throws IllegalStateException if no property was added
+         */
+        public SpringChain build() {
+            if (properties.isEmpty()) {
+                throw new IllegalStateException("A chain needs at least one property");
+            }
+            return new SpringChain(this);
+        }
+
+    }
+
+    /**
+     * A listener that receives end notifications from a chain.
+     */
+    public interface OnChainAnimationEndListener {
+        void onChainAnimationEnd(SpringChain chain, boolean canceled);
+    }
+
+}
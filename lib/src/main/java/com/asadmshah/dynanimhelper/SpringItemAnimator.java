@@ -0,0 +1,375 @@
+package com.asadmshah.dynanimhelper;
+
+import android.support.animation.DynamicAnimation;
+import android.support.animation.SpringForce;
+import android.support.annotation.FloatRange;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v7.widget.RecyclerView;
+import android.support.v7.widget.SimpleItemAnimator;
+import android.view.View;
+
+import java.util.ArrayList;
+
+/**
+ * {@link RecyclerView.ItemAnimator} that runs add, remove, move and change animations on springs.
+ * Items fade in and out on {@link DynamicAnimation#ALPHA} and move on
+ * {@link DynamicAnimation#TRANSLATION_X} and {@link DynamicAnimation#TRANSLATION_Y}.
+ *
+ * <pre>
+ * recyclerView.setItemAnimator(new SpringItemAnimator());
+ * </pre>
+ *
+ * <p>Every item view gets one {@link SpringAnimationGroup} on {@link SpringAnimationGroup#ENGINE_ANALYTIC},
+ * created from a shared {@link SpringAnimationGroup.Template} the first time its holder animates. The
+ * group is kept in a tag of the view and reused for as long as the view lives, so binding and
+ * recycling items allocates nothing. An item that is animated again while it is still moving
+ * continues from its current position and velocity instead of jumping to the end of its previous
+ * animation.</p>
+ *
+ * <p>Requires the RecyclerView support library, which apps have to depend on themselves.</p>
+ */
+public final class SpringItemAnimator extends SimpleItemAnimator {
+
+    private static final int NONE = 0;
+    private static final int ADD = 1;
+    private static final int REMOVE = 2;
+    private static final int MOVE = 3;
+    private static final int CHANGE_OLD = 4;
+    private static final int CHANGE_NEW = 5;
+
+    /**
+     * The properties every item animates, in the order of {@link ItemAnimation#finalPositions}.
+     */
+    private static final DynamicAnimation.ViewProperty[] PROPERTIES = {
+            DynamicAnimation.TRANSLATION_X, DynamicAnimation.TRANSLATION_Y, DynamicAnimation.ALPHA
+    };
+
+    private final SpringAnimationGroup.Template template;
+
+    /**
+     * Animations set up since the last call to {@link #runPendingAnimations()}.
+     */
+    private final ArrayList<ItemAnimation> pendingAnimations = new ArrayList<>();
+
+    /**
+     * Animations that are pending or running.
+     */
+    private final ArrayList<ItemAnimation> activeAnimations = new ArrayList<>();
+
+    /**
+     * Creates an item animator with medium stiffness and no bounce.
+     */
+    public SpringItemAnimator() {
+        this(SpringForce.STIFFNESS_MEDIUM, SpringForce.DAMPING_RATIO_NO_BOUNCY);
+    }
+
+    /**
+     * Creates an item animator that moves items on springs with the given stiffness and damping
+     * ratio. Fades never bounce.
+     *
+     * @param stiffness stiffness of the springs that move items
+     * @param dampingRatio damping ratio of the springs that move items, must be positive so that
+     *                     items come to rest
+     * @throws IllegalArgumentException if the damping ratio isn't positive
+     */
+    public SpringItemAnimator(float stiffness, @FloatRange(from = 0.0, fromInclusive = false) float dampingRatio) {
+        this(stiffness, dampingRatio, null);
+    }
+
+    /**
+     * Package-private so that tests can step items with a {@link ManualFrameScheduler}.
+     *
+     * @param frameScheduler source of frames, or {@code null} for the display's vsync
+     */
+    SpringItemAnimator(float stiffness, float dampingRatio, @Nullable FrameScheduler frameScheduler) {
+        if (dampingRatio <= 0f) {
+            throw new IllegalArgumentException("Damping ratio must be positive");
+        }
+
+        template = SpringAnimationGroup
+                .template()
+                .setEngine(SpringAnimationGroup.ENGINE_ANALYTIC)
+                .setFrameScheduler(frameScheduler)
+                .setStiffness(stiffness)
+                .setDampingRatio(dampingRatio)
+                .setFinalPosition(DynamicAnimation.TRANSLATION_X, 0f)
+                .setFinalPosition(DynamicAnimation.TRANSLATION_Y, 0f)
+                .setFinalPosition(DynamicAnimation.ALPHA, 1f)
+                .setDampingRatio(DynamicAnimation.ALPHA, SpringForce.DAMPING_RATIO_NO_BOUNCY)
+                .setMinValue(DynamicAnimation.ALPHA, 0f)
+                .setMaxValue(DynamicAnimation.ALPHA, 1f)
+                .buildTemplate();
+    }
+
+    @Override
+    public boolean animateRemove(RecyclerView.ViewHolder holder) {
+        ItemAnimation animation = prepare(holder, REMOVE);
+        animation.setFinalPositions(0f, 0f, 0f);
+        return true;
+    }
+
+    @Override
+    public boolean animateAdd(RecyclerView.ViewHolder holder) {
+        ItemAnimation animation = prepare(holder, ADD);
+        if (!animation.interrupted) {
+            holder.itemView.setAlpha(0f);
+        }
+        animation.setFinalPositions(0f, 0f, 1f);
+        return true;
+    }
+
+    @Override
+    public boolean animateMove(RecyclerView.ViewHolder holder, int fromX, int fromY, int toX, int toY) {
+        View view = holder.itemView;
+        // The view may still be offset by an earlier animation, which it continues from.
+        float deltaX = toX - (fromX + view.getTranslationX());
+        float deltaY = toY - (fromY + view.getTranslationY());
+
+        ItemAnimation animation = prepare(holder, MOVE);
+        if (deltaX == 0f && deltaY == 0f && !animation.interrupted) {
+            finish(animation);
+            return false;
+        }
+
+        view.setTranslationX(-deltaX);
+        view.setTranslationY(-deltaY);
+        animation.setFinalPositions(0f, 0f, 1f);
+        return true;
+    }
+
+    @Override
+    public boolean animateChange(RecyclerView.ViewHolder oldHolder, RecyclerView.ViewHolder newHolder, int fromLeft, int fromTop, int toLeft, int toTop) {
+        if (oldHolder == newHolder) {
+            // The same holder shows the new content, so only its position can be animated.
+            return animateMove(oldHolder, fromLeft, fromTop, toLeft, toTop);
+        }
+
+        View oldView = oldHolder.itemView;
+        float deltaX = toLeft - (fromLeft + oldView.getTranslationX());
+        float deltaY = toTop - (fromTop + oldView.getTranslationY());
+
+        ItemAnimation oldAnimation = prepare(oldHolder, CHANGE_OLD);
+        oldAnimation.setFinalPositions(toLeft - fromLeft, toTop - fromTop, 0f);
+
+        if (newHolder != null) {
+            ItemAnimation newAnimation = prepare(newHolder, CHANGE_NEW);
+            newHolder.itemView.setTranslationX(-deltaX);
+            newHolder.itemView.setTranslationY(-deltaY);
+            if (!newAnimation.interrupted) {
+                newHolder.itemView.setAlpha(0f);
+            }
+            newAnimation.setFinalPositions(0f, 0f, 1f);
+        }
+        return true;
+    }
+
+    @Override
+    public void runPendingAnimations() {
+        for (int i = 0; i < pendingAnimations.size(); i++) {
+            ItemAnimation animation = pendingAnimations.get(i);
+            animation.pending = false;
+            dispatchStarting(animation);
+            animation.group.animateToFinalPositions(PROPERTIES, animation.finalPositions);
+        }
+        pendingAnimations.clear();
+    }
+
+    @Override
+    public void endAnimation(RecyclerView.ViewHolder item) {
+        ItemAnimation animation = (ItemAnimation) item.itemView.getTag(R.id.spring_item_animation);
+        if (animation != null && animation.kind != NONE) {
+            skipToEnd(animation);
+        }
+        dispatchFinishedWhenDone();
+    }
+
+    @Override
+    public void endAnimations() {
+        for (int i = activeAnimations.size() - 1; i >= 0; i--) {
+            if (i < activeAnimations.size()) {
+                skipToEnd(activeAnimations.get(i));
+            }
+        }
+        dispatchFinishedWhenDone();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return !activeAnimations.isEmpty();
+    }
+
+    /**
+     * Returns the animation of the holder, set up for a new animation of the given kind. If the
+     * holder is still animating, its springs are stopped where they are and keep their velocity for
+     * the new animation, and the previous animation is reported as finished.
+     */
+    private ItemAnimation prepare(@NonNull RecyclerView.ViewHolder holder, int kind) {
+        ItemAnimation animation = (ItemAnimation) holder.itemView.getTag(R.id.spring_item_animation);
+        if (animation == null) {
+            animation = new ItemAnimation(template.create(holder.itemView));
+            holder.itemView.setTag(R.id.spring_item_animation, animation);
+        }
+
+        animation.interrupted = animation.kind != NONE;
+        if (animation.interrupted) {
+            animation.restarting = true;
+            animation.group.cancel();
+            animation.restarting = false;
+            dispatchFinished(animation);
+        } else {
+            activeAnimations.add(animation);
+        }
+
+        animation.holder = holder;
+        animation.kind = kind;
+        if (!animation.pending) {
+            animation.pending = true;
+            pendingAnimations.add(animation);
+        }
+        return animation;
+    }
+
+    /**
+     * Brings the animation to its end state right away.
+     */
+    private void skipToEnd(@NonNull ItemAnimation animation) {
+        if (animation.pending) {
+            animation.pending = false;
+            pendingAnimations.remove(animation);
+
+            View view = animation.group.getView(0);
+            view.setTranslationX(animation.finalPositions[0]);
+            view.setTranslationY(animation.finalPositions[1]);
+            view.setAlpha(animation.finalPositions[2]);
+            finish(animation);
+        } else if (animation.group.isRunning()) {
+            // Ends the group, which finishes the animation.
+            animation.group.skipToEnd();
+        } else {
+            finish(animation);
+        }
+    }
+
+    /**
+     * Reports the animation as finished and resets its view for reuse.
+     */
+    private void finish(@NonNull ItemAnimation animation) {
+        if (animation.kind == REMOVE || animation.kind == CHANGE_OLD) {
+            View view = animation.group.getView(0);
+            view.setTranslationX(0f);
+            view.setTranslationY(0f);
+            view.setAlpha(1f);
+        }
+
+        dispatchFinished(animation);
+        animation.holder = null;
+        animation.kind = NONE;
+        animation.interrupted = false;
+        if (animation.pending) {
+            animation.pending = false;
+            pendingAnimations.remove(animation);
+        }
+        activeAnimations.remove(animation);
+    }
+
+    private void dispatchStarting(@NonNull ItemAnimation animation) {
+        switch (animation.kind) {
+            case ADD:
+                dispatchAddStarting(animation.holder);
+                break;
+            case REMOVE:
+                dispatchRemoveStarting(animation.holder);
+                break;
+            case MOVE:
+                dispatchMoveStarting(animation.holder);
+                break;
+            case CHANGE_OLD:
+            case CHANGE_NEW:
+                dispatchChangeStarting(animation.holder, animation.kind == CHANGE_OLD);
+                break;
+        }
+    }
+
+    private void dispatchFinished(@NonNull ItemAnimation animation) {
+        switch (animation.kind) {
+            case ADD:
+                dispatchAddFinished(animation.holder);
+                break;
+            case REMOVE:
+                dispatchRemoveFinished(animation.holder);
+                break;
+            case MOVE:
+                dispatchMoveFinished(animation.holder);
+                break;
+            case CHANGE_OLD:
+            case CHANGE_NEW:
+                dispatchChangeFinished(animation.holder, animation.kind == CHANGE_OLD);
+                break;
+        }
+    }
+
+    private void dispatchFinishedWhenDone() {
+        if (!isRunning()) {
+            dispatchAnimationsFinished();
+        }
+    }
+
+    /**
+     * The group of a view holder and the animation it currently runs.
+     */
+    private final class ItemAnimation implements SpringAnimationGroup.OnGroupAnimationEndListener {
+
+        final SpringAnimationGroup group;
+
+        /**
+         * Final positions of {@link #PROPERTIES} for the current animation.
+         */
+        final float[] finalPositions = new float[PROPERTIES.length];
+
+        /**
+         * The holder while an animation is pending or running, otherwise {@code null} so that the
+         * holder can be released.
+         */
+        @Nullable
+        RecyclerView.ViewHolder holder;
+
+        int kind = NONE;
+
+        /**
+         * Whether the animation waits for {@link #runPendingAnimations()}.
+         */
+        boolean pending;
+
+        /**
+         * Whether the current animation took over from an earlier one that was still running.
+         */
+        boolean interrupted;
+
+        /**
+         * Whether the group is being canceled to take over its motion, which doesn't end the animation.
+         */
+        boolean restarting;
+
+        ItemAnimation(@NonNull SpringAnimationGroup group) {
+            this.group = group;
+            group.addEndListener(this);
+        }
+
+        void setFinalPositions(float translationX, float translationY, float alpha) {
+            finalPositions[0] = translationX;
+            finalPositions[1] = translationY;
+            finalPositions[2] = alpha;
+        }
+
+        @Override
+        public void onGroupAnimationEnd(SpringAnimationGroup group, boolean canceled, float value, float velocity) {
+            if (restarting || kind == NONE) {
+                return;
+            }
+            finish(this);
+            dispatchFinishedWhenDone();
+        }
+    }
+
+}
@@ -0,0 +1,215 @@
+package com.asadmshah.dynanimhelper;
+
+/**
+ * Closed-form solver for a damped harmonic spring of unit mass.
+ *
+ * <p>The solver is stateless with respect to any particular trajectory. It holds the spring
+ * constants and, after a call to {@link #evaluate(float)}, the four basis coefficients that map an
+ * initial displacement and velocity to the displacement and velocity at that time. This lets a
+ * single evaluation be shared by any number of values animated with the same spring, and it never
+ * allocates.</p>
+ *
+ * <pre>
+ * solver.evaluate(t);
+ * float displacement = solver.getDisplacement(startValue - finalPosition, startVelocity);
+ * float velocity = solver.getVelocity(startValue - finalPosition, startVelocity);
+ * </pre>
+ *
+ * <p>Under-damped, critically damped and over-damped springs are all solved exactly, so the result
+ * does not depend on the frame rate and can be queried at any point in time.</p>
+ */
+public final class SpringSolver {
+
+    /**
+     * Damping ratios within this distance of 1 are treated as critically damped.
+     */
+    private static final double CRITICAL_EPSILON = 1e-4;
+
+    private static final int UNDER_DAMPED = 0;
+    private static final int CRITICALLY_DAMPED = 1;
+    private static final int OVER_DAMPED = 2;
+
+    private float stiffness;
+    private float dampingRatio;
+
+    private int regime;
+    private double naturalFrequency;
+    private double dampedFrequency;
+    private double rootFast;
+    private double rootSlow;
+
+    /**
+     * Coefficients of the last evaluation. Position = d * positionFromDisplacement + v * positionFromVelocity
+     * and likewise for velocity.
+     */
+    private double positionFromDisplacement;
+    private double positionFromVelocity;
+    private double velocityFromDisplacement;
+    private double velocityFromVelocity;
+
+    /**
+     * Creates a solver with a medium stiffness and medium bouncy damping ratio, matching the defaults
+     * of {@link android.support.animation.SpringForce}.
+     */
+    public SpringSolver() {
+        this(1500f, 0.5f);
+    }
+
+    /**
+     * Creates a solver for the given spring constants.
+     *
+     * @param stiffness positive stiffness constant of the spring
+     * @param dampingRatio non-negative damping ratio of the spring
+     */
+    public SpringSolver(float stiffness, float dampingRatio) {
+        configure(stiffness, dampingRatio);
+    }
+
+    /**
+     * Sets both spring constants at once.
+     *
+     * @param stiffness positive stiffness constant of the spring
+     * @param dampingRatio non-negative damping ratio of the spring
+     * @return this solver
+     * @throws IllegalArgumentException if the stiffness is not positive or the damping ratio is negative
+     */
+    public SpringSolver configure(float stiffness, float dampingRatio) {
+        if (stiffness <= 0f) {
+            throw new IllegalArgumentException("Spring stiffness constant must be positive.");
+        }
+        if (dampingRatio < 0f) {
+            throw new IllegalArgumentException("Damping ratio must be non-negative");
+        }
+
+        if (stiffness == this.stiffness && dampingRatio == this.dampingRatio) {
+            return this;
+        }
+
+        this.stiffness = stiffness;
+        this.dampingRatio = dampingRatio;
+
+        naturalFrequency = Math.sqrt(stiffness);
+        if (Math.abs(dampingRatio - 1.0) < CRITICAL_EPSILON) {
+            regime = CRITICALLY_DAMPED;
+        } else if (dampingRatio < 1f) {
+            regime = UNDER_DAMPED;
+            dampedFrequency = naturalFrequency * Math.sqrt(1.0 - dampingRatio * dampingRatio);
+        } else {
+            regime = OVER_DAMPED;
+            double root = Math.sqrt(dampingRatio * dampingRatio - 1.0);
+            rootFast = -naturalFrequency * (dampingRatio + root);
+            rootSlow = -naturalFrequency * (dampingRatio - root);
+        }
+
+        return this;
+    }
+
+    /**
+     * @param stiffness positive stiffness constant of the spring
+     * @return this solver
+     */
+    public SpringSolver setStiffness(float stiffness) {
+        return configure(stiffness, dampingRatio);
+    }
+
+    /**
+     * @return the stiffness constant of the spring
+     */
+    public float getStiffness() {
+        return stiffness;
+    }
+
+    /**
+     * @param dampingRatio non-negative damping ratio of the spring
+     * @return this solver
+     */
+    public SpringSolver setDampingRatio(float dampingRatio) {
+        return configure(stiffness, dampingRatio);
+    }
+
+    /**
+     * @return the damping ratio of the spring
+     */
+    public float getDampingRatio() {
+        return dampingRatio;
+    }
+
+    /**
+     * Evaluates the spring at the given time since release. The results are read through
+     * {@link #getDisplacement(float, float)} and {@link #getVelocity(float, float)}.
+     *
+     * @param seconds time elapsed since the initial state, in seconds
+     * @return this solver
+     */
+    public SpringSolver evaluate(float seconds) {
+        double t = seconds;
+        switch (regime) {
+            case UNDER_DAMPED: {
+                double decay = Math.exp(-dampingRatio * naturalFrequency * t);
+                double cos = Math.cos(dampedFrequency * t);
+                double sin = Math.sin(dampedFrequency * t);
+                double zetaOmega = dampingRatio * naturalFrequency;
+
+                positionFromDisplacement = decay * (cos + zetaOmega / dampedFrequency * sin);
+                positionFromVelocity = decay * sin / dampedFrequency;
+                velocityFromDisplacement = -decay * sin * stiffness / dampedFrequency;
+                velocityFromVelocity = decay * (cos - zetaOmega / dampedFrequency * sin);
+                break;
+            }
+            case CRITICALLY_DAMPED: {
+                double decay = Math.exp(-naturalFrequency * t);
+
+                positionFromDisplacement = decay * (1.0 + naturalFrequency * t);
+                positionFromVelocity = decay * t;
+                velocityFromDisplacement = -decay * stiffness * t;
+                velocityFromVelocity = decay * (1.0 - naturalFrequency * t);
+                break;
+            }
+            default: {
+                double fast = Math.exp(rootFast * t);
+                double slow = Math.exp(rootSlow * t);
+                double span = rootSlow - rootFast;
+
+                positionFromDisplacement = (rootSlow * fast - rootFast * slow) / span;
+                positionFromVelocity = (slow - fast) / span;
+                velocityFromDisplacement = rootFast * rootSlow * (fast - slow) / span;
+                velocityFromVelocity = (rootSlow * slow - rootFast * fast) / span;
+                break;
+            }
+        }
+
+        return this;
+    }
+
+    /**
+     * Returns the displacement from the rest position at the last evaluated time.
+     *
+     * @param displacement initial displacement from the rest position
+     * @param velocity initial velocity
+     * @return displacement from the rest position
+     */
+    public float getDisplacement(float displacement, float velocity) {
+        return (float) (displacement * positionFromDisplacement + velocity * positionFromVelocity);
+    }
+
+    /**
+     * Returns the velocity at the last evaluated time.
+     *
+     * @param displacement initial displacement from the rest position
+     * @param velocity initial velocity
+     * @return velocity
+     */
+    public float getVelocity(float displacement, float velocity) {
+        return (float) (displacement * velocityFromDisplacement + velocity * velocityFromVelocity);
+    }
+
+    /**
+     * Returns whether the spring is damped and can therefore come to rest.
+     *
+     * @return {@code true} if the damping ratio is greater than zero
+     */
+    public boolean isDamped() {
+        return dampingRatio > 0f;
+    }
+
+}
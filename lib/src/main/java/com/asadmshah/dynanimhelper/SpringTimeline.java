@@ -0,0 +1,388 @@
+package com.asadmshah.dynanimhelper;
+
+import android.support.annotation.FloatRange;
+import android.support.annotation.NonNull;
+import android.util.AndroidRuntimeException;
+
+import java.util.ArrayList;
+
+/**
+ * Sequence of {@link SpringAnimationGroup}s that start one after the other, together, or once an
+ * earlier group has covered part of its distance.
+ *
+ * <pre>
+ * SpringTimeline timeline = SpringTimeline
+ *     .play(scaleIn)
+ *     .then(translate)
+ *     .thenAt(0.6f, fade)
+ *     .build();
+ *
+ * timeline.start();
+ * </pre>
+ *
+ * <p>Every stage is triggered by one earlier stage. The timeline is the only listener of its groups
+ * and keeps its state in arrays allocated when it is built, so a group is started from within the
+ * frame that meets its trigger, without a frame of latency and without allocating.</p>
+ *
+ * <p>A group may only be part of one timeline, and must not be running when the timeline is built.</p>
+ */
+public final class SpringTimeline {
+
+    /**
+     * Starts the stage when the timeline starts.
+     */
+    private static final int TRIGGER_TIMELINE = 0;
+
+    /**
+     * Starts the stage together with its trigger stage.
+     */
+    private static final int TRIGGER_START = 1;
+
+    /**
+     * Starts the stage once its trigger stage reaches a progress.
+     */
+    private static final int TRIGGER_PROGRESS = 2;
+
+    /**
+     * Starts the stage when its trigger stage ends.
+     */
+    private static final int TRIGGER_END = 3;
+
+    private final SpringAnimationGroup[] groups;
+
+    private final int[] triggerKinds;
+
+    private final int[] triggerStages;
+
+    private final float[] triggerProgresses;
+
+    /**
+     * Whether each stage started, and whether it ended, in the current run.
+     */
+    private final boolean[] started;
+
+    private final boolean[] ended;
+
+    private final ArrayList<OnTimelineEndListener> endListeners = new ArrayList<>();
+
+    private boolean running;
+
+    /**
+     * Number of stages that started and haven't ended in the current run.
+     */
+    private int runningStages;
+
+    private boolean canceled;
+
+    private SpringTimeline(Builder builder) {
+        int count = builder.groups.size();
+        groups = builder.groups.toArray(new SpringAnimationGroup[count]);
+        triggerKinds = new int[count];
+        triggerStages = new int[count];
+        triggerProgresses = new float[count];
+        started = new boolean[count];
+        ended = new boolean[count];
+
+        for (int i = 0; i < count; i++) {
+            triggerKinds[i] = builder.triggerKinds.get(i);
+            triggerStages[i] = builder.triggerStages.get(i);
+            triggerProgresses[i] = builder.triggerProgresses.get(i);
+        }
+
+        for (int i = 0; i < count; i++) {
+            StageListener listener = new StageListener(i);
+            for (int j = i + 1; j < count; j++) {
+                if (triggerStages[j] == i && triggerKinds[j] == TRIGGER_PROGRESS) {
+                    groups[i].addUpdateListener(listener);
+                    break;
+                }
+            }
+            groups[i].addEndListener(listener);
+            groups[i].setTimeline(this);
+        }
+    }
+
+    /**
+     * Starts the first stage of the timeline and every stage that plays with it. Does nothing if the
+     * timeline is already running.
+     *
+     * @throws AndroidRuntimeException if this method is not called on the main thread
+     */
+    public void start() {
+        if (running) {
+            return;
+        }
+
+        for (int i = 0; i < groups.length; i++) {
+            started[i] = false;
+            ended[i] = false;
+        }
+        running = true;
+        canceled = false;
+        runningStages = 0;
+
+        for (int i = 0; i < groups.length && running; i++) {
+            if (triggerKinds[i] == TRIGGER_TIMELINE && !started[i]) {
+                startStage(i);
+            }
+        }
+    }
+
+    /**
+     * Cancels every running stage. Stages that haven't started yet don't start.
+     *
+     * @throws AndroidRuntimeException if this method is not called on the main thread
+     */
+    public void cancel() {
+        if (!running) {
+            return;
+        }
+
+        canceled = true;
+        for (int i = 0; i < groups.length; i++) {
+            if (started[i] && !ended[i]) {
+                groups[i].cancel();
+            }
+        }
+    }
+
+    /**
+     * Skips every stage to its end, in order, starting the stages that haven't started yet, so that
+     * every group ends at its final positions.
+     *
+     * @throws UnsupportedOperationException if a spring of a stage has no damping
+     * @throws AndroidRuntimeException if this method is not called on the main thread
+     */
+    public void skipToEnd() {
+        if (!running) {
+            return;
+        }
+
+        // Ending a stage starts the stages it triggers, which always come later.
+        for (int i = 0; i < groups.length && running; i++) {
+            if (started[i] && !ended[i]) {
+                groups[i].skipToEnd();
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} if any stage of the timeline is running or still waiting to start
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * @return number of groups in the timeline
+     */
+    public int getStageCount() {
+        return groups.length;
+    }
+
+    /**
+     * Adds a listener that is called when the last stage ends, or when the timeline is canceled.
+     *
+     * @param listener the listener to be added
+     * @return this timeline
+     */
+    public SpringTimeline addEndListener(@NonNull OnTimelineEndListener listener) {
+        if (!endListeners.contains(listener)) {
+            endListeners.add(listener);
+        }
+        return this;
+    }
+
+    /**
+     * @param listener the listener to be removed
+     */
+    public void removeEndListener(@NonNull OnTimelineEndListener listener) {
+        endListeners.remove(listener);
+    }
+
+    private void startStage(int stage) {
+        started[stage] = true;
+        runningStages++;
+        groups[stage].start();
+
+        for (int i = stage + 1; i < groups.length; i++) {
+            if (triggerStages[i] == stage && triggerKinds[i] == TRIGGER_START && !started[i]) {
+                startStage(i);
+            }
+        }
+
+        // A group with nothing to animate never reports an end, so the stage ends right away.
+        if (!ended[stage] && !groups[stage].isRunning()) {
+            endStage(stage, false);
+        }
+    }
+
+    private void endStage(int stage, boolean canceled) {
+        ended[stage] = true;
+        runningStages--;
+        this.canceled |= canceled;
+
+        if (!canceled) {
+            // Stages waiting for a progress the group never reached start now, so the timeline completes.
+            for (int i = stage + 1; i < groups.length; i++) {
+                if (triggerStages[i] == stage && (triggerKinds[i] == TRIGGER_END || triggerKinds[i] == TRIGGER_PROGRESS) && !started[i]) {
+                    startStage(i);
+                }
+            }
+        }
+
+        // A stage started above may already have ended the timeline.
+        if (runningStages == 0 && running) {
+            end();
+        }
+    }
+
+    private void end() {
+        running = false;
+        for (int i = endListeners.size() - 1; i >= 0; i--) {
+            if (i < endListeners.size()) {
+                endListeners.get(i).onTimelineEnd(this, canceled);
+            }
+        }
+    }
+
+    /**
+     * Listens to the group of one stage, so that callbacks don't have to look the stage up.
+     */
+    private final class StageListener implements SpringAnimationGroup.OnGroupAnimationUpdateListener,
+            SpringAnimationGroup.OnGroupAnimationEndListener {
+
+        private final int stage;
+
+        StageListener(int stage) {
+            this.stage = stage;
+        }
+
+        @Override
+        public void onGroupAnimationUpdate(SpringAnimationGroup group, float[] values, float[] velocities) {
+            if (!running || !started[stage] || ended[stage]) {
+                return;
+            }
+
+            float progress = group.getProgress();
+            for (int i = stage + 1; i < groups.length; i++) {
+                if (triggerStages[i] == stage && triggerKinds[i] == TRIGGER_PROGRESS && !started[i] && progress >= triggerProgresses[i]) {
+                    startStage(i);
+                }
+            }
+        }
+
+        @Override
+        public void onGroupAnimationEnd(SpringAnimationGroup group, boolean canceled, float value, float velocity) {
+            if (!running || !started[stage] || ended[stage]) {
+                return;
+            }
+
+            endStage(stage, canceled);
+        }
+    }
+
+    /**
+     * Creates a {@link Builder} for a timeline that starts with the given group.
+     *
+     * @param group the group that plays first
+     * @return the newly generated builder.
+     */
+    public static Builder play(@NonNull SpringAnimationGroup group) {
+        return new Builder(group);
+    }
+
+    /**
+     * Builder class for generating a {@link SpringTimeline}. Every stage is triggered by the stage
+     * added right before it.
+     */
+    public static class Builder {
+
+        private final ArrayList<SpringAnimationGroup> groups = new ArrayList<>();
+
+        private final ArrayList<Integer> triggerKinds = new ArrayList<>();
+
+        private final ArrayList<Integer> triggerStages = new ArrayList<>();
+
+        private final ArrayList<Float> triggerProgresses = new ArrayList<>();
+
+        private Builder(SpringAnimationGroup group) {
+            add(group, TRIGGER_TIMELINE, 0f);
+        }
+
+        /**
+         * Adds a group that starts in the same frame as the previous one.
+         *
+         * @param group the group to add
+         * @return this builder
+         * @throws IllegalArgumentException if the group is already part of the timeline
+         */
+        public Builder with(@NonNull SpringAnimationGroup group) {
+            return add(group, TRIGGER_START, 0f);
+        }
+
+        /**
+         * Adds a group that starts in the frame the previous one ends in.
+         *
+         * @param group the group to add
+         * @return this builder
+         * @throws IllegalArgumentException if the group is already part of the timeline
+         */
+        public Builder then(@NonNull SpringAnimationGroup group) {
+            return add(group, TRIGGER_END, 0f);
+        }
+
+        /**
+         * Adds a group that starts in the first frame in which the previous one has covered the
+         * given fraction of the distance from where it started to its final positions, measured on
+         * its slowest property. If the previous group ends before, the group starts when it ends.
+         *
+         * @param progress fraction of the distance, between 0 and 1
+         * @param group the group to add
+         * @return this builder
+         * @throws IllegalArgumentException if the group is already part of the timeline or the
+         *                                  progress is out of range
+         */
+        public Builder thenAt(@FloatRange(from = 0.0, to = 1.0) float progress, @NonNull SpringAnimationGroup group) {
+            if (!(progress >= 0f && progress <= 1f)) {
+                throw new IllegalArgumentException("Progress must be between 0 and 1");
+            }
+            return add(group, TRIGGER_PROGRESS, progress);
+        }
+
+        /**
+         * Builds the timeline and registers it with its groups.
+         *
+         * @return the SpringTimeline
+         * @throws IllegalStateException if one of the groups is already part of another timeline
+         * @throws UnsupportedOperationException if one of the groups is running
+         */
+        public SpringTimeline build() {
+            for (SpringAnimationGroup group : groups) {
+                if (group.getTimeline() != null) {
+                    throw new IllegalStateException("A group can only be part of one timeline");
+                }
+            }
+            return new SpringTimeline(this);
+        }
+
+        private Builder add(@NonNull SpringAnimationGroup group, int triggerKind, float progress) {
+            if (groups.contains(group)) {
+                throw new IllegalArgumentException("A group can only be added to a timeline once");
+            }
+            groups.add(group);
+            triggerKinds.add(triggerKind);
+            triggerStages.add(groups.size() - 2);
+            triggerProgresses.add(progress);
+            return this;
+        }
+    }
+
+    /**
+     * A listener that is notified when a timeline ends.
+     */
+    public interface OnTimelineEndListener {
+        void onTimelineEnd(SpringTimeline timeline, boolean canceled);
+    }
+
+}
@@ -0,0 +1,147 @@
+package com.asadmshah.dynanimhelper;
+
+import android.support.animation.DynamicAnimation;
+import android.support.animation.SpringAnimation;
+import android.support.animation.SpringForce;
+import android.support.annotation.NonNull;
+import android.view.View;
+
+/**
+ * {@link PropertyAnimator} backed by a support library {@link SpringAnimation}.
+ *
+ * @see SpringAnimationGroup#ENGINE_SUPPORT
+ */
+final class SupportPropertyAnimator extends PropertyAnimator
+        implements DynamicAnimation.OnAnimationEndListener, DynamicAnimation.OnAnimationUpdateListener {
+
+    private final SpringAnimation animation;
+
+    /**
+     * Start value of the next run, which the support library doesn't expose.
+     */
+    private float startValue;
+
+    private boolean startValueIsSet;
+
+    SupportPropertyAnimator(@NonNull View view, @NonNull DynamicAnimation.ViewProperty property, @NonNull SpringForce springForce) {
+        super(view, ViewProperties.adapterOf(property));
+
+        animation = new SpringAnimation(view, property, springForce.getFinalPosition());
+        animation.setSpring(springForce);
+        animation.addEndListener(this);
+    }
+
+    @Override
+    void addUpdateListener(@NonNull OnUpdateListener listener) {
+        super.addUpdateListener(listener);
+        animation.addUpdateListener(this);
+    }
+
+    @Override
+    void removeUpdateListener(@NonNull OnUpdateListener listener) {
+        super.removeUpdateListener(listener);
+        if (!hasUpdateListeners()) {
+            animation.removeUpdateListener(this);
+        }
+    }
+
+    // The support library declares its listeners with the raw animation type.
+    @Override
+    @SuppressWarnings("rawtypes")
+    public void onAnimationEnd(DynamicAnimation animation, boolean canceled, float value, float velocity) {
+        dispatchEnd(canceled, value, velocity);
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public void onAnimationUpdate(DynamicAnimation animation, float value, float velocity) {
+        dispatchUpdate(value, velocity);
+    }
+
+    @Override
+    SpringForce getSpring() {
+        return animation.getSpring();
+    }
+
+    @Override
+    void setSpring(@NonNull SpringForce springForce) {
+        animation.setSpring(springForce);
+    }
+
+    @Override
+    void setStartValue(float startValue) {
+        animation.setStartValue(startValue);
+        this.startValue = startValue;
+        this.startValueIsSet = true;
+    }
+
+    @Override
+    void setStartVelocity(float startVelocity) {
+        animation.setStartVelocity(startVelocity);
+    }
+
+    @Override
+    void setMinValue(float min) {
+        animation.setMinValue(min);
+    }
+
+    @Override
+    void setMaxValue(float max) {
+        animation.setMaxValue(max);
+    }
+
+    @Override
+    void setMinimumVisibleChange(float minimumVisibleChange) {
+        animation.setMinimumVisibleChange(minimumVisibleChange);
+    }
+
+    @Override
+    void start() {
+        boolean wasRunning = animation.isRunning();
+        animation.start();
+        if (!wasRunning && animation.isRunning()) {
+            dispatchStart(takeStartValue());
+        }
+    }
+
+    @Override
+    void cancel() {
+        animation.cancel();
+    }
+
+    @Override
+    void skipToEnd() {
+        animation.skipToEnd();
+    }
+
+    @Override
+    boolean canSkipToEnd() {
+        return animation.canSkipToEnd();
+    }
+
+    @Override
+    void animateToFinalPosition(float finalPosition) {
+        boolean wasRunning = animation.isRunning();
+        animation.animateToFinalPosition(finalPosition);
+        if (!wasRunning && animation.isRunning()) {
+            dispatchStart(takeStartValue());
+        }
+    }
+
+    /**
+     * @return the value the run that just started starts from
+     */
+    private float takeStartValue() {
+        if (startValueIsSet) {
+            startValueIsSet = false;
+            return startValue;
+        }
+        return property.getValue(view);
+    }
+
+    @Override
+    boolean isRunning() {
+        return animation.isRunning();
+    }
+
+}
@@ -0,0 +1,265 @@
+package com.asadmshah.dynanimhelper;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least recently used cache of precomputed spring trajectories. A trajectory is baked once per
+ * combination of stiffness, damping ratio and start velocity relative to the distance travelled,
+ * and played back by time afterwards, so repeated springs cost a table lookup per frame instead of
+ * an evaluation of the spring.
+ *
+ * <p>Trajectories are normalized to a unit distance: a spring released {@code d} away from its
+ * rest position with velocity {@code v} follows {@code d} times the trajectory baked for a relative
+ * velocity of {@code v / d}. Relative velocities are quantized to {@link #VELOCITY_RESOLUTION} so
+ * that nearly identical releases share an entry. A spring only plays back a cached trajectory if the
+ * quantization moves it by less than its minimum visible change, otherwise it is evaluated directly.</p>
+ *
+ * <p>A cache can be shared by any number of groups, but it is not thread-safe and must only be used
+ * from the main thread.</p>
+ *
+ * @see SpringAnimationGroup.Builder#setTrajectoryCache(TrajectoryCache)
+ */
+public final class TrajectoryCache {
+
+    /**
+     * Relative velocities, in distances per second, are rounded to a multiple of this value.
+     */
+    public static final float VELOCITY_RESOLUTION = 0.01f;
+
+    /**
+     * Number of samples baked per second of animation.
+     */
+    static final float SAMPLE_RATE = 240f;
+
+    /**
+     * Trajectories longer than this many samples are cut off and the remainder is evaluated directly.
+     */
+    private static final int MAX_SAMPLES = 2048;
+
+    /**
+     * Baking stops once the normalized displacement and velocity are below these values.
+     */
+    private static final float REST_DISPLACEMENT = 1e-4f;
+    private static final float REST_VELOCITY = REST_DISPLACEMENT * 1000f / 16f;
+
+    private final LinkedHashMap<Key, Trajectory> entries;
+
+    /**
+     * Reused for lookups so that hits don't allocate.
+     */
+    private final Key lookupKey = new Key();
+
+    private final SpringSolver solver = new SpringSolver();
+
+    /**
+     * Reused by every bake, which copies the samples it needs out of them.
+     */
+    private final float[] bakedDisplacements = new float[MAX_SAMPLES];
+    private final float[] bakedVelocities = new float[MAX_SAMPLES];
+
+    private final int maxSize;
+
+    private int hitCount;
+
+    private int missCount;
+
+    /**
+     * Creates a cache that keeps at most the given number of trajectories.
+     *
+     * @param maxSize maximum number of trajectories, must be positive
+     * @throws IllegalArgumentException if the size isn't positive
+     */
+    public TrajectoryCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        this.maxSize = maxSize;
+
+        entries = new LinkedHashMap<Key, Trajectory>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Trajectory> eldest) {
+                return size() > TrajectoryCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the trajectory for the given spring, baking it if it isn't cached yet.
+     *
+     * @param stiffness stiffness of the spring
+     * @param dampingRatio damping ratio of the spring
+     * @param relativeVelocity start velocity divided by the start displacement
+     * @return the trajectory
+     */
+    @NonNull
+    Trajectory obtain(float stiffness, float dampingRatio, float relativeVelocity) {
+        float quantizedVelocity = quantize(relativeVelocity);
+
+        lookupKey.set(stiffness, dampingRatio, quantizedVelocity);
+        Trajectory trajectory = entries.get(lookupKey);
+        if (trajectory != null) {
+            hitCount++;
+            return trajectory;
+        }
+
+        missCount++;
+        trajectory = bake(stiffness, dampingRatio, quantizedVelocity);
+
+        Key key = new Key();
+        key.set(stiffness, dampingRatio, quantizedVelocity);
+        entries.put(key, trajectory);
+
+        return trajectory;
+    }
+
+    /**
+     * @return the relative velocity a trajectory is looked up and baked for
+     */
+    static float quantize(float relativeVelocity) {
+        return Math.round(relativeVelocity / VELOCITY_RESOLUTION) * VELOCITY_RESOLUTION;
+    }
+
+    private Trajectory bake(float stiffness, float dampingRatio, float relativeVelocity) {
+        solver.configure(stiffness, dampingRatio);
+
+        float[] displacements = bakedDisplacements;
+        float[] velocities = bakedVelocities;
+        int count = 0;
+        while (count < MAX_SAMPLES) {
+            solver.evaluate(count / SAMPLE_RATE);
+            displacements[count] = solver.getDisplacement(1f, relativeVelocity);
+            velocities[count] = solver.getVelocity(1f, relativeVelocity);
+            count++;
+
+            if (Math.abs(displacements[count - 1]) < REST_DISPLACEMENT && Math.abs(velocities[count - 1]) < REST_VELOCITY) {
+                break;
+            }
+        }
+
+        return new Trajectory(Arrays.copyOf(displacements, count), Arrays.copyOf(velocities, count));
+    }
+
+    /**
+     * @return number of trajectories in the cache
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return number of lookups that found a baked trajectory
+     */
+    public int getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return number of lookups that had to bake a trajectory
+     */
+    public int getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Removes every trajectory from the cache.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Displacement and velocity of a spring released a unit distance from its rest position, sampled
+     * at {@link #SAMPLE_RATE}.
+     */
+    static final class Trajectory {
+
+        private final float[] displacements;
+
+        private final float[] velocities;
+
+        /**
+         * Filled by {@link #sample(float)}.
+         */
+        private float sampledDisplacement;
+
+        private float sampledVelocity;
+
+        Trajectory(@NonNull float[] displacements, @NonNull float[] velocities) {
+            this.displacements = displacements;
+            this.velocities = velocities;
+        }
+
+        /**
+         * Interpolates the trajectory at the given time.
+         *
+         * @param seconds time since release
+         * @return {@code false} if the time is past the end of the baked samples
+         */
+        boolean sample(float seconds) {
+            float position = seconds * SAMPLE_RATE;
+            int index = (int) position;
+            if (index >= displacements.length - 1) {
+                return false;
+            }
+
+            float fraction = position - index;
+            sampledDisplacement = displacements[index] + (displacements[index + 1] - displacements[index]) * fraction;
+            sampledVelocity = velocities[index] + (velocities[index + 1] - velocities[index]) * fraction;
+            return true;
+        }
+
+        /**
+         * @return displacement from the last {@link #sample(float)}, for a unit start displacement
+         */
+        float getDisplacement() {
+            return sampledDisplacement;
+        }
+
+        /**
+         * @return velocity from the last {@link #sample(float)}, for a unit start displacement
+         */
+        float getVelocity() {
+            return sampledVelocity;
+        }
+    }
+
+    private static final class Key {
+
+        private float stiffness;
+
+        private float dampingRatio;
+
+        private float relativeVelocity;
+
+        void set(float stiffness, float dampingRatio, float relativeVelocity) {
+            this.stiffness = stiffness;
+            this.dampingRatio = dampingRatio;
+            this.relativeVelocity = relativeVelocity;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+
+            Key key = (Key) o;
+            return Float.compare(key.stiffness, stiffness) == 0
+                    && Float.compare(key.dampingRatio, dampingRatio) == 0
+                    && Float.compare(key.relativeVelocity, relativeVelocity) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = Float.floatToIntBits(stiffness);
+            result = 31 * result + Float.floatToIntBits(dampingRatio);
+            result = 31 * result + Float.floatToIntBits(relativeVelocity);
+            return result;
+        }
+    }
+
+}
@@ -0,0 +1,261 @@
+package com.asadmshah.dynanimhelper;
+
+import android.support.animation.DynamicAnimation;
+import android.support.annotation.NonNull;
+import android.support.v4.view.ViewCompat;
+import android.view.View;
+
+/**
+ * Reads and writes the {@link DynamicAnimation.ViewProperty} values of a view without going through
+ * the support library, whose accessors are not visible outside of its package. Properties are
+ * resolved to an index once so that per-frame access is a plain switch.
+ */
+final class ViewProperties {
+
+    static final int TRANSLATION_X = 0;
+    static final int TRANSLATION_Y = 1;
+    static final int TRANSLATION_Z = 2;
+    static final int SCALE_X = 3;
+    static final int SCALE_Y = 4;
+    static final int ROTATION = 5;
+    static final int ROTATION_X = 6;
+    static final int ROTATION_Y = 7;
+    static final int X = 8;
+    static final int Y = 9;
+    static final int Z = 10;
+    static final int ALPHA = 11;
+    static final int SCROLL_X = 12;
+    static final int SCROLL_Y = 13;
+
+    /**
+     * Same values as the support library uses for its minimum visible changes.
+     */
+    private static final float MIN_VISIBLE_CHANGE_PIXELS = 1f;
+    private static final float MIN_VISIBLE_CHANGE_ROTATION_DEGREES = 1f / 10f;
+    private static final float MIN_VISIBLE_CHANGE_ALPHA = 1f / 256f;
+    private static final float MIN_VISIBLE_CHANGE_SCALE = 1f / 500f;
+
+    private static final String[] NAMES = {
+            "translationX", "translationY", "translationZ", "scaleX", "scaleY", "rotation", "rotationX",
+            "rotationY", "x", "y", "z", "alpha", "scrollX", "scrollY"
+    };
+
+    /**
+     * One adapter per property, indexed by the property index.
+     */
+    private static final Adapter[] ADAPTERS = new Adapter[NAMES.length];
+
+    static {
+        DynamicAnimation.ViewProperty[] properties = {
+                DynamicAnimation.TRANSLATION_X, DynamicAnimation.TRANSLATION_Y, DynamicAnimation.TRANSLATION_Z,
+                DynamicAnimation.SCALE_X, DynamicAnimation.SCALE_Y, DynamicAnimation.ROTATION,
+                DynamicAnimation.ROTATION_X, DynamicAnimation.ROTATION_Y, DynamicAnimation.X, DynamicAnimation.Y,
+                DynamicAnimation.Z, DynamicAnimation.ALPHA, DynamicAnimation.SCROLL_X, DynamicAnimation.SCROLL_Y
+        };
+        for (int i = 0; i < ADAPTERS.length; i++) {
+            ADAPTERS[i] = new Adapter(properties[i], i);
+        }
+    }
+
+    private ViewProperties() {
+    }
+
+    /**
+     * Returns the {@link FloatProperty} that reads and writes the given view property. The same
+     * instance is returned for every call, so adapters can be compared by identity.
+     *
+     * @param property the view property in question
+     * @return the adapter of the property
+     * @throws IllegalArgumentException if the property is not one of the constants in {@link DynamicAnimation}
+     */
+    @NonNull
+    static Adapter adapterOf(@NonNull DynamicAnimation.ViewProperty property) {
+        return ADAPTERS[indexOf(property)];
+    }
+
+    /**
+     * Resolves the given view property to its index.
+     *
+     * @param property the view property in question
+     * @return index of the property
+     * @throws IllegalArgumentException if the property is not one of the constants in {@link DynamicAnimation}
+     */
+    static int indexOf(@NonNull DynamicAnimation.ViewProperty property) {
+        if (property == DynamicAnimation.TRANSLATION_X) return TRANSLATION_X;
+        if (property == DynamicAnimation.TRANSLATION_Y) return TRANSLATION_Y;
+        if (property == DynamicAnimation.TRANSLATION_Z) return TRANSLATION_Z;
+        if (property == DynamicAnimation.SCALE_X) return SCALE_X;
+        if (property == DynamicAnimation.SCALE_Y) return SCALE_Y;
+        if (property == DynamicAnimation.ROTATION) return ROTATION;
+        if (property == DynamicAnimation.ROTATION_X) return ROTATION_X;
+        if (property == DynamicAnimation.ROTATION_Y) return ROTATION_Y;
+        if (property == DynamicAnimation.X) return X;
+        if (property == DynamicAnimation.Y) return Y;
+        if (property == DynamicAnimation.Z) return Z;
+        if (property == DynamicAnimation.ALPHA) return ALPHA;
+        if (property == DynamicAnimation.SCROLL_X) return SCROLL_X;
+        if (property == DynamicAnimation.SCROLL_Y) return SCROLL_Y;
+        throw new IllegalArgumentException("Unknown view property: " + property);
+    }
+
+    static float getValue(@NonNull View view, int index) {
+        switch (index) {
+            case TRANSLATION_X: return view.getTranslationX();
+            case TRANSLATION_Y: return view.getTranslationY();
+            case TRANSLATION_Z: return ViewCompat.getTranslationZ(view);
+            case SCALE_X: return view.getScaleX();
+            case SCALE_Y: return view.getScaleY();
+            case ROTATION: return view.getRotation();
+            case ROTATION_X: return view.getRotationX();
+            case ROTATION_Y: return view.getRotationY();
+            case X: return view.getX();
+            case Y: return view.getY();
+            case Z: return ViewCompat.getZ(view);
+            case ALPHA: return view.getAlpha();
+            case SCROLL_X: return view.getScrollX();
+            case SCROLL_Y: return view.getScrollY();
+            default: throw new IllegalArgumentException("Unknown view property index: " + index);
+        }
+    }
+
+    static void setValue(@NonNull View view, int index, float value) {
+        switch (index) {
+            case TRANSLATION_X: view.setTranslationX(value); break;
+            case TRANSLATION_Y: view.setTranslationY(value); break;
+            case TRANSLATION_Z: ViewCompat.setTranslationZ(view, value); break;
+            case SCALE_X: view.setScaleX(value); break;
+            case SCALE_Y: view.setScaleY(value); break;
+            case ROTATION: view.setRotation(value); break;
+            case ROTATION_X: view.setRotationX(value); break;
+            case ROTATION_Y: view.setRotationY(value); break;
+            case X: view.setX(value); break;
+            case Y: view.setY(value); break;
+            case Z: ViewCompat.setZ(view, value); break;
+            case ALPHA: view.setAlpha(value); break;
+            case SCROLL_X: view.setScrollX((int) value); break;
+            case SCROLL_Y: view.setScrollY((int) value); break;
+            default: throw new IllegalArgumentException("Unknown view property index: " + index);
+        }
+    }
+
+    /**
+     * Returns whether animating the property only changes how the view's layer is drawn, so that the
+     * view can be rendered into a hardware layer once and composited for every frame. Scrolling
+     * changes the content of the view and is not layer friendly.
+     *
+     * @param index index of the property
+     * @return {@code true} if the property can be animated on a hardware layer
+     */
+    static boolean isLayerFriendly(int index) {
+        return index != SCROLL_X && index != SCROLL_Y;
+    }
+
+    /**
+     * Returns whether the value of the property is measured in pixels.
+     *
+     * @param index index of the property
+     * @return {@code true} for translations, positions, elevations and scroll offsets
+     */
+    static boolean isPixelProperty(int index) {
+        switch (index) {
+            case SCALE_X:
+            case SCALE_Y:
+            case ROTATION:
+            case ROTATION_X:
+            case ROTATION_Y:
+            case ALPHA:
+                return false;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Converts the velocity of a gesture into the velocity of the property that follows it.
+     * Positions and translations move with the finger, and scroll offsets against it. Scales change
+     * by one for every width or height of the view the finger travels, and rotations turn the edge
+     * of the view at the speed of the finger.
+     *
+     * @param view the animated view, whose size scales and rotations are relative to
+     * @param index index of the property
+     * @param velocityX horizontal velocity of the gesture in pixels per second
+     * @param velocityY vertical velocity of the gesture in pixels per second
+     * @return velocity in the unit of the property per second, or {@code NaN} if the property doesn't
+     *         follow gestures or the view has no size yet
+     */
+    static float getGestureVelocity(@NonNull View view, int index, float velocityX, float velocityY) {
+        switch (index) {
+            case TRANSLATION_X:
+            case X:
+                return velocityX;
+            case TRANSLATION_Y:
+            case Y:
+                return velocityY;
+            case SCROLL_X:
+                return -velocityX;
+            case SCROLL_Y:
+                return -velocityY;
+            case SCALE_X:
+                return view.getWidth() > 0 ? velocityX / view.getWidth() : Float.NaN;
+            case SCALE_Y:
+                return view.getHeight() > 0 ? velocityY / view.getHeight() : Float.NaN;
+            case ROTATION:
+            case ROTATION_Y:
+                return view.getWidth() > 0 ? (float) Math.toDegrees(velocityX / (view.getWidth() / 2f)) : Float.NaN;
+            case ROTATION_X:
+                return view.getHeight() > 0 ? (float) Math.toDegrees(velocityY / (view.getHeight() / 2f)) : Float.NaN;
+            default:
+                return Float.NaN;
+        }
+    }
+
+    /**
+     * Returns the smallest change in value of the property that is visible on screen.
+     *
+     * @param index index of the property
+     * @return minimum visible change
+     */
+    static float getMinimumVisibleChange(int index) {
+        switch (index) {
+            case SCALE_X:
+            case SCALE_Y:
+                return MIN_VISIBLE_CHANGE_SCALE;
+            case ROTATION:
+            case ROTATION_X:
+            case ROTATION_Y:
+                return MIN_VISIBLE_CHANGE_ROTATION_DEGREES;
+            case ALPHA:
+                return MIN_VISIBLE_CHANGE_ALPHA;
+            default:
+                return MIN_VISIBLE_CHANGE_PIXELS;
+        }
+    }
+
+    /**
+     * {@link FloatProperty} over one of the {@link DynamicAnimation.ViewProperty} constants.
+     */
+    static final class Adapter extends FloatProperty<View> {
+
+        final DynamicAnimation.ViewProperty property;
+
+        final int index;
+
+        private Adapter(@NonNull DynamicAnimation.ViewProperty property, int index) {
+            super(NAMES[index], ViewProperties.getMinimumVisibleChange(index));
+            this.property = property;
+            this.index = index;
+        }
+
+        @Override
+        public float getValue(View view) {
+            return ViewProperties.getValue(view, index);
+        }
+
+        @Override
+        public void setValue(View view, float value) {
+            ViewProperties.setValue(view, index, value);
+        }
+
+    }
+
+}
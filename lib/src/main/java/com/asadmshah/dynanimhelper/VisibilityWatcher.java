@@ -0,0 +1,172 @@
+package com.asadmshah.dynanimhelper;
+
+import android.graphics.Rect;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+/**
+ * Tells a group when none of its views can be seen anymore and when one can be seen again. A view
+ * can't be seen while it is detached, while it or its window isn't visible, or while it is scrolled
+ * or clipped entirely out of its parents.
+ *
+ * <p>Detaching is reported right away. Everything else is checked before every draw of the window
+ * the views are in, which the window does once more when it is hidden, for example when its activity
+ * is stopped. All listeners are only registered while {@link #start()} is in effect, so a group
+ * that isn't running costs nothing per frame and leaves nothing behind on its views, even if they
+ * are recycled and bound to another group.</p>
+ *
+ * @see SpringAnimationGroup.Builder#setVisibilityPolicy(int)
+ */
+final class VisibilityWatcher implements View.OnAttachStateChangeListener, ViewTreeObserver.OnPreDrawListener {
+
+    interface Callback {
+
+        /**
+         * Called when none of the views can be seen anymore.
+         */
+        void onHidden();
+
+        /**
+         * Called when one of the views can be seen again after {@link #onHidden()}.
+         */
+        void onShown();
+    }
+
+    private final View[] views;
+
+    private final Callback callback;
+
+    private final Rect visibleRect = new Rect();
+
+    /**
+     * The view whose window the pre-draw listener is registered with, or {@code null} if it isn't
+     * registered.
+     */
+    @Nullable
+    private View observedView;
+
+    private boolean watching;
+
+    private boolean hidden;
+
+    VisibilityWatcher(@NonNull View[] views, @NonNull Callback callback) {
+        this.views = views;
+        this.callback = callback;
+    }
+
+    /**
+     * Starts reporting changes. If none of the views is attached, {@link Callback#onHidden()} is
+     * called right away. Otherwise the views are assumed to be seen until the next draw shows
+     * otherwise.
+     */
+    void start() {
+        if (watching) {
+            return;
+        }
+        watching = true;
+        hidden = false;
+        for (View view : views) {
+            view.addOnAttachStateChangeListener(this);
+        }
+        observe(null);
+        if (observedView == null) {
+            // No window will draw the views until one of them is attached.
+            setHidden(true);
+        }
+    }
+
+    /**
+     * Stops reporting changes and removes every listener from the views and their window.
+     */
+    void stop() {
+        if (!watching) {
+            return;
+        }
+        watching = false;
+        hidden = false;
+        for (View view : views) {
+            view.removeOnAttachStateChangeListener(this);
+        }
+        unobserve();
+    }
+
+    /**
+     * @return whether {@link Callback#onHidden()} was called last
+     */
+    boolean isHidden() {
+        return hidden;
+    }
+
+    @Override
+    public boolean onPreDraw() {
+        if (watching) {
+            setHidden(!isAnyViewVisible());
+        }
+        return true;
+    }
+
+    @Override
+    public void onViewAttachedToWindow(View view) {
+        if (observedView == null) {
+            // Shown again once the window draws the view.
+            observe(null);
+        }
+    }
+
+    @Override
+    public void onViewDetachedFromWindow(View view) {
+        if (view == observedView) {
+            unobserve();
+            observe(view);
+        }
+        if (observedView == null) {
+            setHidden(true);
+        }
+    }
+
+    private void setHidden(boolean hidden) {
+        if (this.hidden == hidden) {
+            return;
+        }
+        this.hidden = hidden;
+        if (hidden) {
+            callback.onHidden();
+        } else {
+            callback.onShown();
+        }
+    }
+
+    /**
+     * Registers the pre-draw listener with the window of the first attached view.
+     *
+     * @param excluded a view that is being detached and must not be used
+     */
+    private void observe(@Nullable View excluded) {
+        for (View view : views) {
+            if (view != excluded && view.getWindowToken() != null) {
+                observedView = view;
+                view.getViewTreeObserver().addOnPreDrawListener(this);
+                return;
+            }
+        }
+    }
+
+    private void unobserve() {
+        if (observedView != null) {
+            observedView.getViewTreeObserver().removeOnPreDrawListener(this);
+            observedView = null;
+        }
+    }
+
+    private boolean isAnyViewVisible() {
+        for (View view : views) {
+            if (view.getWindowVisibility() == View.VISIBLE && view.isShown() && view.getGlobalVisibleRect(visibleRect)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
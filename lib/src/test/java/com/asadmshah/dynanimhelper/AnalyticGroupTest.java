@@ -0,0 +1,456 @@
+package com.asadmshah.dynanimhelper;
+
+import android.content.Context;
+import android.support.animation.DynamicAnimation;
+import android.support.animation.SpringForce;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class AnalyticGroupTest {
+
+    private final ManualFrameScheduler scheduler = new ManualFrameScheduler();
+
+    private final TestProperty first = new TestProperty("first");
+
+    private final TestProperty second = new TestProperty("second");
+
+    private final EndCounter endCounter = new EndCounter();
+
+    private View view;
+
+    @Before
+    public void setUp() {
+        view = new View((Context) null);
+    }
+
+    @Test
+    public void landsExactlyOnFinalPositions() {
+        SpringAnimationGroup group = SpringAnimationGroup
+                .from(view)
+                .setEngine(SpringAnimationGroup.ENGINE_ANALYTIC)
+                .setFrameScheduler(scheduler)
+                .setStartValue(first, 0f)
+                .setFinalPosition(first, 123.4f)
+                .setStartValue(second, 10f)
+                .setFinalPosition(second, -5.5f)
+                .build();
+        group.addEndListener(endCounter);
+
+        group.start();
+        scheduler.runUntilIdle(ManualFrameScheduler.FRAME_INTERVAL_60HZ, 1000);
+
+        assertFalse(group.isRunning());
+        assertEquals(123.4f, first.value, 0f);
+        assertEquals(-5.5f, second.value, 0f);
+        assertEquals(1, endCounter.ends);
+        assertFalse(endCounter.canceled);
+    }
+
+    @Test
+    public void endListenerFiresOnceForBouncySprings() {
+        SpringAnimationGroup group = SpringAnimationGroup
+                .from(view)
+                .setEngine(SpringAnimationGroup.ENGINE_ANALYTIC)
+                .setFrameScheduler(scheduler)
+                .setDampingRatio(0.2f)
+                .setStiffness(50f)
+                .setStartValue(first, 0f)
+                .setFinalPosition(first, 1f)
+                .setStartValue(second, 0f)
+                .setFinalPosition(second, 300f)
+                .build();
+        group.addEndListener(endCounter);
+
+        group.start();
+        int frames = scheduler.runUntilIdle(ManualFrameScheduler.FRAME_INTERVAL_60HZ, 10000);
+
+        assertTrue(frames < 10000);
+        assertEquals(1f, first.value, 0f);
+        assertEquals(300f, second.value, 0f);
+        assertEquals(1, endCounter.ends);
+    }
+
+    @Test
+    public void groupEndsOnceItsLastPropertySettles() {
+        SpringAnimationGroup group = SpringAnimationGroup
+                .from(view)
+                .setEngine(SpringAnimationGroup.ENGINE_ANALYTIC)
+                .setFrameScheduler(scheduler)
+                .setStiffness(first, 1500f)
+                .setStiffness(second, 50f)
+                .setStartValue(first, 0f)
+                .setFinalPosition(first, 100f)
+                .setStartValue(second, 0f)
+                .setFinalPosition(second, 100f)
+                .build();
+        group.addEndListener(endCounter);
+
+        group.start();
+        int firstSettledFrame = -1;
+        int endFrame = -1;
+        for (int frame = 1; scheduler.hasPendingFrame() && frame < 1000; frame++) {
+            scheduler.advance(ManualFrameScheduler.FRAME_INTERVAL_60HZ);
+            if (firstSettledFrame < 0 && first.value == 100f) {
+                firstSettledFrame = frame;
+            }
+            if (endFrame < 0 && endCounter.ends > 0) {
+                endFrame = frame;
+            }
+            // Still running while any property moves, no matter which one was added first.
+            assertEquals(endCounter.ends == 0, group.isRunning());
+        }
+        scheduler.advance(ManualFrameScheduler.FRAME_INTERVAL_60HZ);
+
+        assertTrue(firstSettledFrame > 0);
+        assertTrue(endFrame > firstSettledFrame);
+        assertEquals(100f, second.value, 0f);
+        assertEquals(1, endCounter.ends);
+        assertFalse(endCounter.canceled);
+    }
+
+    @Test
+    public void settlingSnapsEveryPropertyInTheSameFrame() {
+        TestView settling = new TestView(true);
+        SpringAnimationGroup group = newSettlingGroup(settling, scheduler).setSettleThreshold(1f, 100f).build();
+        group.addEndListener(endCounter);
+        TestView unsettled = new TestView(true);
+        ManualFrameScheduler unsettledScheduler = new ManualFrameScheduler();
+        SpringAnimationGroup unsettledGroup = newSettlingGroup(unsettled, unsettledScheduler).build();
+
+        group.start();
+        int settledFrame = -1;
+        for (int frame = 1; scheduler.hasPendingFrame() && frame < 1000; frame++) {
+            scheduler.advance(ManualFrameScheduler.FRAME_INTERVAL_60HZ);
+            boolean xSettled = settling.getTranslationX() == 300f;
+            boolean ySettled = settling.getTranslationY() == 100f;
+            assertEquals(xSettled, ySettled);
+            if (settledFrame < 0 && xSettled) {
+                settledFrame = frame;
+            }
+        }
+        unsettledGroup.start();
+        int unsettledFrames = unsettledScheduler.runUntilIdle(ManualFrameScheduler.FRAME_INTERVAL_60HZ, 1000);
+
+        assertTrue(settledFrame > 0);
+        assertTrue(settledFrame < unsettledFrames - 1);
+        assertEquals(1, endCounter.ends);
+        assertFalse(endCounter.canceled);
+    }
+
+    @Test
+    public void cancelEndsOnceWithoutReachingFinalPosition() {
+        SpringAnimationGroup group = SpringAnimationGroup
+                .from(view)
+                .setEngine(SpringAnimationGroup.ENGINE_ANALYTIC)
+                .setFrameScheduler(scheduler)
+                .setStartValue(first, 0f)
+                .setFinalPosition(first, 100f)
+                .build();
+        group.addEndListener(endCounter);
+
+        group.start();
+        scheduler.advance(ManualFrameScheduler.FRAME_INTERVAL_60HZ);
+        scheduler.advance(ManualFrameScheduler.FRAME_INTERVAL_60HZ);
+        group.cancel();
+        scheduler.runUntilIdle(ManualFrameScheduler.FRAME_INTERVAL_60HZ, 1000);
+
+        assertEquals(1, endCounter.ends);
+        assertTrue(endCounter.canceled);
+        assertTrue(first.value > 0f && first.value < 100f);
+    }
+
+    @Test
+    public void resultDoesNotDependOnFrameRate() {
+        TestProperty slow = new TestProperty("slow");
+        ManualFrameScheduler slowScheduler = new ManualFrameScheduler();
+        SpringAnimationGroup fastGroup = SpringAnimationGroup
+                .from(view)
+                .setEngine(SpringAnimationGroup.ENGINE_ANALYTIC)
+                .setFrameScheduler(scheduler)
+                .setStartValue(first, 0f)
+                .setFinalPosition(first, 100f)
+                .build();
+        SpringAnimationGroup slowGroup = SpringAnimationGroup
+                .from(view)
+                .setEngine(SpringAnimationGroup.ENGINE_ANALYTIC)
+                .setFrameScheduler(slowScheduler)
+                .setStartValue(slow, 0f)
+                .setFinalPosition(slow, 100f)
+                .build();
+
+        fastGroup.start();
+        slowGroup.start();
+        // Both start on their first frame, then run the same 100 ms at 60 and 20 Hz.
+        scheduler.doFrame(1);
+        slowScheduler.doFrame(1);
+        for (int i = 0; i < 6; i++) {
+            scheduler.advance(ManualFrameScheduler.FRAME_INTERVAL_60HZ);
+        }
+        for (int i = 0; i < 2; i++) {
+            slowScheduler.advance(ManualFrameScheduler.FRAME_INTERVAL_60HZ * 3);
+        }
+
+        assertEquals(first.value, slow.value, 1e-3f);
+    }
+
+    @Test
+    public void cappedGroupWritesTheUncappedTrajectory() {
+        SpringAnimationGroup capped = SpringAnimationGroup
+                .from(view)
+                .setEngine(SpringAnimationGroup.ENGINE_ANALYTIC)
+                .setFrameScheduler(scheduler)
+                .setMaxFrameRate(30f)
+                .setDampingRatio(0.4f)
+                .setStartValue(first, 0f)
+                .setFinalPosition(first, 100f)
+                .build();
+        SpringAnimationGroup uncapped = SpringAnimationGroup
+                .from(view)
+                .setEngine(SpringAnimationGroup.ENGINE_ANALYTIC)
+                .setFrameScheduler(scheduler)
+                .setDampingRatio(0.4f)
+                .setStartValue(second, 0f)
+                .setFinalPosition(second, 100f)
+                .build();
+        EndCounter uncappedEnd = new EndCounter();
+        capped.addEndListener(endCounter);
+        uncapped.addEndListener(uncappedEnd);
+
+        capped.start();
+        uncapped.start();
+        int skippedFrames = 0;
+        for (int frames = 0; scheduler.hasPendingFrame() && frames < 1000; frames++) {
+            int writes = first.writes;
+            scheduler.advance(ManualFrameScheduler.FRAME_INTERVAL_60HZ);
+            if (first.writes > writes) {
+                // Whatever frame it writes, it shows where the spring is at that time.
+                assertEquals(second.value, first.value, 1e-3f);
+            } else {
+                skippedFrames++;
+            }
+            assertEquals(uncappedEnd.ends, endCounter.ends);
+        }
+
+        assertTrue(skippedFrames > 1);
+        assertTrue(first.writes < second.writes);
+        assertEquals(100f, first.value, 0f);
+        assertEquals(1, endCounter.ends);
+    }
+
+    @Test
+    public void bulkRetargetsInOneFrameApplyOnlyTheLast() {
+        TestProperty directFirst = new TestProperty("directFirst");
+        TestProperty directSecond = new TestProperty("directSecond");
+        SpringAnimationGroup retargeted = newPair(first, second).build();
+        SpringAnimationGroup direct = newPair(directFirst, directSecond).build();
+        retargeted.addEndListener(endCounter);
+
+        retargeted.start();
+        direct.start();
+        for (int i = 0; i < 5; i++) {
+            scheduler.advance(ManualFrameScheduler.FRAME_INTERVAL_60HZ);
+        }
+        // Several touch events within one frame.
+        retargeted.animateToFinalPositions(new float[] { -40f, 250f });
+        retargeted.animateToFinalPositions(new float[] { 250f, -40f });
+        retargeted.animateToFinalPositions(new float[] { 60f, 30f });
+        direct.animateToFinalPositions(new float[] { 60f, 30f });
+
+        for (int frames = 0; scheduler.hasPendingFrame() && frames < 1000; frames++) {
+            scheduler.advance(ManualFrameScheduler.FRAME_INTERVAL_60HZ);
+            assertEquals(directFirst.value, first.value, 0f);
+            assertEquals(directSecond.value, second.value, 0f);
+        }
+
+        assertEquals(60f, first.value, 0f);
+        assertEquals(30f, second.value, 0f);
+        assertEquals(1, endCounter.ends);
+    }
+
+    @Test
+    public void indicesFollowBuilderOrder() {
+        TestProperty[] properties = new TestProperty[16];
+        SpringAnimationGroup.Builder builder = SpringAnimationGroup
+                .from(view)
+                .setEngine(SpringAnimationGroup.ENGINE_ANALYTIC)
+                .setFrameScheduler(scheduler);
+        for (int i = 0; i < properties.length; i++) {
+            properties[i] = new TestProperty("property" + i);
+            builder.setFinalPosition(properties[i], i);
+        }
+        SpringAnimationGroup group = builder.build();
+
+        for (int i = 0; i < properties.length; i++) {
+            assertSame(properties[i], group.getFloatProperty(i));
+        }
+    }
+
+    @Test
+    public void updateListenerGetsEveryPropertyOncePerFrame() {
+        TestProperty third = new TestProperty("third");
+        SpringAnimationGroup group = SpringAnimationGroup
+                .from(view)
+                .setEngine(SpringAnimationGroup.ENGINE_ANALYTIC)
+                .setFrameScheduler(scheduler)
+                .setStartValue(second, 0f)
+                .setFinalPosition(second, 50f)
+                .setStartValue(first, 0f)
+                .setFinalPosition(first, -20f)
+                .setStartValue(third, 10f)
+                .setFinalPosition(third, 300f)
+                .build();
+        final TestProperty[] order = { second, first, third };
+        final float[][] arrays = new float[2][];
+        final int[] updates = new int[1];
+        group.addUpdateListener(new SpringAnimationGroup.OnGroupAnimationUpdateListener() {
+            @Override
+            public void onGroupAnimationUpdate(SpringAnimationGroup group, float[] values, float[] velocities) {
+                if (arrays[0] == null) {
+                    arrays[0] = values;
+                    arrays[1] = velocities;
+                }
+                assertSame(arrays[0], values);
+                assertSame(arrays[1], velocities);
+                assertEquals(order.length, values.length);
+                for (int i = 0; i < order.length; i++) {
+                    assertEquals(order[i].value, values[i], 0f);
+                }
+                updates[0]++;
+            }
+        });
+
+        group.start();
+        int frames = 0;
+        while (scheduler.hasPendingFrame() && frames < 1000) {
+            int before = updates[0];
+            scheduler.advance(ManualFrameScheduler.FRAME_INTERVAL_60HZ);
+            frames++;
+            assertTrue(updates[0] - before <= 1);
+        }
+
+        assertTrue(updates[0] > 1);
+        assertEquals(300f, arrays[0][2], 0f);
+        assertEquals(0f, arrays[1][2], 0f);
+    }
+
+    @Test
+    public void laterBuildsSeeChangesToTheBuilder() {
+        SpringAnimationGroup.Builder builder = SpringAnimationGroup
+                .from(view)
+                .setEngine(SpringAnimationGroup.ENGINE_ANALYTIC)
+                .setFrameScheduler(scheduler)
+                .setFinalPosition(first, 10f);
+        SpringAnimationGroup firstGroup = builder.build();
+        SpringAnimationGroup secondGroup = builder
+                .setStartValue(first, 5f)
+                .setFinalPosition(second, 20f)
+                .build();
+
+        assertEquals(1, firstGroup.getPropertyCount());
+        assertEquals(2, secondGroup.getPropertyCount());
+
+        secondGroup.start();
+        scheduler.runUntilIdle(ManualFrameScheduler.FRAME_INTERVAL_60HZ, 1000);
+
+        assertEquals(10f, first.value, 0f);
+        assertEquals(20f, second.value, 0f);
+    }
+
+    @Test
+    public void builtGroupsDontSeeLaterChangesToTheBuilder() {
+        SpringForce spring = new SpringForce(10f).setStiffness(800f);
+        SpringAnimationGroup.Builder builder = SpringAnimationGroup
+                .from(view)
+                .setEngine(SpringAnimationGroup.ENGINE_ANALYTIC)
+                .setFrameScheduler(scheduler)
+                .setSpring(first, spring);
+        SpringAnimationGroup group = builder.build();
+
+        spring.setStiffness(50f);
+        builder.setFinalPosition(first, 20f);
+
+        assertNotSame(spring, group.getSpring(first));
+        assertEquals(800f, group.getSpring(first).getStiffness(), 0f);
+        assertEquals(10f, group.getSpring(first).getFinalPosition(), 0f);
+        assertEquals(50f, builder.build().getSpring(first).getStiffness(), 0f);
+    }
+
+    @Test
+    public void couplingLeavesTheCallersSpringsAlone() {
+        SpringForce firstSpring = new SpringForce(1f).setStiffness(800f);
+        SpringForce secondSpring = new SpringForce(1f).setStiffness(200f);
+        SpringAnimationGroup group = SpringAnimationGroup
+                .from(view)
+                .setEngine(SpringAnimationGroup.ENGINE_ANALYTIC)
+                .setFrameScheduler(scheduler)
+                .setSpring(first, firstSpring)
+                .setSpring(second, secondSpring)
+                .setCoupled(first, second)
+                .build();
+
+        assertEquals(200f, secondSpring.getStiffness(), 0f);
+        assertEquals(800f, group.getSpring(second).getStiffness(), 0f);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void backgroundSteppingRejectsCoupledProperties() {
+        SpringAnimationGroup
+                .from(view)
+                .setEngine(SpringAnimationGroup.ENGINE_ANALYTIC)
+                .setBackgroundStepping(true)
+                .setFinalPosition(first, 1f)
+                .setFinalPosition(second, 1f)
+                .setCoupled(first, second)
+                .build();
+    }
+
+    private SpringAnimationGroup.Builder newPair(TestProperty first, TestProperty second) {
+        return SpringAnimationGroup
+                .from(view)
+                .setEngine(SpringAnimationGroup.ENGINE_ANALYTIC)
+                .setFrameScheduler(scheduler)
+                .setDampingRatio(0.5f)
+                .setStartValue(first, 0f)
+                .setFinalPosition(first, 100f)
+                .setStartValue(second, 0f)
+                .setFinalPosition(second, -100f);
+    }
+
+    /**
+     * Springs that move the same way over different distances, so that the shorter one is always
+     * closer to its final position.
+     */
+    private static SpringAnimationGroup.Builder newSettlingGroup(View view, FrameScheduler scheduler) {
+        return SpringAnimationGroup
+                .from(view)
+                .setEngine(SpringAnimationGroup.ENGINE_ANALYTIC)
+                .setFrameScheduler(scheduler)
+                .setDampingRatio(1f)
+                .setStartValue(DynamicAnimation.TRANSLATION_X, 0f)
+                .setFinalPosition(DynamicAnimation.TRANSLATION_X, 300f)
+                .setStartValue(DynamicAnimation.TRANSLATION_Y, 0f)
+                .setFinalPosition(DynamicAnimation.TRANSLATION_Y, 100f);
+    }
+
+    static final class EndCounter implements SpringAnimationGroup.OnGroupAnimationEndListener {
+
+        int ends;
+
+        boolean canceled;
+
+        @Override
+        public void onGroupAnimationEnd(SpringAnimationGroup group, boolean canceled, float value, float velocity) {
+            ends++;
+            this.canceled = canceled;
+        }
+    }
+
+}
@@ -0,0 +1,134 @@
+package com.asadmshah.dynanimhelper;
+
+import android.content.Context;
+import android.support.animation.SpringForce;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CoupledPropertiesTest {
+
+    private static final long FRAME = ManualFrameScheduler.FRAME_INTERVAL_60HZ;
+
+    private static final int MAX_FRAMES = 1000;
+
+    private final ManualFrameScheduler scheduler = new ManualFrameScheduler();
+
+    private final TestProperty first = new TestProperty("first");
+
+    private final TestProperty second = new TestProperty("second");
+
+    private final AnalyticGroupTest.EndCounter endCounter = new AnalyticGroupTest.EndCounter();
+
+    private View view;
+
+    @Before
+    public void setUp() {
+        view = new View((Context) null);
+    }
+
+    @Test
+    public void coupledPairMovesInAStraightLineAfterARetarget() {
+        SpringAnimationGroup group = newCoupledPair().build();
+        group.addEndListener(endCounter);
+
+        group.start();
+        for (int i = 0; i < 6; i++) {
+            scheduler.advance(FRAME);
+            assertOnLine();
+        }
+        // Further along the same line, while both axes are moving.
+        group.animateToFinalPosition(first, 200f);
+        group.animateToFinalPosition(second, 100f);
+
+        int firstSettledFrame = -1;
+        int secondSettledFrame = -1;
+        for (int frame = 0; scheduler.hasPendingFrame() && frame < MAX_FRAMES; frame++) {
+            scheduler.advance(FRAME);
+            assertOnLine();
+            if (firstSettledFrame < 0 && first.value == 200f) {
+                firstSettledFrame = frame;
+            }
+            if (secondSettledFrame < 0 && second.value == 100f) {
+                secondSettledFrame = frame;
+            }
+        }
+
+        assertFalse(group.isRunning());
+        assertTrue(firstSettledFrame > 0);
+        assertEquals(firstSettledFrame, secondSettledFrame);
+        assertEquals(1, endCounter.ends);
+    }
+
+    @Test
+    public void springOfTheFirstAxisDrivesBoth() {
+        SpringAnimationGroup group = newCoupledPair().build();
+
+        group.setSpring(first, new SpringForce(100f).setStiffness(300f).setDampingRatio(0.8f));
+
+        assertEquals(300f, group.getSpring(second).getStiffness(), 0f);
+        assertEquals(0.8f, group.getSpring(second).getDampingRatio(), 0f);
+        assertEquals(50f, group.getSpring(second).getFinalPosition(), 0f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void springOfTheSecondAxisIsRejected() {
+        SpringAnimationGroup group = newCoupledPair().build();
+
+        group.setSpring(second, new SpringForce(50f).setStiffness(300f));
+    }
+
+    @Test
+    public void lockedPairWritesIdenticalValues() {
+        SpringAnimationGroup group = SpringAnimationGroup
+                .from(view)
+                .setEngine(SpringAnimationGroup.ENGINE_ANALYTIC)
+                .setFrameScheduler(scheduler)
+                .setStartValue(first, 0f)
+                .setFinalPosition(first, 1.5f)
+                .setLocked(first, second)
+                .build();
+        group.addEndListener(endCounter);
+
+        group.start();
+        while (scheduler.hasPendingFrame()) {
+            scheduler.advance(FRAME);
+            assertEquals(first.value, second.value, 0f);
+            assertEquals(first.writes, second.writes);
+        }
+
+        assertEquals(1, endCounter.ends);
+        assertEquals(1.5f, second.value, 0f);
+        assertTrue(second.writes > 1);
+    }
+
+    /**
+     * Axes with springs that would move them apart if they weren't coupled, towards a final
+     * position on the line {@code second = first / 2}.
+     */
+    private SpringAnimationGroup.Builder newCoupledPair() {
+        return SpringAnimationGroup
+                .from(view)
+                .setEngine(SpringAnimationGroup.ENGINE_ANALYTIC)
+                .setFrameScheduler(scheduler)
+                .setStiffness(first, 800f)
+                .setDampingRatio(first, 0.6f)
+                .setStiffness(second, 150f)
+                .setDampingRatio(second, 1f)
+                .setStartValue(first, 0f)
+                .setFinalPosition(first, 100f)
+                .setStartValue(second, 0f)
+                .setFinalPosition(second, 50f)
+                .setCoupled(first, second);
+    }
+
+    private void assertOnLine() {
+        assertEquals(first.value / 2f, second.value, 1e-3f * Math.max(1f, Math.abs(first.value)));
+    }
+
+}
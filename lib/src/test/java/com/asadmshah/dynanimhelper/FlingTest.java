@@ -0,0 +1,122 @@
+package com.asadmshah.dynanimhelper;
+
+import android.content.Context;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FlingTest {
+
+    private static final long FRAME = ManualFrameScheduler.FRAME_INTERVAL_60HZ;
+
+    private static final float VELOCITY = 2000f;
+
+    private static final float DECAY_RATE = AnalyticPropertyAnimator.FRICTION_MULTIPLIER;
+
+    /**
+     * Where a fling at {@link #VELOCITY} with a friction of 1 stops.
+     */
+    private static final float LANDING = VELOCITY / DECAY_RATE;
+
+    private final ManualFrameScheduler scheduler = new ManualFrameScheduler();
+
+    private final TestProperty property = new TestProperty("property");
+
+    private final AnalyticGroupTest.EndCounter endCounter = new AnalyticGroupTest.EndCounter();
+
+    private View view;
+
+    @Before
+    public void setUp() {
+        view = new View((Context) null);
+    }
+
+    @Test
+    public void flingWithoutSnapPointsDecaysToWhereItStops() {
+        SpringAnimationGroup group = newFling().build();
+        group.addEndListener(endCounter);
+
+        group.start();
+        scheduler.advance(FRAME);
+        for (int frame = 1; frame <= 10; frame++) {
+            scheduler.advance(FRAME);
+            assertEquals(decayedValue(frame), property.value, 0.01f);
+        }
+        scheduler.runUntilIdle(FRAME, 1000);
+
+        assertEquals(1, endCounter.ends);
+        assertEquals(LANDING, property.value, 0f);
+    }
+
+    @Test
+    public void flingPastASnapPointHandsOffAndSpringsBack() {
+        SpringAnimationGroup group = newFling()
+                .setSnapPoints(property, 0f, 400f, 1000f)
+                .build();
+        group.addEndListener(endCounter);
+
+        group.start();
+        scheduler.advance(FRAME);
+        // The spring takes over close to the snap point, once it would brake harder than the friction.
+        int frame = 1;
+        while (decayedValue(frame) < 390f) {
+            scheduler.advance(FRAME);
+            assertEquals(decayedValue(frame), property.value, 0.01f);
+            frame++;
+        }
+        // It continues with the velocity of the decay, so the property passes the snap point first.
+        float overshoot = property.value;
+        while (scheduler.hasPendingFrame()) {
+            scheduler.advance(FRAME);
+            overshoot = Math.max(overshoot, property.value);
+        }
+
+        assertTrue(overshoot > 400f && overshoot < LANDING);
+        assertEquals(1, endCounter.ends);
+        assertEquals(400f, property.value, 0f);
+    }
+
+    @Test
+    public void flingHandsOffOnceTooSlowToBeSeen() {
+        float velocityThreshold = property.getMinimumVisibleChange()
+                * AnalyticPropertyAnimator.THRESHOLD_MULTIPLIER * AnalyticPropertyAnimator.VELOCITY_THRESHOLD_MULTIPLIER;
+        float handOffSeconds = (float) Math.log(VELOCITY / velocityThreshold) / DECAY_RATE;
+        int handOffFrame = (int) (handOffSeconds * 60f);
+        SpringAnimationGroup group = newFling().build();
+        group.addEndListener(endCounter);
+
+        group.start();
+        scheduler.advance(FRAME);
+        for (int frame = 1; frame < handOffFrame; frame++) {
+            scheduler.advance(FRAME);
+            assertEquals(decayedValue(frame), property.value, 0.01f);
+        }
+        assertTrue(group.isRunning());
+        // Handed off that slowly, the spring settles within a few frames.
+        int frames = scheduler.runUntilIdle(FRAME, 1000);
+
+        assertFalse(group.isRunning());
+        assertTrue(frames < 20);
+        assertEquals(1, endCounter.ends);
+    }
+
+    private SpringAnimationGroup.Builder newFling() {
+        return SpringAnimationGroup
+                .from(view)
+                .setEngine(SpringAnimationGroup.ENGINE_ANALYTIC)
+                .setFrameScheduler(scheduler)
+                .setStartValue(property, 0f)
+                .setStartVelocity(property, VELOCITY)
+                .setFriction(property, 1f);
+    }
+
+    private static float decayedValue(int frame) {
+        return LANDING * (1f - (float) Math.exp(-DECAY_RATE * frame / 60f));
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.asadmshah.dynanimhelper;
+
+import android.content.Context;
+import android.support.animation.DynamicAnimation;
+import android.view.View;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GestureVelocityTest {
+
+    private static final long FRAME = ManualFrameScheduler.FRAME_INTERVAL_60HZ;
+
+    private static final int MAX_FRAMES = 1000;
+
+    private static final DynamicAnimation.ViewProperty[] PROPERTIES = {
+            DynamicAnimation.TRANSLATION_X, DynamicAnimation.SCALE_X, DynamicAnimation.ROTATION,
+            DynamicAnimation.ROTATION_X, DynamicAnimation.ALPHA
+    };
+
+    private final ManualFrameScheduler scheduler = new ManualFrameScheduler();
+
+    @Test
+    public void gestureVelocityIsConvertedForEveryProperty() {
+        View seeded = newView();
+        View reference = newView();
+        SpringAnimationGroup seededGroup = newGroup(seeded).build();
+        // A 200 by 100 view whose edges follow a finger moving 400 px/s right and 300 px/s up.
+        SpringAnimationGroup referenceGroup = newGroup(reference)
+                .setStartVelocity(DynamicAnimation.TRANSLATION_X, 400f)
+                .setStartVelocity(DynamicAnimation.SCALE_X, 2f)
+                .setStartVelocity(DynamicAnimation.ROTATION, (float) Math.toDegrees(4f))
+                .setStartVelocity(DynamicAnimation.ROTATION_X, (float) Math.toDegrees(-6f))
+                .build();
+
+        seededGroup.setGestureVelocity(400f, -300f);
+        seededGroup.start();
+        referenceGroup.start();
+        for (int frames = 0; scheduler.hasPendingFrame() && frames < MAX_FRAMES; frames++) {
+            scheduler.advance(FRAME);
+            assertSameState(reference, seeded);
+        }
+
+        // Alpha has no gesture velocity, so it never left its final position.
+        assertEquals(1f, seeded.getAlpha(), 0f);
+    }
+
+    @Test
+    public void runningGroupContinuesWithTheGestureVelocity() {
+        View view = newView();
+        SpringAnimationGroup group = newGroup(view).build();
+
+        group.start();
+        scheduler.advance(FRAME);
+        group.setGestureVelocity(0f, 3000f);
+        scheduler.advance(FRAME);
+        scheduler.advance(FRAME);
+
+        // Pushed down and towards the viewer from rest, within two frames.
+        assertTrue(view.getRotationX() > 10f);
+        assertEquals(0f, view.getTranslationX(), 0f);
+        scheduler.runUntilIdle(FRAME, MAX_FRAMES);
+        assertEquals(0f, view.getRotationX(), 0f);
+    }
+
+    private static void assertSameState(View expected, View actual) {
+        assertEquals(expected.getTranslationX(), actual.getTranslationX(), 1e-3f);
+        assertEquals(expected.getScaleX(), actual.getScaleX(), 1e-5f);
+        assertEquals(expected.getRotation(), actual.getRotation(), 1e-3f);
+        assertEquals(expected.getRotationX(), actual.getRotationX(), 1e-3f);
+        assertEquals(expected.getAlpha(), actual.getAlpha(), 0f);
+    }
+
+    private static View newView() {
+        View view = new View((Context) null);
+        view.layout(0, 0, 200, 100);
+        return view;
+    }
+
+    private SpringAnimationGroup.Builder newGroup(View view) {
+        SpringAnimationGroup.Builder builder = SpringAnimationGroup
+                .from(view)
+                .setEngine(SpringAnimationGroup.ENGINE_ANALYTIC)
+                .setFrameScheduler(scheduler);
+        for (DynamicAnimation.ViewProperty property : PROPERTIES) {
+            float rest = property == DynamicAnimation.SCALE_X || property == DynamicAnimation.ALPHA ? 1f : 0f;
+            builder.setStartValue(property, rest).setFinalPosition(property, rest);
+        }
+        return builder;
+    }
+
+}
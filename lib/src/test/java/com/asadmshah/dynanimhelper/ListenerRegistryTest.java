@@ -0,0 +1,184 @@
+package com.asadmshah.dynanimhelper;
+
+import android.content.Context;
+import android.support.animation.DynamicAnimation;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ListenerRegistryTest {
+
+    private static final long FRAME = ManualFrameScheduler.FRAME_INTERVAL_60HZ;
+
+    private static final int MAX_FRAMES = 1000;
+
+    private static final DynamicAnimation.ViewProperty X = DynamicAnimation.TRANSLATION_X;
+
+    private static final DynamicAnimation.ViewProperty Y = DynamicAnimation.TRANSLATION_Y;
+
+    private final ManualFrameScheduler scheduler = new ManualFrameScheduler();
+
+    private View view;
+
+    @Before
+    public void setUp() {
+        view = new View((Context) null);
+    }
+
+    @Test
+    public void listenerRemovedFromOnePropertyKeepsTheOther() {
+        SpringAnimationGroup group = newGroup();
+        PropertyCounter counter = new PropertyCounter();
+        group.addUpdateListener(X, counter);
+        group.addUpdateListener(Y, counter);
+        group.addEndListener(X, counter);
+        group.addEndListener(Y, counter);
+
+        group.removeUpdateListener(X, counter);
+        group.removeEndListener(X, counter);
+        group.start();
+        int frames = scheduler.runUntilIdle(FRAME, MAX_FRAMES);
+
+        assertEquals(0, counter.xUpdates);
+        assertEquals(0, counter.xEnds);
+        assertTrue(counter.yUpdates > 1 && counter.yUpdates <= frames);
+        assertEquals(1, counter.yEnds);
+    }
+
+    @Test
+    public void listenerRemovedDuringDispatchStopsFromTheNextFrame() {
+        SpringAnimationGroup group = newGroup();
+        final PropertyCounter other = new PropertyCounter();
+        final int[] updates = new int[1];
+        group.addUpdateListener(Y, new SpringAnimationGroup.OnPropertyAnimationUpdateListener() {
+            @Override
+            public void onPropertyAnimationUpdate(SpringAnimationGroup group, DynamicAnimation.ViewProperty property, float value, float velocity) {
+                updates[0]++;
+                group.removeUpdateListener(Y, this);
+            }
+        });
+        group.addUpdateListener(Y, other);
+
+        group.start();
+        scheduler.runUntilIdle(FRAME, MAX_FRAMES);
+
+        assertEquals(1, updates[0]);
+        // The listener after it is still called in the frame it was removed in, and every later one.
+        assertTrue(other.yUpdates > 1);
+        assertEquals(0, other.xUpdates);
+    }
+
+    @Test
+    public void listenerAddedDuringDispatchIsCalledFromTheNextEnd() {
+        SpringAnimationGroup group = SpringAnimationGroup
+                .from(view)
+                .setEngine(SpringAnimationGroup.ENGINE_ANALYTIC)
+                .setFrameScheduler(scheduler)
+                .setStartValue(X, 0f)
+                .setFinalPosition(X, 100f)
+                .build();
+        final PropertyCounter added = new PropertyCounter();
+        group.addEndListener(X, new SpringAnimationGroup.OnPropertyAnimationEndListener() {
+            @Override
+            public void onPropertyAnimationEnd(SpringAnimationGroup group, DynamicAnimation.ViewProperty property, boolean canceled, float value, float velocity) {
+                group.addEndListener(X, added);
+            }
+        });
+
+        group.start();
+        scheduler.runUntilIdle(FRAME, MAX_FRAMES);
+        assertEquals(0, added.xEnds);
+
+        group.animateToFinalPosition(X, 0f);
+        scheduler.runUntilIdle(FRAME, MAX_FRAMES);
+        assertEquals(1, added.xEnds);
+    }
+
+    @Test
+    public void changesDuringDispatchLeaveTheWalkedArraysAlone() {
+        ListenerRegistry registry = new ListenerRegistry();
+        Object first = new Object();
+        Object second = new Object();
+        registry.add(X, first);
+        registry.add(Y, second);
+
+        registry.beginDispatch();
+        Object[] listeners = registry.listeners();
+        DynamicAnimation.ViewProperty[] properties = registry.properties();
+        registry.remove(X, first);
+        registry.add(X, second);
+        registry.endDispatch();
+
+        assertSame(first, listeners[0]);
+        assertSame(X, properties[0]);
+        assertSame(second, listeners[1]);
+        assertEquals(2, registry.size());
+        assertSame(second, registry.listeners()[0]);
+        assertSame(Y, registry.properties()[0]);
+        assertSame(X, registry.properties()[1]);
+    }
+
+    @Test
+    public void pairsAreAddedAndRemovedOnce() {
+        ListenerRegistry registry = new ListenerRegistry();
+        Object listener = new Object();
+
+        assertTrue(registry.add(X, listener));
+        assertFalse(registry.add(X, listener));
+        assertTrue(registry.add(Y, listener));
+        assertTrue(registry.remove(X, listener));
+        assertFalse(registry.remove(X, listener));
+
+        assertFalse(registry.contains(X));
+        assertTrue(registry.contains(Y));
+        assertEquals(1, registry.size());
+    }
+
+    private SpringAnimationGroup newGroup() {
+        return SpringAnimationGroup
+                .from(view)
+                .setEngine(SpringAnimationGroup.ENGINE_ANALYTIC)
+                .setFrameScheduler(scheduler)
+                .setStartValue(X, 0f)
+                .setFinalPosition(X, 100f)
+                .setStartValue(Y, 0f)
+                .setFinalPosition(Y, 50f)
+                .build();
+    }
+
+    private static final class PropertyCounter implements SpringAnimationGroup.OnPropertyAnimationUpdateListener, SpringAnimationGroup.OnPropertyAnimationEndListener {
+
+        int xUpdates;
+
+        int yUpdates;
+
+        int xEnds;
+
+        int yEnds;
+
+        @Override
+        public void onPropertyAnimationUpdate(SpringAnimationGroup group, DynamicAnimation.ViewProperty property, float value, float velocity) {
+            if (property == X) {
+                xUpdates++;
+            } else if (property == Y) {
+                yUpdates++;
+            }
+        }
+
+        @Override
+        public void onPropertyAnimationEnd(SpringAnimationGroup group, DynamicAnimation.ViewProperty property, boolean canceled, float value, float velocity) {
+            if (property == X) {
+                xEnds++;
+            } else if (property == Y) {
+                yEnds++;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,233 @@
+package com.asadmshah.dynanimhelper;
+
+import android.content.Context;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ManualFrameSchedulerTest {
+
+    private static final long FRAME = ManualFrameScheduler.FRAME_INTERVAL_60HZ;
+
+    private static final int MAX_FRAMES = 1000;
+
+    private View view;
+
+    @Before
+    public void setUp() {
+        view = new View((Context) null);
+    }
+
+    @Test
+    public void producesFramesOnlyWhileGroupsRun() {
+        ManualFrameScheduler scheduler = new ManualFrameScheduler();
+        TestProperty property = new TestProperty("property");
+        SpringAnimationGroup group = newGroup(scheduler, property).build();
+
+        assertFalse(scheduler.hasPendingFrame());
+        group.start();
+        assertTrue(scheduler.hasPendingFrame());
+
+        int frames = scheduler.runUntilIdle(FRAME, MAX_FRAMES);
+
+        assertTrue(frames > 1 && frames < MAX_FRAMES);
+        assertFalse(scheduler.hasPendingFrame());
+        assertEquals(frames * FRAME, scheduler.getFrameTimeNanos());
+    }
+
+    @Test
+    public void endFiresExactlyOnce() {
+        ManualFrameScheduler scheduler = new ManualFrameScheduler();
+        TestProperty property = new TestProperty("property");
+        AnalyticGroupTest.EndCounter endCounter = new AnalyticGroupTest.EndCounter();
+        SpringAnimationGroup group = newGroup(scheduler, property).build();
+        group.addEndListener(endCounter);
+
+        group.start();
+        scheduler.runUntilIdle(FRAME, MAX_FRAMES);
+        // Frames after the end must not end the group again.
+        scheduler.advance(FRAME);
+        scheduler.advance(FRAME);
+
+        assertEquals(1, endCounter.ends);
+        assertEquals(100f, property.value, 0f);
+    }
+
+    @Test
+    public void retargetsInOneFrameCoalesceToTheLast() {
+        ManualFrameScheduler scheduler = new ManualFrameScheduler();
+        TestProperty retargeted = new TestProperty("retargeted");
+        TestProperty direct = new TestProperty("direct");
+        SpringAnimationGroup retargetedGroup = newGroup(scheduler, retargeted).build();
+        SpringAnimationGroup directGroup = newGroup(scheduler, direct).build();
+
+        retargetedGroup.start();
+        directGroup.start();
+        for (int i = 0; i < 5; i++) {
+            scheduler.advance(FRAME);
+        }
+
+        retargetedGroup.animateToFinalPosition(retargeted, -40f);
+        retargetedGroup.animateToFinalPosition(retargeted, 250f);
+        retargetedGroup.animateToFinalPosition(retargeted, 60f);
+        directGroup.animateToFinalPosition(direct, 60f);
+
+        int frames = 0;
+        while (scheduler.hasPendingFrame() && frames++ < MAX_FRAMES) {
+            scheduler.advance(FRAME);
+            assertEquals(direct.value, retargeted.value, 0f);
+        }
+        assertEquals(60f, retargeted.value, 0f);
+    }
+
+    @Test
+    public void pausedGroupHoldsItsTrajectory() {
+        ManualFrameScheduler scheduler = new ManualFrameScheduler();
+        TestProperty paused = new TestProperty("paused");
+        AnalyticGroupTest.EndCounter endCounter = new AnalyticGroupTest.EndCounter();
+        SpringAnimationGroup group = newGroup(scheduler, paused).build();
+        group.addEndListener(endCounter);
+
+        ManualFrameScheduler referenceScheduler = new ManualFrameScheduler();
+        TestProperty reference = new TestProperty("reference");
+        SpringAnimationGroup referenceGroup = newGroup(referenceScheduler, reference).build();
+
+        group.start();
+        referenceGroup.start();
+        for (int i = 0; i < 8; i++) {
+            scheduler.advance(FRAME);
+            referenceScheduler.advance(FRAME);
+        }
+
+        group.pause();
+        float heldValue = paused.value;
+        int heldWrites = paused.writes;
+        // The frame that was already requested still comes, but asks for no further ones.
+        scheduler.advance(FRAME * 600);
+        assertFalse(scheduler.hasPendingFrame());
+        assertEquals(heldWrites, paused.writes);
+
+        group.resume();
+        assertTrue(group.isRunning());
+        // The first frame after resuming continues from where the spring was held.
+        scheduler.advance(FRAME);
+        assertEquals(heldValue, paused.value, 0f);
+
+        int frames = 0;
+        while (scheduler.hasPendingFrame() && frames++ < MAX_FRAMES) {
+            scheduler.advance(FRAME);
+            referenceScheduler.advance(FRAME);
+            assertEquals(reference.value, paused.value, 1e-3f);
+        }
+        assertFalse(referenceScheduler.hasPendingFrame());
+        assertEquals(100f, paused.value, 0f);
+        assertEquals(1, endCounter.ends);
+    }
+
+    @Test
+    public void cappedGroupEndsWithUncappedOne() {
+        ManualFrameScheduler scheduler = new ManualFrameScheduler();
+        TestProperty capped = new TestProperty("capped");
+        TestProperty uncapped = new TestProperty("uncapped");
+        AnalyticGroupTest.EndCounter cappedEnd = new AnalyticGroupTest.EndCounter();
+        AnalyticGroupTest.EndCounter uncappedEnd = new AnalyticGroupTest.EndCounter();
+        SpringAnimationGroup cappedGroup = newGroup(scheduler, capped).setMaxFrameRate(20f).build();
+        SpringAnimationGroup uncappedGroup = newGroup(scheduler, uncapped).build();
+        cappedGroup.addEndListener(cappedEnd);
+        uncappedGroup.addEndListener(uncappedEnd);
+
+        cappedGroup.start();
+        uncappedGroup.start();
+
+        int frames = 0;
+        int cappedEndFrame = -1;
+        int uncappedEndFrame = -1;
+        while (scheduler.hasPendingFrame() && frames < MAX_FRAMES) {
+            scheduler.advance(FRAME);
+            frames++;
+            if (cappedEndFrame < 0 && cappedEnd.ends > 0) {
+                cappedEndFrame = frames;
+            }
+            if (uncappedEndFrame < 0 && uncappedEnd.ends > 0) {
+                uncappedEndFrame = frames;
+            }
+        }
+
+        assertTrue(uncappedEndFrame > 0);
+        assertEquals(uncappedEndFrame, cappedEndFrame);
+        assertEquals(1, cappedEnd.ends);
+        assertEquals(uncapped.value, capped.value, 0f);
+        assertTrue(capped.writes < uncapped.writes);
+    }
+
+    @Test
+    public void clientReregisteredDuringDispatchStepsOncePerFrame() {
+        final ManualFrameScheduler scheduler = new ManualFrameScheduler();
+        final CountingClient stepped = new CountingClient();
+        final CountingClient waiting = new CountingClient();
+        // Re-registers one client that was already stepped in this frame, and one that wasn't yet.
+        FrameScheduler.Client restarter = new FrameScheduler.Client() {
+            @Override
+            boolean doAnimationFrame(long frameTimeNanos) {
+                scheduler.unregister(stepped);
+                scheduler.register(stepped);
+                scheduler.unregister(waiting);
+                scheduler.register(waiting);
+                return true;
+            }
+        };
+        scheduler.register(stepped);
+        scheduler.register(restarter);
+        scheduler.register(waiting);
+
+        for (int i = 1; i <= 3; i++) {
+            scheduler.advance(FRAME);
+
+            assertEquals(i, stepped.frames);
+            assertEquals(i, waiting.frames);
+        }
+    }
+
+    @Test
+    public void clientReregisteredAfterAFrameIsStepped() {
+        ManualFrameScheduler scheduler = new ManualFrameScheduler();
+        CountingClient client = new CountingClient();
+        scheduler.register(client);
+        scheduler.advance(FRAME);
+
+        scheduler.unregister(client);
+        scheduler.advance(FRAME);
+        scheduler.register(client);
+        scheduler.register(client);
+        scheduler.advance(FRAME);
+
+        assertEquals(2, client.frames);
+    }
+
+    private SpringAnimationGroup.Builder newGroup(ManualFrameScheduler scheduler, TestProperty property) {
+        return SpringAnimationGroup
+                .from(view)
+                .setEngine(SpringAnimationGroup.ENGINE_ANALYTIC)
+                .setFrameScheduler(scheduler)
+                .setDampingRatio(0.5f)
+                .setStartValue(property, 0f)
+                .setFinalPosition(property, 100f);
+    }
+
+    private static final class CountingClient extends FrameScheduler.Client {
+
+        int frames;
+
+        @Override
+        boolean doAnimationFrame(long frameTimeNanos) {
+            frames++;
+            return true;
+        }
+    }
+
+}
@@ -0,0 +1,190 @@
+package com.asadmshah.dynanimhelper;
+
+import android.content.Context;
+import android.support.animation.DynamicAnimation;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SpringChainTest {
+
+    private static final long FRAME = ManualFrameScheduler.FRAME_INTERVAL_60HZ;
+
+    private static final int MAX_FRAMES = 2000;
+
+    private final ManualFrameScheduler scheduler = new ManualFrameScheduler();
+
+    private final EndCounter endCounter = new EndCounter();
+
+    private SpringChain.Builder builder;
+
+    @Before
+    public void setUp() {
+        builder = SpringChain
+                .from(new View((Context) null), new View((Context) null))
+                .addProperty(DynamicAnimation.TRANSLATION_X);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsZeroStiffnessFalloff() {
+        builder.setStiffnessFalloff(0f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNegativeStiffnessFalloff() {
+        builder.setStiffnessFalloff(-0.5f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsStiffnessFalloffAboveOne() {
+        builder.setStiffnessFalloff(1.5f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsZeroDampingRatioFalloff() {
+        builder.setDampingRatioFalloff(0f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNaNDampingRatioFalloff() {
+        builder.setDampingRatioFalloff(Float.NaN);
+    }
+
+    @Test
+    public void acceptsFalloffOfOne() {
+        SpringChain chain = builder
+                .setStiffnessFalloff(1f)
+                .setDampingRatioFalloff(1f)
+                .build();
+
+        assertEquals(2, chain.getLinkCount());
+    }
+
+    @Test
+    public void linksFollowTheLeaderAndEndOnce() {
+        TestView[] views = newViews(3);
+        SpringChain chain = SpringChain
+                .from(views)
+                .addProperty(DynamicAnimation.TRANSLATION_X)
+                .setFrameScheduler(scheduler)
+                .build();
+        chain.addEndListener(endCounter);
+
+        chain.animateToFinalPosition(DynamicAnimation.TRANSLATION_X, 100f);
+        for (int i = 0; i < 4; i++) {
+            scheduler.advance(FRAME);
+        }
+        assertTrue(views[0].getTranslationX() > views[1].getTranslationX());
+        assertTrue(views[1].getTranslationX() > views[2].getTranslationX());
+        assertTrue(views[2].getTranslationX() > 0f);
+
+        scheduler.runUntilIdle(FRAME, MAX_FRAMES);
+
+        assertFalse(chain.isRunning());
+        assertEquals(1, endCounter.ends);
+        assertFalse(endCounter.canceled);
+        for (TestView view : views) {
+            assertEquals(100f, view.getTranslationX(), 0f);
+        }
+    }
+
+    @Test
+    public void staggerDelaysEveryLinkOnEveryRetarget() {
+        TestView[] views = newViews(4);
+        // The tail is slow enough to keep the chain running once the first links have settled.
+        SpringChain chain = SpringChain
+                .from(views)
+                .addProperty(DynamicAnimation.TRANSLATION_X)
+                .setStiffnessFalloff(0.2f)
+                .setStaggerDelay(50)
+                .setFrameScheduler(scheduler)
+                .build();
+
+        chain.animateToFinalPosition(DynamicAnimation.TRANSLATION_X, 100f);
+        scheduler.advance(FRAME);
+        int[] reactions = firstFramesAwayFrom(views, 3, 0f);
+        assertStaggered(reactions);
+
+        while (chain.isRunning() && views[2].getTranslationX() != 100f) {
+            scheduler.advance(FRAME);
+        }
+        assertTrue(chain.isRunning());
+        assertEquals(100f, views[0].getTranslationX(), 0f);
+        assertEquals(100f, views[1].getTranslationX(), 0f);
+
+        chain.animateToFinalPosition(DynamicAnimation.TRANSLATION_X, 300f);
+        reactions = firstFramesAwayFrom(views, 3, 100f);
+        assertStaggered(reactions);
+    }
+
+    @Test
+    public void retargetOfAnotherPropertyDoesNothing() {
+        SpringChain chain = builder
+                .setFrameScheduler(scheduler)
+                .build();
+
+        chain.animateToFinalPosition(DynamicAnimation.TRANSLATION_Y, 100f);
+
+        assertFalse(chain.isRunning());
+        assertFalse(scheduler.hasPendingFrame());
+    }
+
+    /**
+     * Steps the chain until the first links have left the given value, and returns the frame in
+     * which each of them did.
+     */
+    private int[] firstFramesAwayFrom(TestView[] views, int links, float value) {
+        int[] frames = new int[links];
+        Arrays.fill(frames, -1);
+        for (int frame = 1; frames[links - 1] < 0 && frame < MAX_FRAMES; frame++) {
+            scheduler.advance(FRAME);
+            for (int i = 0; i < links; i++) {
+                if (frames[i] < 0 && views[i].getTranslationX() != value) {
+                    frames[i] = frame;
+                }
+            }
+        }
+        return frames;
+    }
+
+    /**
+     * Checks that the leader reacted in the first frame and every link at least a stagger delay of
+     * three frames after the link before it.
+     */
+    private static void assertStaggered(int[] reactions) {
+        assertEquals(1, reactions[0]);
+        for (int i = 1; i < reactions.length; i++) {
+            assertTrue(reactions[i] - reactions[i - 1] >= 3);
+            assertTrue(reactions[i] - reactions[i - 1] <= 4);
+        }
+    }
+
+    private static TestView[] newViews(int count) {
+        TestView[] views = new TestView[count];
+        for (int i = 0; i < count; i++) {
+            views[i] = new TestView(true);
+        }
+        return views;
+    }
+
+    static final class EndCounter implements SpringChain.OnChainAnimationEndListener {
+
+        int ends;
+
+        boolean canceled;
+
+        @Override
+        public void onChainAnimationEnd(SpringChain chain, boolean canceled) {
+            ends++;
+            this.canceled = canceled;
+        }
+    }
+
+}
@@ -0,0 +1,93 @@
+package com.asadmshah.dynanimhelper;
+
+import android.support.animation.SpringForce;
+import android.support.v7.widget.RecyclerView;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SpringItemAnimatorTest {
+
+    private static final long FRAME = ManualFrameScheduler.FRAME_INTERVAL_60HZ;
+
+    private static final int MAX_FRAMES = 1000;
+
+    private final ManualFrameScheduler scheduler = new ManualFrameScheduler();
+
+    private final SpringItemAnimator animator = new SpringItemAnimator(SpringForce.STIFFNESS_LOW, SpringForce.DAMPING_RATIO_NO_BOUNCY, scheduler);
+
+    private final TestView view = new TestView(true);
+
+    private final RecyclerView.ViewHolder holder = new RecyclerView.ViewHolder(view) { };
+
+    @Test
+    public void itemMovedAgainMidFlightContinuesFromWhereItIs() {
+        // The item moves from 0 down to 300.
+        assertTrue(animator.animateMove(holder, 0, 0, 0, 300));
+        animator.runPendingAnimations();
+        for (int i = 0; i < 10; i++) {
+            scheduler.advance(FRAME);
+        }
+        Object animation = view.getTag(R.id.spring_item_animation);
+        float position = 300 + view.getTranslationY();
+        assertTrue(position > 0f && position < 300f);
+
+        // Moved again, from its laid out position at 300 to 600, while it is still on its way.
+        assertTrue(animator.animateMove(holder, 0, 300, 0, 600));
+        assertEquals(position, 600 + view.getTranslationY(), 1e-3f);
+        animator.runPendingAnimations();
+        assertTrue(animator.isRunning());
+
+        // It keeps moving down from where it was, without jumping or stopping first.
+        float previous = position;
+        for (int i = 0; i < 3; i++) {
+            scheduler.advance(FRAME);
+            float current = 600 + view.getTranslationY();
+            assertTrue(current >= previous && current - previous < 100f);
+            previous = current;
+        }
+        assertTrue(previous > position);
+        scheduler.runUntilIdle(FRAME, MAX_FRAMES);
+
+        assertFalse(animator.isRunning());
+        assertEquals(0f, view.getTranslationY(), 0f);
+        // The item kept the group it was first given.
+        assertSame(animation, view.getTag(R.id.spring_item_animation));
+    }
+
+    @Test
+    public void itemRemovedMidAddFadesOutFromItsCurrentAlpha() {
+        animator.animateAdd(holder);
+        animator.runPendingAnimations();
+        for (int i = 0; i < 6; i++) {
+            scheduler.advance(FRAME);
+        }
+        float alpha = view.getAlpha();
+        assertTrue(alpha > 0f && alpha < 1f);
+
+        animator.animateRemove(holder);
+        assertEquals(alpha, view.getAlpha(), 0f);
+        animator.runPendingAnimations();
+        // The fade turns around smoothly, and reaches 0 before the view is reset.
+        float previous = alpha;
+        float lowest = alpha;
+        for (int frames = 0; animator.isRunning() && frames < MAX_FRAMES; frames++) {
+            scheduler.advance(FRAME);
+            if (animator.isRunning()) {
+                assertEquals(previous, view.getAlpha(), 0.1f);
+                previous = view.getAlpha();
+                lowest = Math.min(lowest, previous);
+            }
+        }
+
+        assertFalse(animator.isRunning());
+        assertTrue(lowest < 0.01f);
+        // Removed views are reset for reuse.
+        assertEquals(1f, view.getAlpha(), 0f);
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.asadmshah.dynanimhelper;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class SpringSolverTest {
+
+    private static final float STIFFNESS = 400f;
+
+    private static final float DISPLACEMENT = 100f;
+
+    private static final float VELOCITY = -300f;
+
+    private static final float[] TIMES = { 0.01f, 0.05f, 0.1f, 0.25f, 0.5f, 1f };
+
+    @Test
+    public void underDampedMatchesNumericReference() {
+        assertMatchesReference(0.3f);
+    }
+
+    @Test
+    public void criticallyDampedMatchesNumericReference() {
+        assertMatchesReference(1f);
+    }
+
+    @Test
+    public void overDampedMatchesNumericReference() {
+        assertMatchesReference(2.5f);
+    }
+
+    @Test
+    public void undampedMatchesNumericReference() {
+        assertMatchesReference(0f);
+    }
+
+    @Test
+    public void criticallyDampedMatchesClosedForm() {
+        SpringSolver solver = new SpringSolver(STIFFNESS, 1f);
+        double omega = Math.sqrt(STIFFNESS);
+        for (float t : TIMES) {
+            solver.evaluate(t);
+            double decay = Math.exp(-omega * t);
+            double displacement = (DISPLACEMENT + (VELOCITY + omega * DISPLACEMENT) * t) * decay;
+            double velocity = (VELOCITY - omega * (VELOCITY + omega * DISPLACEMENT) * t) * decay;
+            assertEquals(displacement, solver.getDisplacement(DISPLACEMENT, VELOCITY), 1e-3);
+            assertEquals(velocity, solver.getVelocity(DISPLACEMENT, VELOCITY), 1e-2);
+        }
+    }
+
+    @Test
+    public void undampedOscillatesWithNaturalFrequency() {
+        SpringSolver solver = new SpringSolver(STIFFNESS, 0f);
+        double period = 2.0 * Math.PI / Math.sqrt(STIFFNESS);
+        solver.evaluate((float) period);
+        assertEquals(DISPLACEMENT, solver.getDisplacement(DISPLACEMENT, 0f), 1e-3);
+        solver.evaluate((float) (period / 2.0));
+        assertEquals(-DISPLACEMENT, solver.getDisplacement(DISPLACEMENT, 0f), 1e-3);
+    }
+
+    @Test
+    public void startsAtInitialState() {
+        float[] ratios = { 0f, 0.5f, 1f, 2f };
+        for (float ratio : ratios) {
+            SpringSolver solver = new SpringSolver(STIFFNESS, ratio).evaluate(0f);
+            assertEquals(DISPLACEMENT, solver.getDisplacement(DISPLACEMENT, VELOCITY), 1e-4);
+            assertEquals(VELOCITY, solver.getVelocity(DISPLACEMENT, VELOCITY), 1e-4);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveStiffness() {
+        new SpringSolver(0f, 1f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNegativeDampingRatio() {
+        new SpringSolver(STIFFNESS, -0.1f);
+    }
+
+    private static void assertMatchesReference(float dampingRatio) {
+        SpringSolver solver = new SpringSolver(STIFFNESS, dampingRatio);
+        for (float t : TIMES) {
+            double[] reference = integrate(STIFFNESS, dampingRatio, DISPLACEMENT, VELOCITY, t);
+            solver.evaluate(t);
+            assertEquals("displacement at " + t, reference[0], solver.getDisplacement(DISPLACEMENT, VELOCITY), 1e-2);
+            assertEquals("velocity at " + t, reference[1], solver.getVelocity(DISPLACEMENT, VELOCITY), 1e-1);
+        }
+    }
+
+    /**
+     * Integrates x'' = -k x - 2 zeta sqrt(k) x' with fourth order Runge-Kutta in small steps.
+     */
+    private static double[] integrate(double stiffness, double dampingRatio, double displacement, double velocity, double seconds) {
+        double damping = 2.0 * dampingRatio * Math.sqrt(stiffness);
+        int steps = (int) Math.ceil(seconds / 1e-5);
+        double h = seconds / steps;
+        double x = displacement;
+        double v = velocity;
+        for (int i = 0; i < steps; i++) {
+            double k1x = v;
+            double k1v = -stiffness * x - damping * v;
+            double k2x = v + h / 2 * k1v;
+            double k2v = -stiffness * (x + h / 2 * k1x) - damping * k2x;
+            double k3x = v + h / 2 * k2v;
+            double k3v = -stiffness * (x + h / 2 * k2x) - damping * k3x;
+            double k4x = v + h * k3v;
+            double k4v = -stiffness * (x + h * k3x) - damping * k4x;
+            x += h / 6 * (k1x + 2 * k2x + 2 * k3x + k4x);
+            v += h / 6 * (k1v + 2 * k2v + 2 * k3v + k4v);
+        }
+        return new double[] { x, v };
+    }
+
+}
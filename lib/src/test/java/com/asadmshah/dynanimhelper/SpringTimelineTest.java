@@ -0,0 +1,164 @@
+package com.asadmshah.dynanimhelper;
+
+import android.content.Context;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SpringTimelineTest {
+
+    private static final long FRAME = ManualFrameScheduler.FRAME_INTERVAL_60HZ;
+
+    private static final int MAX_FRAMES = 1000;
+
+    private View view;
+
+    @Before
+    public void setUp() {
+        view = new View((Context) null);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rejectsGroupOfAnotherTimeline() {
+        ManualFrameScheduler scheduler = new ManualFrameScheduler();
+        SpringAnimationGroup shared = newGroup(scheduler, new TestProperty("shared")).build();
+        SpringAnimationGroup other = newGroup(scheduler, new TestProperty("other")).build();
+
+        SpringTimeline.play(shared).build();
+        SpringTimeline.play(other).then(shared).build();
+    }
+
+    @Test
+    public void stagesPlayInOrderAndEndOnce() {
+        ManualFrameScheduler scheduler = new ManualFrameScheduler();
+        TestProperty first = new TestProperty("first");
+        TestProperty second = new TestProperty("second");
+        TestProperty third = new TestProperty("third");
+        final int[] ends = new int[1];
+        SpringTimeline timeline = SpringTimeline
+                .play(newGroup(scheduler, first).build())
+                .thenAt(0.5f, newGroup(scheduler, second).build())
+                .then(newGroup(scheduler, third).build())
+                .build()
+                .addEndListener(new SpringTimeline.OnTimelineEndListener() {
+                    @Override
+                    public void onTimelineEnd(SpringTimeline timeline, boolean canceled) {
+                        assertFalse(canceled);
+                        ends[0]++;
+                    }
+                });
+
+        timeline.start();
+        while (second.value == 0f) {
+            scheduler.advance(FRAME);
+        }
+        assertTrue(first.value >= 50f);
+        assertEquals(0f, third.value, 0f);
+
+        scheduler.runUntilIdle(FRAME, MAX_FRAMES);
+
+        assertFalse(timeline.isRunning());
+        assertEquals(1, ends[0]);
+        assertEquals(100f, first.value, 0f);
+        assertEquals(100f, second.value, 0f);
+        assertEquals(100f, third.value, 0f);
+    }
+
+    @Test
+    public void stageWithNothingToAnimateEndsRightAway() {
+        ManualFrameScheduler scheduler = new ManualFrameScheduler();
+        TestProperty first = new TestProperty("first");
+        TestProperty last = new TestProperty("last");
+        final int[] ends = new int[1];
+        SpringAnimationGroup empty = SpringAnimationGroup
+                .from(view)
+                .setEngine(SpringAnimationGroup.ENGINE_ANALYTIC)
+                .setFrameScheduler(scheduler)
+                .build();
+        SpringTimeline timeline = SpringTimeline
+                .play(newGroup(scheduler, first).build())
+                .then(empty)
+                .then(newGroup(scheduler, last).build())
+                .build()
+                .addEndListener(new SpringTimeline.OnTimelineEndListener() {
+                    @Override
+                    public void onTimelineEnd(SpringTimeline timeline, boolean canceled) {
+                        assertFalse(canceled);
+                        ends[0]++;
+                    }
+                });
+
+        timeline.start();
+        int frames = scheduler.runUntilIdle(FRAME, MAX_FRAMES);
+
+        assertTrue(frames < MAX_FRAMES);
+        assertFalse(timeline.isRunning());
+        assertEquals(1, ends[0]);
+        assertEquals(100f, last.value, 0f);
+    }
+
+    @Test
+    public void timelineOfIdleStagesEndsOnStart() {
+        ManualFrameScheduler scheduler = new ManualFrameScheduler();
+        SpringAnimationGroup.Builder empty = SpringAnimationGroup
+                .from(view)
+                .setEngine(SpringAnimationGroup.ENGINE_ANALYTIC)
+                .setFrameScheduler(scheduler);
+        final int[] ends = new int[1];
+        SpringTimeline timeline = SpringTimeline
+                .play(empty.build())
+                .with(empty.build())
+                .then(empty.build())
+                .build()
+                .addEndListener(new SpringTimeline.OnTimelineEndListener() {
+                    @Override
+                    public void onTimelineEnd(SpringTimeline timeline, boolean canceled) {
+                        ends[0]++;
+                    }
+                });
+
+        timeline.start();
+
+        assertFalse(timeline.isRunning());
+        assertEquals(1, ends[0]);
+        assertFalse(scheduler.hasPendingFrame());
+    }
+
+    @Test
+    public void idleLastStageEndsTheTimelineOnce() {
+        ManualFrameScheduler scheduler = new ManualFrameScheduler();
+        final int[] ends = new int[1];
+        SpringTimeline timeline = SpringTimeline
+                .play(newGroup(scheduler, new TestProperty("first")).build())
+                .then(SpringAnimationGroup.from(view).setEngine(SpringAnimationGroup.ENGINE_ANALYTIC).setFrameScheduler(scheduler).build())
+                .build()
+                .addEndListener(new SpringTimeline.OnTimelineEndListener() {
+                    @Override
+                    public void onTimelineEnd(SpringTimeline timeline, boolean canceled) {
+                        ends[0]++;
+                    }
+                });
+
+        timeline.start();
+        scheduler.runUntilIdle(FRAME, MAX_FRAMES);
+
+        assertFalse(timeline.isRunning());
+        assertEquals(1, ends[0]);
+    }
+
+    private SpringAnimationGroup.Builder newGroup(ManualFrameScheduler scheduler, TestProperty property) {
+        return SpringAnimationGroup
+                .from(view)
+                .setEngine(SpringAnimationGroup.ENGINE_ANALYTIC)
+                .setFrameScheduler(scheduler)
+                .setDampingRatio(0.5f)
+                .setStartValue(property, 0f)
+                .setFinalPosition(property, 100f);
+    }
+
+}
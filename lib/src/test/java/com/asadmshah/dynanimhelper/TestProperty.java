@@ -0,0 +1,30 @@
+package com.asadmshah.dynanimhelper;
+
+import android.view.View;
+
+/**
+ * Custom property that keeps its value in a field, so that tests can read what a group wrote
+ * without a real view.
+ */
+final class TestProperty extends FloatProperty<View> {
+
+    float value;
+
+    int writes;
+
+    TestProperty(String name) {
+        super(name, 0.01f);
+    }
+
+    @Override
+    public float getValue(View view) {
+        return value;
+    }
+
+    @Override
+    public void setValue(View view, float value) {
+        this.value = value;
+        writes++;
+    }
+
+}
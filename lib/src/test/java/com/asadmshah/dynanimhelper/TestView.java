@@ -0,0 +1,115 @@
+package com.asadmshah.dynanimhelper;
+
+import android.content.Context;
+import android.os.IBinder;
+import android.view.View;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * View that tests attach to and detach from its window, so that groups can watch it without a
+ * real window. Keeps its translation, alpha and tags in fields, so that tests can read what was
+ * written to it.
+ */
+final class TestView extends View {
+
+    private final ArrayList<OnAttachStateChangeListener> attachStateChangeListeners = new ArrayList<>();
+
+    private final HashMap<Integer, Object> tags = new HashMap<>();
+
+    private boolean attached;
+
+    private float translationX;
+
+    private float translationY;
+
+    private float alpha = 1f;
+
+    TestView(boolean attached) {
+        super((Context) null);
+        this.attached = attached;
+    }
+
+    void attach() {
+        attached = true;
+        for (OnAttachStateChangeListener listener : new ArrayList<>(attachStateChangeListeners)) {
+            listener.onViewAttachedToWindow(this);
+        }
+    }
+
+    /**
+     * Like the framework, tells the listeners before the view loses its window.
+     */
+    void detach() {
+        for (OnAttachStateChangeListener listener : new ArrayList<>(attachStateChangeListeners)) {
+            listener.onViewDetachedFromWindow(this);
+        }
+        attached = false;
+    }
+
+    int getAttachStateListenerCount() {
+        return attachStateChangeListeners.size();
+    }
+
+    @Override
+    public float getTranslationX() {
+        return translationX;
+    }
+
+    @Override
+    public void setTranslationX(float translationX) {
+        this.translationX = translationX;
+    }
+
+    @Override
+    public float getTranslationY() {
+        return translationY;
+    }
+
+    @Override
+    public void setTranslationY(float translationY) {
+        this.translationY = translationY;
+    }
+
+    @Override
+    public float getAlpha() {
+        return alpha;
+    }
+
+    @Override
+    public void setAlpha(float alpha) {
+        this.alpha = alpha;
+    }
+
+    @Override
+    public Object getTag(int key) {
+        return tags.get(key);
+    }
+
+    @Override
+    public void setTag(int key, Object tag) {
+        tags.put(key, tag);
+    }
+
+    @Override
+    public IBinder getWindowToken() {
+        return attached ? super.getWindowToken() : null;
+    }
+
+    @Override
+    public boolean isShown() {
+        return attached;
+    }
+
+    @Override
+    public void addOnAttachStateChangeListener(OnAttachStateChangeListener listener) {
+        attachStateChangeListeners.add(listener);
+    }
+
+    @Override
+    public void removeOnAttachStateChangeListener(OnAttachStateChangeListener listener) {
+        attachStateChangeListeners.remove(listener);
+    }
+
+}
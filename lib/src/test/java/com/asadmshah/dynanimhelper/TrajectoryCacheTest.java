@@ -0,0 +1,123 @@
+package com.asadmshah.dynanimhelper;
+
+import android.content.Context;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TrajectoryCacheTest {
+
+    private static final long FRAME = ManualFrameScheduler.FRAME_INTERVAL_60HZ;
+
+    private final ManualFrameScheduler scheduler = new ManualFrameScheduler();
+
+    private final TrajectoryCache cache = new TrajectoryCache(8);
+
+    private View view;
+
+    @Before
+    public void setUp() {
+        view = new View((Context) null);
+    }
+
+    @Test
+    public void cachedSpringStaysWithinMinimumVisibleChange() {
+        TestProperty cached = new TestProperty("cached");
+        TestProperty direct = new TestProperty("direct");
+        // The relative velocity of -2.503 isn't a multiple of the resolution.
+        SpringAnimationGroup cachedGroup = newGroup(cached, 10f, -25.03f).setTrajectoryCache(cache).build();
+        SpringAnimationGroup directGroup = newGroup(direct, 10f, -25.03f).build();
+
+        cachedGroup.start();
+        directGroup.start();
+        int frames = 0;
+        while (scheduler.hasPendingFrame() && frames++ < 1000) {
+            scheduler.advance(FRAME);
+            assertEquals(direct.value, cached.value, direct.getMinimumVisibleChange());
+        }
+
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0f, cached.value, 0f);
+    }
+
+    @Test
+    public void visibleQuantizationErrorBypassesCache() {
+        TestProperty property = new TestProperty("property");
+        SpringAnimationGroup group = newGroup(property, 10000f, -25030f).setTrajectoryCache(cache).build();
+
+        group.start();
+        scheduler.runUntilIdle(FRAME, 1000);
+
+        assertEquals(0, cache.getMissCount());
+        assertEquals(0, cache.getHitCount());
+        assertEquals(0f, property.value, 0f);
+    }
+
+    @Test
+    public void similarReleasesShareATrajectory() {
+        cache.obtain(400f, 0.5f, 1.001f);
+        cache.obtain(400f, 0.5f, 0.999f);
+        cache.obtain(400f, 0.5f, 1.5f);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getHitCount());
+        assertTrue(cache.obtain(400f, 0.5f, 1f).sample(0f));
+    }
+
+    @Test
+    public void fullCacheEvictsTheLeastRecentlyBakedTrajectory() {
+        TrajectoryCache.Trajectory[] trajectories = fill();
+
+        cache.obtain(400f, 0.5f, 8f);
+
+        assertEquals(8, cache.size());
+        assertEquals(9, cache.getMissCount());
+        for (int i = 1; i < trajectories.length; i++) {
+            assertSame(trajectories[i], cache.obtain(400f, 0.5f, i));
+        }
+        assertNotSame(trajectories[0], cache.obtain(400f, 0.5f, 0f));
+        assertEquals(10, cache.getMissCount());
+    }
+
+    @Test
+    public void lookupKeepsATrajectoryCached() {
+        TrajectoryCache.Trajectory[] trajectories = fill();
+
+        assertSame(trajectories[0], cache.obtain(400f, 0.5f, 0f));
+        cache.obtain(400f, 0.5f, 8f);
+
+        assertEquals(8, cache.size());
+        assertSame(trajectories[0], cache.obtain(400f, 0.5f, 0f));
+        assertNotSame(trajectories[1], cache.obtain(400f, 0.5f, 1f));
+        assertEquals(2, cache.getHitCount());
+    }
+
+    /**
+     * Fills the cache with trajectories for relative velocities 0 to 7, baked in that order.
+     */
+    private TrajectoryCache.Trajectory[] fill() {
+        TrajectoryCache.Trajectory[] trajectories = new TrajectoryCache.Trajectory[8];
+        for (int i = 0; i < trajectories.length; i++) {
+            trajectories[i] = cache.obtain(400f, 0.5f, i);
+        }
+        assertEquals(8, cache.size());
+        return trajectories;
+    }
+
+    private SpringAnimationGroup.Builder newGroup(TestProperty property, float startValue, float startVelocity) {
+        return SpringAnimationGroup
+                .from(view)
+                .setEngine(SpringAnimationGroup.ENGINE_ANALYTIC)
+                .setFrameScheduler(scheduler)
+                .setStartValue(property, startValue)
+                .setStartVelocity(property, startVelocity)
+                .setFinalPosition(property, 0f);
+    }
+
+}
@@ -0,0 +1,148 @@
+package com.asadmshah.dynanimhelper;
+
+import android.content.Context;
+import android.view.View;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class VisibilityWatcherTest {
+
+    private static final long FRAME = ManualFrameScheduler.FRAME_INTERVAL_60HZ;
+
+    private static final int MAX_FRAMES = 1000;
+
+    private final ManualFrameScheduler scheduler = new ManualFrameScheduler();
+
+    private final TestProperty property = new TestProperty("property");
+
+    private final AnalyticGroupTest.EndCounter endCounter = new AnalyticGroupTest.EndCounter();
+
+    @Test
+    public void groupStartedDetachedWaitsUntilItIsDrawn() {
+        TestView view = new TestView(false);
+        SpringAnimationGroup group = newGroup(view, property, SpringAnimationGroup.VISIBILITY_PAUSE).build();
+        group.addEndListener(endCounter);
+
+        group.start();
+        scheduler.advance(FRAME);
+        assertFalse(scheduler.hasPendingFrame());
+
+        // Attaching isn't enough, the view is seen once its window draws it.
+        view.attach();
+        assertFalse(scheduler.hasPendingFrame());
+        group.getVisibilityWatcher().onPreDraw();
+        assertTrue(scheduler.hasPendingFrame());
+        scheduler.runUntilIdle(FRAME, MAX_FRAMES);
+
+        assertEquals(1, endCounter.ends);
+        assertFalse(endCounter.canceled);
+        assertEquals(100f, property.value, 0f);
+        assertEquals(0, view.getAttachStateListenerCount());
+    }
+
+    @Test
+    public void groupDetachedMidRunContinuesWhereItLeftOff() {
+        // Trajectory of the same spring without interruption, one value per frame.
+        TestProperty reference = new TestProperty("reference");
+        SpringAnimationGroup referenceGroup = newGroup(new View((Context) null), reference, SpringAnimationGroup.VISIBILITY_IGNORE).build();
+        ArrayList<Float> trajectory = new ArrayList<>();
+        referenceGroup.start();
+        scheduler.advance(FRAME);
+        while (scheduler.hasPendingFrame()) {
+            trajectory.add(reference.value);
+            scheduler.advance(FRAME);
+        }
+
+        TestView view = new TestView(true);
+        SpringAnimationGroup group = newGroup(view, property, SpringAnimationGroup.VISIBILITY_PAUSE).build();
+        group.addEndListener(endCounter);
+        group.start();
+        for (int i = 0; i <= 5; i++) {
+            scheduler.advance(FRAME);
+        }
+        assertEquals(trajectory.get(5), property.value, 0f);
+
+        view.detach();
+        for (int i = 0; i < 60; i++) {
+            scheduler.advance(FRAME);
+        }
+        assertFalse(scheduler.hasPendingFrame());
+        assertTrue(group.isRunning());
+        assertEquals(trajectory.get(5), property.value, 0f);
+
+        view.attach();
+        group.getVisibilityWatcher().onPreDraw();
+        // The second of paused time doesn't move the spring, it continues from the next frame.
+        scheduler.advance(FRAME);
+        for (int i = 6; i < 16; i++) {
+            scheduler.advance(FRAME);
+            assertEquals(trajectory.get(i), property.value, 1e-3f);
+        }
+        scheduler.runUntilIdle(FRAME, MAX_FRAMES);
+
+        assertEquals(1, endCounter.ends);
+        assertEquals(100f, property.value, 0f);
+        assertEquals(0, view.getAttachStateListenerCount());
+    }
+
+    @Test
+    public void groupStartedDetachedSkipsToItsEndOnce() {
+        TestProperty other = new TestProperty("other");
+        TestView view = new TestView(false);
+        SpringAnimationGroup group = newGroup(view, property, SpringAnimationGroup.VISIBILITY_SKIP_TO_END)
+                .setStartValue(other, 0f)
+                .setFinalPosition(other, -50f)
+                .build();
+        group.addEndListener(endCounter);
+
+        group.start();
+        int frames = scheduler.runUntilIdle(FRAME, MAX_FRAMES);
+
+        assertEquals(1, frames);
+        assertFalse(group.isRunning());
+        assertEquals(1, endCounter.ends);
+        assertFalse(endCounter.canceled);
+        assertEquals(100f, property.value, 0f);
+        assertEquals(-50f, other.value, 0f);
+        assertEquals(0, view.getAttachStateListenerCount());
+    }
+
+    @Test
+    public void cancelingAPausedGroupReleasesItsViews() {
+        TestView view = new TestView(true);
+        SpringAnimationGroup group = newGroup(view, property, SpringAnimationGroup.VISIBILITY_PAUSE).build();
+        group.addEndListener(endCounter);
+
+        group.start();
+        scheduler.advance(FRAME);
+        scheduler.advance(FRAME);
+        view.detach();
+        // Still listening, so that the group continues if the view comes back.
+        assertEquals(1, view.getAttachStateListenerCount());
+
+        group.cancel();
+
+        assertFalse(group.isRunning());
+        assertEquals(1, endCounter.ends);
+        assertTrue(endCounter.canceled);
+        assertEquals(0, view.getAttachStateListenerCount());
+    }
+
+    private SpringAnimationGroup.Builder newGroup(View view, TestProperty property, int visibilityPolicy) {
+        return SpringAnimationGroup
+                .from(view)
+                .setEngine(SpringAnimationGroup.ENGINE_ANALYTIC)
+                .setFrameScheduler(scheduler)
+                .setVisibilityPolicy(visibilityPolicy)
+                .setDampingRatio(0.5f)
+                .setStartValue(property, 0f)
+                .setFinalPosition(property, 100f);
+    }
+
+}
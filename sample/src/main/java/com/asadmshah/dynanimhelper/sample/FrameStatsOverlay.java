@@ -0,0 +1,137 @@
+package com.asadmshah.dynanimhelper.sample;
+
+import android.os.Debug;
+import android.view.Choreographer;
+import android.widget.TextView;
+
+import java.util.Locale;
+
+/**
+ * Shows the frame rate, frame times, dropped frames and allocations of the app on a text view. Frames
+ * are timed with a frame callback of its own, so the numbers don't depend on the engine that is
+ * measured. The text is refreshed twice per second.
+ */
+final class FrameStatsOverlay implements Choreographer.FrameCallback {
+
+    private static final long REPORT_INTERVAL_NANOS = 500000000L;
+
+    private static final float NANOS_PER_MILLI = 1000000f;
+
+    private final TextView textView;
+
+    private final long frameIntervalNanos;
+
+    private boolean running;
+
+    private int groupCount;
+
+    private long lastFrameTimeNanos;
+
+    private long reportStartNanos;
+
+    private int allocCountAtReportStart;
+
+    // Totals of the current report.
+
+    private int frames;
+
+    private long maxFrameIntervalNanos;
+
+    private long libraryNanos;
+
+    // Totals since start.
+
+    private int droppedFrames;
+
+    FrameStatsOverlay(TextView textView, float refreshRate) {
+        this.textView = textView;
+        this.frameIntervalNanos = (long) (1000000000L / refreshRate);
+    }
+
+    /**
+     * Starts counting frames and allocations from zero.
+     *
+     * @param groupCount number of groups being measured, for display only
+     */
+    @SuppressWarnings("deprecation")
+    void start(int groupCount) {
+        stop();
+        this.groupCount = groupCount;
+        running = true;
+        lastFrameTimeNanos = 0;
+        reportStartNanos = 0;
+        droppedFrames = 0;
+        resetReport();
+
+        Debug.startAllocCounting();
+        allocCountAtReportStart = Debug.getGlobalAllocCount();
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    @SuppressWarnings("deprecation")
+    void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        Choreographer.getInstance().removeFrameCallback(this);
+        Debug.stopAllocCounting();
+    }
+
+    /**
+     * Adds time the library spent stepping and dispatching a group in the current frame.
+     */
+    void addLibraryTime(long nanos) {
+        libraryNanos += nanos;
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public void doFrame(long frameTimeNanos) {
+        if (!running) {
+            return;
+        }
+        Choreographer.getInstance().postFrameCallback(this);
+
+        if (lastFrameTimeNanos != 0) {
+            long interval = frameTimeNanos - lastFrameTimeNanos;
+            maxFrameIntervalNanos = Math.max(maxFrameIntervalNanos, interval);
+            int missed = Math.round((float) interval / frameIntervalNanos) - 1;
+            if (missed > 0) {
+                droppedFrames += missed;
+            }
+            frames++;
+        } else {
+            reportStartNanos = frameTimeNanos;
+        }
+        lastFrameTimeNanos = frameTimeNanos;
+
+        long elapsed = frameTimeNanos - reportStartNanos;
+        if (elapsed < REPORT_INTERVAL_NANOS || frames == 0) {
+            return;
+        }
+
+        int allocCount = Debug.getGlobalAllocCount();
+        float seconds = elapsed / (NANOS_PER_MILLI * 1000f);
+        textView.setText(String.format(Locale.US,
+                "%d groups  %.1f fps\nframe %.1f ms  max %.1f ms  dropped %d\nlibrary %.2f ms/frame  %d allocs/s",
+                groupCount,
+                frames / seconds,
+                elapsed / NANOS_PER_MILLI / frames,
+                maxFrameIntervalNanos / NANOS_PER_MILLI,
+                droppedFrames,
+                libraryNanos / NANOS_PER_MILLI / frames,
+                Math.round((allocCount - allocCountAtReportStart) / seconds)));
+
+        reportStartNanos = frameTimeNanos;
+        allocCountAtReportStart = Debug.getGlobalAllocCount();
+        resetReport();
+    }
+
+    private void resetReport() {
+        frames = 0;
+        maxFrameIntervalNanos = 0;
+        libraryNanos = 0;
+    }
+
+}
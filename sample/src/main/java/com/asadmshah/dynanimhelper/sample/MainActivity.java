@@ -1,10 +1,13 @@
 package com.asadmshah.dynanimhelper.sample;
 
+import android.content.Intent;
 import android.os.Bundle;
 import android.support.animation.DynamicAnimation;
 import android.support.animation.SpringForce;
 import android.support.design.widget.FloatingActionButton;
 import android.support.v7.app.AppCompatActivity;
+import android.view.Menu;
+import android.view.MenuItem;
 import android.view.View;
 import android.widget.AdapterView;
 import android.widget.EditText;
@@ -44,7 +47,11 @@ public class MainActivity extends AppCompatActivity {
                     springAnimationGroupBuilder.setFinalPosition(DynamicAnimation.SCALE_X, parseValue(scaleXValue, 1f));
                     springAnimationGroupBuilder.setFinalPosition(DynamicAnimation.SCALE_Y, parseValue(scaleYValue, 1f));
 
-                    springAnimationGroup = springAnimationGroupBuilder.build();
+                    if (springAnimationGroup == null) {
+                        springAnimationGroup = springAnimationGroupBuilder.build();
+                    } else {
+                        springAnimationGroupBuilder.applyTo(springAnimationGroup, false);
+                    }
                     springAnimationGroup.addEndListener(onGroupAnimationEndListener);
                     springAnimationGroup.start();
                 }
@@ -128,6 +135,21 @@ public class MainActivity extends AppCompatActivity {
         scaleYValue.setText("1.0");
     }
 
+    @Override
+    public boolean onCreateOptionsMenu(Menu menu) {
+        getMenuInflater().inflate(R.menu.main, menu);
+        return true;
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(MenuItem item) {
+        if (item.getItemId() == R.id.stress_test) {
+            startActivity(new Intent(this, StressActivity.class));
+            return true;
+        }
+        return super.onOptionsItemSelected(item);
+    }
+
     public static float parseValue(EditText editText, float def) {
         String str = editText.getText().toString();
         float flt;
@@ -0,0 +1,207 @@
+package com.asadmshah.dynanimhelper.sample;
+
+import android.os.Bundle;
+import android.support.animation.DynamicAnimation;
+import android.support.animation.SpringForce;
+import android.support.v4.content.ContextCompat;
+import android.support.v7.app.AppCompatActivity;
+import android.view.View;
+import android.widget.Button;
+import android.widget.CheckBox;
+import android.widget.CompoundButton;
+import android.widget.FrameLayout;
+import android.widget.Spinner;
+import android.widget.TextView;
+
+import com.asadmshah.dynanimhelper.GroupMetrics;
+import com.asadmshah.dynanimhelper.SpringAnimationGroup;
+import com.asadmshah.dynanimhelper.TrajectoryCache;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Runs a configurable number of groups at once, one per view, and shows how the app keeps up. Every
+ * group is retargeted to a new random position once per second, so all of them keep running. The
+ * positions come from a fixed seed, so runs with the same settings animate the same way on every
+ * device.
+ */
+public class StressActivity extends AppCompatActivity {
+
+    private static final int[] GROUP_COUNTS = { 10, 100, 1000 };
+
+    private static final int[] ENGINES = { SpringAnimationGroup.ENGINE_SUPPORT, SpringAnimationGroup.ENGINE_ANALYTIC };
+
+    private static final DynamicAnimation.ViewProperty[] PROPERTIES = {
+            DynamicAnimation.TRANSLATION_X, DynamicAnimation.TRANSLATION_Y, DynamicAnimation.ROTATION
+    };
+
+    private static final long SEED = 42L;
+
+    private static final long RETARGET_INTERVAL_MS = 1000L;
+
+    private static final int DOT_SIZE_DP = 12;
+
+    private final ArrayList<SpringAnimationGroup> groups = new ArrayList<>();
+
+    private final float[] finalPositions = new float[PROPERTIES.length];
+
+    private final Runnable retargetRunnable = new Runnable() {
+        @Override
+        public void run() {
+            retarget();
+            stage.postDelayed(this, RETARGET_INTERVAL_MS);
+        }
+    };
+
+    private final GroupMetrics.MetricsSink metricsSink = new GroupMetrics.MetricsSink() {
+        @Override
+        public void onGroupFrame(SpringAnimationGroup group, GroupMetrics metrics) {
+            overlay.addLibraryTime(metrics.getLastStepNanos() + metrics.getLastDispatchNanos());
+        }
+
+        @Override
+        public void onGroupSettled(SpringAnimationGroup group, GroupMetrics metrics) {
+
+        }
+    };
+
+    private FrameLayout stage;
+    private FrameStatsOverlay overlay;
+    private Button startStopButton;
+
+    private Spinner groupCount;
+    private Spinner engine;
+    private CheckBox trajectoryCache;
+    private CheckBox backgroundStepping;
+    private CheckBox hardwareLayers;
+    private CheckBox settleThreshold;
+    private CheckBox groupMetrics;
+
+    private Random random;
+
+    private boolean running;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_stress);
+
+        stage = (FrameLayout) findViewById(R.id.stage);
+        overlay = new FrameStatsOverlay((TextView) findViewById(R.id.frame_stats), getWindowManager().getDefaultDisplay().getRefreshRate());
+
+        groupCount = (Spinner) findViewById(R.id.group_count);
+        engine = (Spinner) findViewById(R.id.engine);
+        engine.setSelection(1);
+        trajectoryCache = (CheckBox) findViewById(R.id.trajectory_cache);
+        backgroundStepping = (CheckBox) findViewById(R.id.background_stepping);
+        hardwareLayers = (CheckBox) findViewById(R.id.hardware_layers);
+        settleThreshold = (CheckBox) findViewById(R.id.settle_threshold);
+        groupMetrics = (CheckBox) findViewById(R.id.group_metrics);
+
+        // Background stepping doesn't use trajectory caches, so only one of them can be checked.
+        CompoundButton.OnCheckedChangeListener exclusiveListener = new CompoundButton.OnCheckedChangeListener() {
+            @Override
+            public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
+                if (isChecked) {
+                    (buttonView == trajectoryCache ? backgroundStepping : trajectoryCache).setChecked(false);
+                }
+            }
+        };
+        trajectoryCache.setOnCheckedChangeListener(exclusiveListener);
+        backgroundStepping.setOnCheckedChangeListener(exclusiveListener);
+
+        startStopButton = (Button) findViewById(R.id.start_stop);
+        startStopButton.setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View v) {
+                if (running) {
+                    stop();
+                } else {
+                    start();
+                }
+            }
+        });
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        stop();
+    }
+
+    private void start() {
+        int count = GROUP_COUNTS[groupCount.getSelectedItemPosition()];
+        SpringAnimationGroup.Template template = buildTemplate();
+
+        stage.removeAllViews();
+        int size = Math.round(DOT_SIZE_DP * getResources().getDisplayMetrics().density);
+        int color = ContextCompat.getColor(this, R.color.colorAccent);
+        for (int i = 0; i < count; i++) {
+            View dot = new View(this);
+            dot.setBackgroundColor(color);
+            stage.addView(dot, new FrameLayout.LayoutParams(size, size));
+            groups.add(template.create(dot));
+        }
+
+        random = new Random(SEED);
+        running = true;
+        startStopButton.setText(R.string.stop);
+        overlay.start(count);
+        retargetRunnable.run();
+    }
+
+    private void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        stage.removeCallbacks(retargetRunnable);
+        overlay.stop();
+        for (SpringAnimationGroup group : groups) {
+            group.cancel();
+        }
+        groups.clear();
+        stage.removeAllViews();
+        startStopButton.setText(R.string.start);
+    }
+
+    private SpringAnimationGroup.Template buildTemplate() {
+        SpringAnimationGroup.Builder builder = SpringAnimationGroup
+                .template()
+                .setEngine(ENGINES[engine.getSelectedItemPosition()])
+                .setStiffness(SpringForce.STIFFNESS_LOW)
+                .setDampingRatio(SpringForce.DAMPING_RATIO_MEDIUM_BOUNCY)
+                .setFinalPosition(DynamicAnimation.TRANSLATION_X, 0f)
+                .setFinalPosition(DynamicAnimation.TRANSLATION_Y, 0f)
+                .setFinalPosition(DynamicAnimation.ROTATION, 0f)
+                .setBackgroundStepping(backgroundStepping.isChecked())
+                .setHardwareLayerEnabled(hardwareLayers.isChecked());
+
+        if (trajectoryCache.isChecked()) {
+            builder.setTrajectoryCache(new TrajectoryCache(256));
+        }
+        if (settleThreshold.isChecked()) {
+            builder.setSettleThreshold(0.5f, 20f);
+        }
+        if (groupMetrics.isChecked()) {
+            builder.setMetricsSink(metricsSink);
+        }
+        return builder.buildTemplate();
+    }
+
+    /**
+     * Sends every group to a new random position and rotation within the stage.
+     */
+    private void retarget() {
+        int maxX = Math.max(0, stage.getWidth() - stage.getPaddingLeft() - stage.getPaddingRight());
+        int maxY = Math.max(0, stage.getHeight() - stage.getPaddingTop() - stage.getPaddingBottom());
+        for (int i = 0; i < groups.size(); i++) {
+            finalPositions[0] = random.nextFloat() * maxX;
+            finalPositions[1] = random.nextFloat() * maxY;
+            finalPositions[2] = random.nextFloat() * 360f;
+            groups.get(i).animateToFinalPositions(PROPERTIES, finalPositions);
+        }
+    }
+
+}